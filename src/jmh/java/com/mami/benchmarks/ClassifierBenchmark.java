@@ -0,0 +1,76 @@
+package com.mami.benchmarks;
+
+import com.mami.processors.LineClassifier;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Стоимость классификации одной строки: регулярные выражения процессоров против LineClassifier
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassifierBenchmark {
+  private static final int LINES = 1024;
+
+  @Param({"1:1:1", "8:1:1", "1:1:8"})
+  public String mix;
+
+  private String[] lines;
+
+  @Setup
+  public void setUp() {
+    List<String> generated = InputGenerator.lines(LINES, mix, InputGenerator.DEFAULT_SEED);
+    lines = generated.toArray(new String[0]);
+  }
+
+  @Benchmark
+  public void regexIsOnlyDigits(Blackhole blackhole) {
+    for (String line : lines) {
+      blackhole.consume(line.matches("^\\d+$"));
+    }
+  }
+
+  @Benchmark
+  public void regexIsDecimal(Blackhole blackhole) {
+    for (String line : lines) {
+      blackhole.consume(!line.isEmpty() && line.matches("^-?\\d+\\.\\d+(?:[eE][-+]?\\d+)?$"));
+    }
+  }
+
+  @Benchmark
+  public void regexIsOnlyText(Blackhole blackhole) {
+    for (String line : lines) {
+      blackhole.consume(!line.isEmpty() && !line.matches("^-?\\d+(\\.\\d+)?(E-?\\d+)?$"));
+    }
+  }
+
+  @Benchmark
+  public void regexAllThree(Blackhole blackhole) {
+    for (String line : lines) {
+      blackhole.consume(line.matches("^\\d+$"));
+      blackhole.consume(line.matches("^-?\\d+\\.\\d+(?:[eE][-+]?\\d+)?$"));
+      blackhole.consume(!line.matches("^-?\\d+(\\.\\d+)?(E-?\\d+)?$"));
+    }
+  }
+
+  @Benchmark
+  public void lineClassifier(Blackhole blackhole) {
+    for (String line : lines) {
+      blackhole.consume(LineClassifier.classify(line));
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package com.mami.benchmarks;
+
+import com.mami.FileFilterUtil;
+import com.mami.processors.DecimalProcessorImpl;
+import com.mami.processors.NumberProcessorImpl;
+import com.mami.processors.TextProcessorImpl;
+import com.mami.statistics.DecimalStatisticsImpl;
+import com.mami.statistics.NumberStatisticsImpl;
+import com.mami.statistics.TextStatisticsImpl;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Полный запуск FileFilterUtil.call() на сгенерированных входных файлах.
+// Много маленьких файлов: -p files=10000 -p linesPerFile=20 -p mode=single,compat,virtual
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FileFilterBenchmark {
+
+  @Param({"100000"})
+  public long lines;
+
+  @Param({"4"})
+  public int files;
+
+  // Строк в каждом файле; 0 – lines делится поровну между files
+  @Param({"0"})
+  public long linesPerFile;
+
+  @Param({"1:1:1"})
+  public String mix;
+
+  @Param({"single", "compat", "mmap", "threads", "pipeline", "virtual"})
+  public String mode;
+
+  private Path workDir;
+  private Path outputDir;
+  private List<File> inputFiles;
+
+  @Setup(Level.Trial)
+  public void generateInput() throws IOException {
+    workDir = Files.createTempDirectory("file-filter-bench");
+    outputDir = Files.createDirectory(workDir.resolve("out"));
+    inputFiles = new ArrayList<>(files);
+    long fileLines = linesPerFile > 0 ? linesPerFile : lines / files;
+    for (int i = 0; i < files; i++) {
+      Path input = workDir.resolve("input" + i + ".txt");
+      InputGenerator.generate(input, fileLines, mix, InputGenerator.DEFAULT_SEED + i);
+      inputFiles.add(input.toFile());
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteFiles() throws IOException {
+    try (Stream<Path> paths = Files.walk(workDir)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  @Benchmark
+  public int filter() throws Exception {
+    NumberStatisticsImpl numberStatistics = new NumberStatisticsImpl();
+    DecimalStatisticsImpl decimalStatistics = new DecimalStatisticsImpl();
+    TextStatisticsImpl textStatistics = new TextStatisticsImpl();
+    FileFilterUtil util = new FileFilterUtil(numberStatistics, decimalStatistics, textStatistics,
+        new NumberProcessorImpl(numberStatistics), new DecimalProcessorImpl(decimalStatistics),
+        new TextProcessorImpl(textStatistics));
+    util.setInputFiles(inputFiles);
+    util.setOutputDir(outputDir.toFile());
+
+    switch (mode) {
+      case "compat" -> util.setCompatMode(true);
+      case "mmap" -> util.setMmapMode(true);
+      case "pipeline" -> util.setPipelineMode(true);
+      case "threads" -> util.setThreads(Runtime.getRuntime().availableProcessors());
+      case "virtual" -> util.setVirtualThreadsMode(true);
+      default -> {
+      }
+    }
+    return util.call();
+  }
+}
@@ -0,0 +1,120 @@
+package com.mami.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Детерминированный генератор входных данных: при одинаковых параметрах и seed содержимое всегда одинаково.
+ * Состав задаётся весами в виде "целые:вещественные:строки", например "1:1:2".
+ * Запуск: java ... com.mami.benchmarks.InputGenerator <файл> <строк> [состав] [seed]
+ */
+public final class InputGenerator {
+  public static final long DEFAULT_SEED = 20241018L;
+  public static final String DEFAULT_MIX = "1:1:1";
+
+  private static final String[] WORDS = {"Lorem", "ipsum", "dolor", "sit", "amet", "consectetur", "adipiscing",
+      "Пример", "тестовое", "задание", "Long", "alex", "null", "-white34"};
+
+  private final int integerWeight;
+  private final int decimalWeight;
+  private final int totalWeight;
+  private final SplittableRandom random;
+  private final StringBuilder line = new StringBuilder();
+
+  public InputGenerator(String mix, long seed) {
+    String[] weights = mix.split(":");
+    if (weights.length != 3) {
+      throw new IllegalArgumentException("Состав задаётся как целые:вещественные:строки, получено: " + mix);
+    }
+    this.integerWeight = Integer.parseInt(weights[0]);
+    this.decimalWeight = Integer.parseInt(weights[1]);
+    this.totalWeight = integerWeight + decimalWeight + Integer.parseInt(weights[2]);
+    if (integerWeight < 0 || decimalWeight < 0 || totalWeight <= 0) {
+      throw new IllegalArgumentException("Некорректные веса: " + mix);
+    }
+    this.random = new SplittableRandom(seed);
+  }
+
+  public static void generate(Path target, long lines, String mix, long seed) throws IOException {
+    InputGenerator generator = new InputGenerator(mix, seed);
+    try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+      for (long i = 0; i < lines; i++) {
+        writer.append(generator.nextLine()).append('\n');
+      }
+    }
+  }
+
+  public static List<String> lines(int count, String mix, long seed) {
+    InputGenerator generator = new InputGenerator(mix, seed);
+    List<String> lines = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      lines.add(generator.nextLine().toString());
+    }
+    return lines;
+  }
+
+  public CharSequence nextLine() {
+    line.setLength(0);
+    int pick = random.nextInt(totalWeight);
+    if (pick < integerWeight) {
+      appendInteger();
+    } else if (pick < integerWeight + decimalWeight) {
+      appendDecimal();
+    } else {
+      appendText();
+    }
+    return line;
+  }
+
+  private void appendInteger() {
+    // Изредка встречаются числа, не помещающиеся в long
+    int digits = random.nextInt(100) == 0 ? 20 + random.nextInt(20) : 1 + random.nextInt(12);
+    appendDigits(digits);
+  }
+
+  private void appendDecimal() {
+    if (random.nextBoolean()) {
+      line.append('-');
+    }
+    appendDigits(1 + random.nextInt(6));
+    line.append('.');
+    appendDigits(1 + random.nextInt(6));
+    if (random.nextInt(10) == 0) {
+      line.append('E').append(random.nextBoolean() ? "-" : "").append(1 + random.nextInt(30));
+    }
+  }
+
+  private void appendText() {
+    int words = 1 + random.nextInt(5);
+    for (int i = 0; i < words; i++) {
+      if (i > 0) {
+        line.append(' ');
+      }
+      line.append(WORDS[random.nextInt(WORDS.length)]);
+    }
+  }
+
+  private void appendDigits(int count) {
+    line.append((char) ('1' + random.nextInt(9)));
+    for (int i = 1; i < count; i++) {
+      line.append((char) ('0' + random.nextInt(10)));
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("Использование: InputGenerator <файл> <строк> [целые:вещественные:строки] [seed]");
+      System.exit(2);
+    }
+    String mix = args.length > 2 ? args[2] : DEFAULT_MIX;
+    long seed = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_SEED;
+    generate(Paths.get(args[0]), Long.parseLong(args[1]), mix, seed);
+  }
+}
@@ -0,0 +1,59 @@
+package com.mami.benchmarks;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Стоимость разбора числовых строк в BigInteger, long и BigDecimal
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParsingBenchmark {
+  private static final int LINES = 1024;
+
+  private String[] integers;
+  private String[] decimals;
+
+  @Setup
+  public void setUp() {
+    integers = InputGenerator.lines(LINES, "1:0:0", InputGenerator.DEFAULT_SEED).stream()
+        .filter(line -> line.length() <= 18)
+        .toArray(String[]::new);
+    decimals = InputGenerator.lines(LINES, "0:1:0", InputGenerator.DEFAULT_SEED).toArray(new String[0]);
+  }
+
+  @Benchmark
+  public void bigInteger(Blackhole blackhole) {
+    for (String line : integers) {
+      blackhole.consume(new BigInteger(line));
+    }
+  }
+
+  @Benchmark
+  public void parseLong(Blackhole blackhole) {
+    for (String line : integers) {
+      blackhole.consume(Long.parseLong(line));
+    }
+  }
+
+  @Benchmark
+  public void bigDecimal(Blackhole blackhole) {
+    for (String line : decimals) {
+      blackhole.consume(new BigDecimal(line));
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package com.mami.benchmarks;
+
+import com.mami.statistics.DecimalStatisticsImpl;
+import com.mami.statistics.NumberStatisticsImpl;
+import com.mami.statistics.TextStatisticsImpl;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Стоимость Stats.updateStats для каждой реализации; результат делится на количество значений в наборе
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatsBenchmark {
+  private static final int VALUES = 1024;
+
+  private BigInteger[] bigIntegers;
+  private long[] longs;
+  private BigDecimal[] decimals;
+  private String[] strings;
+
+  @Setup
+  public void setUp() {
+    bigIntegers = InputGenerator.lines(VALUES, "1:0:0", InputGenerator.DEFAULT_SEED).stream()
+        .map(BigInteger::new)
+        .toArray(BigInteger[]::new);
+    longs = InputGenerator.lines(VALUES, "1:0:0", InputGenerator.DEFAULT_SEED).stream()
+        .filter(line -> line.length() <= 18)
+        .mapToLong(Long::parseLong)
+        .toArray();
+    decimals = InputGenerator.lines(VALUES, "0:1:0", InputGenerator.DEFAULT_SEED).stream()
+        .map(BigDecimal::new)
+        .toArray(BigDecimal[]::new);
+    strings = InputGenerator.lines(VALUES, "0:0:1", InputGenerator.DEFAULT_SEED).toArray(new String[0]);
+  }
+
+  @Benchmark
+  public NumberStatisticsImpl numberStatisticsBigInteger() {
+    NumberStatisticsImpl stats = new NumberStatisticsImpl();
+    for (BigInteger value : bigIntegers) {
+      stats.updateStats(value);
+    }
+    return stats;
+  }
+
+  @Benchmark
+  public NumberStatisticsImpl numberStatisticsLong() {
+    NumberStatisticsImpl stats = new NumberStatisticsImpl();
+    for (long value : longs) {
+      stats.updateStats(value);
+    }
+    return stats;
+  }
+
+  @Benchmark
+  public DecimalStatisticsImpl decimalStatistics() {
+    DecimalStatisticsImpl stats = new DecimalStatisticsImpl();
+    for (BigDecimal value : decimals) {
+      stats.updateStats(value);
+    }
+    return stats;
+  }
+
+  @Benchmark
+  public TextStatisticsImpl textStatistics() {
+    TextStatisticsImpl stats = new TextStatisticsImpl();
+    for (String value : strings) {
+      stats.updateStats(value);
+    }
+    return stats;
+  }
+}
@@ -20,6 +20,7 @@ public class App {
 
     CommandLine commandLine = getCommandLine();
     commandLine.setHelpFactory(new CustomHelpFactory());
+    commandLine.setCaseInsensitiveEnumValuesAllowed(true);
 
     commandLine.setParameterExceptionHandler((ex, args1) -> {
       if (ex instanceof CommandLine.MissingParameterException) {
@@ -1,18 +1,58 @@
 package com.mami;
 
+import com.mami.classifiers.CategoryDispatcher;
+import com.mami.classifiers.Classifier;
+import com.mami.classifiers.ClassifierRegistry;
+import com.mami.columnar.ColumnarOutputSink;
+import com.mami.columnar.NumericFormat;
+import com.mami.dedup.DedupOutputSink;
 import com.mami.exceptions.InvalidOutputDirectoryException;
 import com.mami.exceptions.MissingOutputDirectoryException;
+import com.mami.manifest.Checkpoint;
+import com.mami.manifest.FileChange;
+import com.mami.manifest.Manifest;
+import com.mami.metrics.Metrics;
+import com.mami.metrics.MetricsFormat;
+import com.mami.metrics.MetricsReport;
+import com.mami.metrics.ProgressReporter;
+import com.mami.output.AtomicFileOutputSink;
+import com.mami.output.FileOutputSink;
+import com.mami.output.FlushPolicy;
+import com.mami.output.OutputSink;
+import com.mami.output.StandardOutputSink;
+import com.mami.processors.CheckpointingProcessor;
+import com.mami.processors.FileChunk;
 import com.mami.processors.FileProcessor;
+import com.mami.processors.InputFiles;
+import com.mami.processors.LineClassifier;
+import com.mami.processors.MappedFileProcessor;
+import com.mami.processors.ParallelFileProcessor;
+import com.mami.processors.PerFileProcessor;
+import com.mami.processors.PipelineProcessor;
+import com.mami.processors.SinglePassProcessor;
+import com.mami.sort.SortingOutputSink;
 import com.mami.statistics.Stats;
+import com.mami.statistics.StatsFormat;
+import com.mami.statistics.StatsSnapshot;
+import com.mami.statistics.StatsWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.DosFileAttributes;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
@@ -26,6 +66,10 @@ import picocli.CommandLine.Parameters;
     customSynopsis = {""},
     description = "Утилита которая фильтрует содержимое файлов на целые числа, строки и вещественные числа.\n")
 public class FileFilterUtil implements Callable<Integer> {
+  private static final String MANIFEST_NAME = "manifest.tsv";
+  private static final String CHECKPOINT_NAME = "checkpoint.tsv";
+  private static final long DEFAULT_CHECKPOINT_SECONDS = 60;
+  private static final StatsSnapshot EMPTY_SNAPSHOT = new StatsSnapshot(0, null, null, null, null, null, null);
 
   @Option(names = {"-s"}, description = "Вывести краткую статистику по количеству элементов")
   private boolean shortStats = false;
@@ -33,6 +77,17 @@ public class FileFilterUtil implements Callable<Integer> {
   @Option(names = {"-f"}, description = "Вывести полную статистику по данным")
   private boolean fullStats = false;
 
+  @Option(names = {"--quantiles"},
+      description = "Добавить к полной статистике (-f) приближённые квантили p50/p95/p99 и гистограмму чисел")
+  private boolean quantiles = false;
+
+  @Option(names = {"--distinct"},
+      description = "Добавить к полной статистике (-f) приближённое число различных строк и самые частые строки")
+  private boolean distinct = false;
+
+  @Option(names = {"--top"}, description = "Сколько самых частых строк выводить при --distinct", defaultValue = "10")
+  private int topCount = 10;
+
   @Option(names = {"-a"}, description = "Добавлять данные в существующие файлы")
   private boolean appendMode = false;
 
@@ -42,7 +97,114 @@ public class FileFilterUtil implements Callable<Integer> {
   @Option(names = {"-p"}, description = "Префикс выходных файлов", defaultValue = "")
   private String prefix = "";
 
-  @Parameters(description = "Список входных файлов")
+  @Option(names = {"--compat"}, description = "Режим совместимости: обрабатывать каждый файл тремя процессорами")
+  private boolean compatMode = false;
+
+  @Option(names = {"--buffer-size"}, description = "Размер буфера записи выходных файлов в байтах",
+      defaultValue = "65536")
+  private int bufferSize = FileOutputSink.DEFAULT_BUFFER_SIZE;
+
+  @Option(names = {"--flush"}, description = "Когда сбрасывать буфер записи: CLOSE, FILE или LINE",
+      defaultValue = "CLOSE")
+  private FlushPolicy flushPolicy = FlushPolicy.CLOSE;
+
+  @Option(names = {"--threads"}, description = "Количество потоков для параллельной обработки входных файлов",
+      defaultValue = "1")
+  private int threads = 1;
+
+  @Option(names = {"--chunk-size"},
+      description = "Размер части в байтах, на которые делятся большие файлы при параллельной обработке и --checkpoint",
+      defaultValue = "67108864")
+  private long chunkSize = ParallelFileProcessor.DEFAULT_CHUNK_SIZE;
+
+  @Option(names = {"--mmap"}, description = "Читать входные файлы через отображение в память (при --threads 1)")
+  private boolean mmapMode = false;
+
+  @Option(names = {"--virtual-threads"},
+      description = "Проверять и читать каждый входной файл в отдельном виртуальном потоке (для множества мелких файлов)")
+  private boolean virtualThreadsMode = false;
+
+  @Option(names = {"--pipeline"},
+      description = "Конвейерная обработка: чтение, классификация и запись выполняются в отдельных потоках")
+  private boolean pipelineMode = false;
+
+  @Option(names = {"--compress-output"},
+      description = "Сжимать выходные файлы gzip; к стандартным именам добавляется суффикс .gz")
+  private boolean compressOutput = false;
+
+  @Option(names = {"--numeric-format"},
+      description = "Формат файлов целых и вещественных чисел: TEXT или BINARY (столбцы long/double с индексом блоков)",
+      defaultValue = "TEXT")
+  private NumericFormat numericFormat = NumericFormat.TEXT;
+
+  @Option(names = {"--atomic-output"},
+      description = "Писать выходные файлы во временные и заменять ими выходные только после успешного завершения")
+  private boolean atomicOutput = false;
+
+  @Option(names = {"--int-output"},
+      description = "Куда писать целые числа вместо файла в -o: путь, FIFO, /dev/fd/N или \"-\" для stdout")
+  private File intOutput;
+
+  @Option(names = {"--float-output"},
+      description = "Куда писать вещественные числа вместо файла в -o: путь, FIFO, /dev/fd/N или \"-\" для stdout")
+  private File floatOutput;
+
+  @Option(names = {"--string-output"},
+      description = "Куда писать строки вместо файла в -o: путь, FIFO, /dev/fd/N или \"-\" для stdout")
+  private File stringOutput;
+
+  @Option(names = {"--dedup"}, description = "Записывать в выходные файлы только первое вхождение каждого значения")
+  private boolean dedup = false;
+
+  @Option(names = {"--dedup-memory"},
+      description = "Память в байтах на множество значений одной категории при --dedup; сверх неё – через диск",
+      defaultValue = "268435456")
+  private long dedupMemory = DedupOutputSink.DEFAULT_MEMORY_LIMIT;
+
+  @Option(names = {"--sort"},
+      description = "Сортировать выходные файлы: числа по значению, строки лексикографически")
+  private boolean sort = false;
+
+  @Option(names = {"--sort-run-size"},
+      description = "Память в байтах на серию одной категории при --sort; серии сверх неё сохраняются на диск",
+      defaultValue = "67108864")
+  private long sortRunSize = SortingOutputSink.DEFAULT_RUN_BYTES;
+
+  @Option(names = {"--sort-fan-in"}, description = "Сколько серий сливать за один проход при --sort",
+      defaultValue = "64")
+  private int sortFanIn = SortingOutputSink.DEFAULT_FAN_IN;
+
+  @Option(names = {"--incremental"},
+      description = "Обрабатывать только новые и изменённые входные файлы, ведя манифест в каталоге -o")
+  private boolean incremental = false;
+
+  @Option(names = {"--checkpoint"},
+      description = "Сохранять контрольную точку в каталоге -o не реже раза в N секунд (0 – после каждой части --chunk-size)")
+  private Long checkpointSeconds;
+
+  @Option(names = {"--resume"}, description = "Продолжить прерванный запуск с контрольной точки из каталога -o")
+  private boolean resume = false;
+
+  @Option(names = {"--category"}, split = ",",
+      description = "Дополнительные категории строк через запятую: uuid, dates, hex; каждая пишется в <имя>.txt")
+  private List<String> categoryNames = new ArrayList<>();
+
+  @Option(names = {"--metrics"},
+      description = "Вывести в конце метрики производительности в формате JSON или PROMETHEUS")
+  private MetricsFormat metricsFormat;
+
+  @Option(names = {"--progress"}, description = "Печатать ход обработки в stderr каждые N секунд (0 – не печатать)",
+      defaultValue = "0")
+  private long progressSeconds = 0;
+
+  @Option(names = {"--stats-format"}, description = "Записать статистику в машиночитаемом формате: JSON или CSV")
+  private StatsFormat statsFormat;
+
+  @Option(names = {"--stats-output"},
+      description = "Файл для статистики из --stats-format; по умолчанию или \"-\" – стандартный вывод")
+  private File statsOutput;
+
+  @Parameters(description = "Список входных файлов; \"-\" означает стандартный ввод")
   private List<File> inputFiles = new ArrayList<>();
 
   private final FileProcessor numberProcessor;
@@ -53,6 +215,16 @@ public class FileFilterUtil implements Callable<Integer> {
   private final Stats<BigDecimal> decimalStatistics;
   private final Stats<String> textStatistics;
 
+  // Создаётся только при --metrics или --progress
+  private Metrics metrics;
+
+  // Сколько входных файлов пропущено при --incremental
+  private int skippedFiles;
+
+  private ClassifierRegistry classifierRegistry = ClassifierRegistry.standard();
+  // Выходные файлы и статистика подключаемых категорий; null, если категории не выбраны
+  private CategoryDispatcher categories;
+
   public FileFilterUtil(Stats<BigInteger> numberStatistics, Stats<BigDecimal> decimalStatistics,
                         Stats<String> textStatistics, FileProcessor numberProcessor, FileProcessor decimalProcessor,
                         FileProcessor textProcessor) {
@@ -70,10 +242,138 @@ public class FileFilterUtil implements Callable<Integer> {
     if (isInputFilesEmpty()) {
       return 1;
     }
-    if (filterValidFiles(inputFiles).isEmpty()) {
+    // В режиме --virtual-threads файлы проверяются параллельно во время обработки
+    if (!virtualThreadsMode && filterValidFiles(inputFiles).isEmpty()) {
       return 1;
     }
 
+    if (bufferSize <= 0) {
+      System.err.println("Ошибка: Размер буфера должен быть положительным: " + bufferSize);
+      return 2;
+    }
+
+    if (threads <= 0) {
+      System.err.println("Ошибка: Количество потоков должно быть положительным: " + threads);
+      return 2;
+    }
+
+    if (chunkSize <= 0) {
+      System.err.println("Ошибка: Размер части должен быть положительным: " + chunkSize);
+      return 2;
+    }
+
+    if (statsFormat != null && (statsOutput == null || isStandardOutput(statsOutput)) && usesStandardOutput()) {
+      System.err.println("Ошибка: Статистика и данные не могут одновременно выводиться в stdout, укажите --stats-output");
+      return 2;
+    }
+
+    if (topCount < 0) {
+      System.err.println("Ошибка: Количество частых строк --top не может быть отрицательным: " + topCount);
+      return 2;
+    }
+
+    // Проверяется заранее, иначе нехватка памяти обнаружится только посреди записи выходных файлов
+    if (dedupMemory < DedupOutputSink.MIN_MEMORY_LIMIT) {
+      System.err.println("Ошибка: Память --dedup-memory должна быть не меньше " + DedupOutputSink.MIN_MEMORY_LIMIT
+          + " байт: " + dedupMemory);
+      return 2;
+    }
+
+    if (sortRunSize <= 0) {
+      System.err.println("Ошибка: Размер серии --sort-run-size должен быть положительным: " + sortRunSize);
+      return 2;
+    }
+
+    if (sortFanIn < 2) {
+      System.err.println("Ошибка: Параметр --sort-fan-in должен быть не меньше 2: " + sortFanIn);
+      return 2;
+    }
+
+    if (compatMode && (dedup || sort || incremental || atomicOutput)) {
+      System.err.println("Ошибка: Режим --compat не поддерживает --dedup, --sort, --incremental и --atomic-output");
+      return 2;
+    }
+
+    // Процессоры режима --compat открывают выходной файл заново для каждого входного, с буфером и сбросом по умолчанию
+    if (compatMode && (bufferSize != FileOutputSink.DEFAULT_BUFFER_SIZE || flushPolicy != FlushPolicy.CLOSE)) {
+      System.err.println("Ошибка: Режим --compat не поддерживает --buffer-size и --flush");
+      return 2;
+    }
+
+    if (checkpointSeconds != null && checkpointSeconds < 0) {
+      System.err.println("Ошибка: Интервал --checkpoint не может быть отрицательным: " + checkpointSeconds);
+      return 2;
+    }
+
+    // Манифест описывает ровно прочитанные байты, поэтому файлы читаются последовательно до снятого заранее размера
+    if (incremental && (threads > 1 || mmapMode || pipelineMode || virtualThreadsMode)) {
+      System.err.println("Ошибка: Режим --incremental не сочетается с --threads, --mmap, --pipeline и --virtual-threads");
+      return 2;
+    }
+
+    // Продолжить с байта можно только там, где выходные файлы дописываются по порядку строк входа
+    if (isCheckpointing() && (compatMode || threads > 1 || mmapMode || pipelineMode || virtualThreadsMode || dedup
+        || sort || incremental || compressOutput || atomicOutput || usesStandardOutput()
+        || inputFiles.stream().anyMatch(InputFiles::isStream))) {
+      System.err.println("Ошибка: Опции --checkpoint и --resume не сочетаются с --compat, --threads, --mmap, --pipeline, "
+          + "--virtual-threads, --dedup, --sort, --incremental, --compress-output, --atomic-output, "
+          + "стандартным вводом и выводом");
+      return 2;
+    }
+
+    for (String name : categoryNames) {
+      if (classifierRegistry.get(name) == null) {
+        System.err.println("Ошибка: Неизвестная категория " + name + ", доступны: "
+            + String.join(", ", classifierRegistry.getNames()));
+        return 2;
+      }
+    }
+
+    // Подключаемые категории проверяются в однопроходной обработке, остальные режимы их не поддерживают
+    if (!categoryNames.isEmpty() && (compatMode || threads > 1 || mmapMode || pipelineMode || virtualThreadsMode)) {
+      System.err.println("Ошибка: Опцию --category нельзя сочетать с --compat, --threads, --mmap, --pipeline и "
+          + "--virtual-threads");
+      return 2;
+    }
+
+    // Двоичный файл дописывается индексом при закрытии, поэтому его нельзя сжать, подменить или обрезать по длине
+    if (numericFormat == NumericFormat.BINARY && (compatMode || compressOutput || atomicOutput || isCheckpointing()
+        || isStandardOutput(intOutput) || isStandardOutput(floatOutput))) {
+      System.err.println("Ошибка: Формат --numeric-format BINARY не сочетается с --compat, --compress-output, "
+          + "--atomic-output, --checkpoint, --resume и выводом чисел в stdout");
+      return 2;
+    }
+
+    if (progressSeconds < 0) {
+      System.err.println("Ошибка: Интервал --progress не может быть отрицательным: " + progressSeconds);
+      return 2;
+    }
+
+    if (compatMode && (metricsFormat != null || progressSeconds > 0)) {
+      System.err.println("Ошибка: Режим --compat не поддерживает --metrics и --progress");
+      return 2;
+    }
+
+    if (virtualThreadsMode && (threads > 1 || mmapMode || pipelineMode || compatMode)) {
+      System.err.println("Ошибка: Опцию --virtual-threads нельзя сочетать с --threads, --mmap, --pipeline и --compat");
+      return 2;
+    }
+
+    if (pipelineMode && (threads > 1 || mmapMode)) {
+      System.err.println("Ошибка: Опцию --pipeline нельзя сочетать с --threads и --mmap");
+      return 2;
+    }
+
+    if (compatMode && compressOutput) {
+      System.err.println("Ошибка: Режим --compat не поддерживает --compress-output");
+      return 2;
+    }
+
+    if (compatMode && (usesStandardOutput() || inputFiles.stream().anyMatch(InputFiles::isStream))) {
+      System.err.println("Ошибка: Режим --compat не поддерживает стандартный ввод, вывод и именованные каналы");
+      return 2;
+    }
+
     if (outputDir == null) {
       throw new MissingOutputDirectoryException();
     }
@@ -86,63 +386,201 @@ public class FileFilterUtil implements Callable<Integer> {
       throw new InvalidOutputDirectoryException("Указанный путь недоступен для записи: " + outputDir);
     }
 
+    if (quantiles && fullStats) {
+      numberStatistics.enableQuantiles();
+      decimalStatistics.enableQuantiles();
+    }
+    if (distinct && fullStats) {
+      textStatistics.enableFrequencies(topCount);
+    }
+
     boolean isIntFileCreated = false;
     boolean isFloatFileCreated = false;
     boolean isStringFileCreated = false;
 
-    File intFile = new File(outputDir, prefix + "integers.txt");
-    File floatFile = new File(outputDir, prefix + "floats.txt");
-    File stringFile = new File(outputDir, prefix + "strings.txt");
+    String suffix = compressOutput ? ".txt.gz" : ".txt";
+    String numericSuffix = numericFormat == NumericFormat.BINARY ? ".bin" : suffix;
+    File intFile = intOutput != null ? intOutput : new File(outputDir, prefix + "integers" + numericSuffix);
+    File floatFile = floatOutput != null ? floatOutput : new File(outputDir, prefix + "floats" + numericSuffix);
+    File stringFile = stringOutput != null ? stringOutput : new File(outputDir, prefix + "strings" + suffix);
+    Map<Classifier<?>, File> categoryFiles = new LinkedHashMap<>();
+    for (Classifier<?> classifier : classifierRegistry.select(categoryNames)) {
+      categoryFiles.put(classifier, new File(outputDir, prefix + classifier.getName() + suffix));
+    }
+    Map<File, Boolean> createdCategoryFiles = new HashMap<>();
+    // Снимки статистики прошлого запуска, которые нужно продолжить
+    Map<String, StatsSnapshot> restoredSnapshots = Map.of();
 
-    try {
-      if (!appendMode) {
-        for (File file : inputFiles) {
+    File checkpointFile = new File(outputDir, prefix + CHECKPOINT_NAME);
+    if (resume && !checkpointFile.exists()) {
+      System.err.println("Ошибка: Контрольная точка не найдена: " + checkpointFile.getAbsolutePath());
+      return 2;
+    }
 
-          if (file.exists() && file.canRead()) {
-            isIntFileCreated = numberProcessor.processFile(file, intFile, isIntFileCreated);
-            isFloatFileCreated = decimalProcessor.processFile(file, floatFile, isFloatFileCreated);
-            isStringFileCreated = textProcessor.processFile(file, stringFile, isStringFileCreated);
-          }
+    try {
+      Checkpoint checkpoint = null;
+      if (resume) {
+        checkpoint = Checkpoint.read(checkpointFile.toPath());
+        if (!checkpoint.inputs().equals(inputPaths())) {
+          System.err.println("Ошибка: Входные файлы отличаются от сохранённых в контрольной точке " + checkpointFile);
+          return 2;
         }
-      } else {
+        isIntFileCreated = restoreOutput(checkpoint, intFile);
+        isFloatFileCreated = restoreOutput(checkpoint, floatFile);
+        isStringFileCreated = restoreOutput(checkpoint, stringFile);
+        for (File file : categoryFiles.values()) {
+          createdCategoryFiles.put(file, restoreOutput(checkpoint, file));
+        }
+        restoredSnapshots = checkpoint.snapshots();
+      }
+
+      Manifest manifest = null;
+      boolean resumed = false;
+      if (incremental) {
+        manifest = loadManifest(new File(outputDir, prefix + MANIFEST_NAME), intFile, floatFile, stringFile);
+        resumed = !manifest.isEmpty();
+      }
 
-        isIntFileCreated = intFile.exists();
-        isFloatFileCreated = floatFile.exists();
-        isStringFileCreated = stringFile.exists();
+      // Продолжение инкрементального запуска всегда дописывает в выходные файлы
+      if ((appendMode || resumed) && !resume) {
 
-        if (!isIntFileCreated && !isFloatFileCreated && !isStringFileCreated) {
+        isIntFileCreated = isStandardOutput(intFile) || intFile.exists();
+        isFloatFileCreated = isStandardOutput(floatFile) || floatFile.exists();
+        isStringFileCreated = isStandardOutput(stringFile) || stringFile.exists();
+        for (File file : categoryFiles.values()) {
+          createdCategoryFiles.put(file, file.exists());
+        }
+
+        if (!resumed && !isIntFileCreated && !isFloatFileCreated && !isStringFileCreated) {
           System.out.println("""
               Выходные файлы не существуют.
               Ошибка: Опция -a (режим добавления) может быть использована только в том случае, если хотя бы один 
               из выходных файлов уже существует..
               """);
           return 6;
-        } else {
+        }
+      }
+
+      List<PlannedInput> plan = null;
+      if (manifest != null) {
+        plan = planIncremental(manifest);
+        // Прежние строки изменённого файла уже есть в выходных файлах и статистике, поэтому всё собирается заново
+        if (plan.stream().anyMatch(input -> input.kind() == FileChange.Kind.MODIFIED)) {
+          List<File> outputs = new ArrayList<>(List.of(intFile, floatFile, stringFile));
+          outputs.addAll(categoryFiles.values());
+          if (numericFormat == NumericFormat.BINARY) {
+            outputs.add(ColumnarOutputSink.overflowFile(intFile));
+            outputs.add(ColumnarOutputSink.overflowFile(floatFile));
+          }
+          discardOutputs(outputs);
+          isIntFileCreated = false;
+          isFloatFileCreated = false;
+          isStringFileCreated = false;
+          createdCategoryFiles.replaceAll((file, created) -> false);
+          resumed = false;
+          manifest = new Manifest();
+          skippedFiles = 0;
+          plan = planIncremental(manifest);
+        }
+      }
+      if (resumed) {
+        restoredSnapshots = manifest.getSnapshots();
+      }
+      numberStatistics.restore(restoredSnapshots.getOrDefault("integers", EMPTY_SNAPSHOT));
+      decimalStatistics.restore(restoredSnapshots.getOrDefault("floats", EMPTY_SNAPSHOT));
+      textStatistics.restore(restoredSnapshots.getOrDefault("strings", EMPTY_SNAPSHOT));
 
-          for (File file : inputFiles) {
+      if (compatMode) {
+        for (File file : inputFiles) {
 
-            if (file.exists() && file.canRead()) {
-              isIntFileCreated = numberProcessor.processFile(file, intFile, isIntFileCreated);
-              isFloatFileCreated = decimalProcessor.processFile(file, floatFile, isFloatFileCreated);
-              isStringFileCreated = textProcessor.processFile(file, stringFile, isStringFileCreated);
+          if (file.exists() && file.canRead()) {
+            isIntFileCreated = numberProcessor.processFile(file, intFile, isIntFileCreated);
+            isFloatFileCreated = decimalProcessor.processFile(file, floatFile, isFloatFileCreated);
+            isStringFileCreated = textProcessor.processFile(file, stringFile, isStringFileCreated);
+          }
+        }
+      } else {
+        if (metricsFormat != null || progressSeconds > 0) {
+          metrics = new Metrics();
+        }
+        // Все категории, направленные в stdout, пишут через один общий буфер
+        StandardOutputSink standardSink = new StandardOutputSink(bufferSize, flushPolicy);
+        ProgressReporter progress =
+            progressSeconds > 0 ? new ProgressReporter(metrics, System.err, progressSeconds) : null;
+        try (OutputSink intSink = createSink(intFile, isIntFileCreated, standardSink, LineClassifier.INTEGER);
+             OutputSink floatSink = createSink(floatFile, isFloatFileCreated, standardSink, LineClassifier.DECIMAL);
+             OutputSink stringSink = createSink(stringFile, isStringFileCreated, standardSink, LineClassifier.TEXT);
+             CategoryDispatcher categorySinks = createCategories(categoryFiles, createdCategoryFiles, standardSink)) {
+          categories = categorySinks.isEmpty() ? null : categorySinks;
+          for (Map.Entry<String, Stats<?>> stats : categorySinks.getStats().entrySet()) {
+            stats.getValue().restore(restoredSnapshots.getOrDefault(stats.getKey(), EMPTY_SNAPSHOT));
+          }
+          try {
+            if (plan != null) {
+              processPlan(plan, intSink, floatSink, stringSink);
+            } else if (isCheckpointing()) {
+              Map<File, OutputSink> outputs = new LinkedHashMap<>();
+              outputs.put(intFile, intSink);
+              outputs.put(floatFile, floatSink);
+              outputs.put(stringFile, stringSink);
+              for (Map.Entry<Classifier<?>, File> category : categoryFiles.entrySet()) {
+                outputs.put(category.getValue(), categorySinks.getSinks().get(category.getKey().getName()));
+              }
+              SinglePassProcessor processor = new SinglePassProcessor(numberStatistics, decimalStatistics,
+                  textStatistics, intSink, floatSink, stringSink);
+              processor.setMetrics(metrics);
+              processor.setCategories(categories);
+              processWithCheckpoints(processor, checkpoint, checkpointFile, outputs);
+            } else if (!processInputs(inputFiles, intSink, floatSink, stringSink)) {
+              abortSinks(intSink, floatSink, stringSink, categorySinks);
+              return 1;
             }
+          } catch (IOException | RuntimeException e) {
+            abortSinks(intSink, floatSink, stringSink, categorySinks);
+            throw e;
+          }
+        } finally {
+          if (progress != null) {
+            progress.close();
           }
         }
+        // Запуск завершён, продолжать больше нечего
+        if (isCheckpointing()) {
+          Files.deleteIfExists(checkpointFile.toPath());
+        }
       }
-      System.out.println(
-          "Фильтрация завершена.\nФайлы сохранены в " + (outputDir.getPath().equals(".") ? "./" : outputDir.getPath()));
 
-      if (shortStats) {
-        System.out.println("Краткая статистика:");
-        numberStatistics.printShortStats();
-        decimalStatistics.printShortStats();
-        textStatistics.printShortStats();
+      if (manifest != null) {
+        for (PlannedInput input : plan) {
+          if (input.kind() != null && input.kind() != FileChange.Kind.UNCHANGED) {
+            manifest.record(input.file(), input.size(), input.modified());
+          }
+        }
+        manifest.setSnapshots(snapshots());
+        manifest.write(new File(outputDir, prefix + MANIFEST_NAME).toPath());
+      }
+
+      // Если в stdout идут данные или машиночитаемая статистика, служебный вывод не должен в них попасть
+      PrintStream out = System.out;
+      boolean statsToStandardOutput = statsFormat != null && (statsOutput == null || isStandardOutput(statsOutput));
+      if (usesStandardOutput() || statsToStandardOutput) {
+        System.setOut(System.err);
       }
-      if (fullStats) {
-        System.out.println("Полная статистика:");
-        numberStatistics.printFullStats();
-        decimalStatistics.printFullStats();
-        textStatistics.printFullStats();
+      try {
+        printSummary();
+      } finally {
+        System.setOut(out);
+      }
+
+      if (statsFormat != null) {
+        if (statsToStandardOutput) {
+          writeStats(out);
+          out.flush();
+        } else {
+          try (Writer writer = Files.newBufferedWriter(statsOutput.toPath(), StandardCharsets.UTF_8)) {
+            writeStats(writer);
+          }
+        }
       }
 
     } catch (IOException e) {
@@ -153,6 +591,304 @@ public class FileFilterUtil implements Callable<Integer> {
     return 0;
   }
 
+  // Недописанные данные неудачного запуска не должны заменить прежние выходные файлы
+  private static void abortSinks(OutputSink intSink, OutputSink floatSink, OutputSink stringSink,
+                                 CategoryDispatcher categorySinks) throws IOException {
+    intSink.abort();
+    floatSink.abort();
+    stringSink.abort();
+    categorySinks.abort();
+  }
+
+  // Обычные файлы обрабатываются выбранным режимом, потоковые и сжатые входы всегда читаются последовательно
+  // Возвращает false, если ни один входной файл не оказался пригодным для обработки
+  private boolean processInputs(List<File> files, OutputSink intSink, OutputSink floatSink, OutputSink stringSink)
+      throws IOException {
+    if (virtualThreadsMode) {
+      PerFileProcessor processor =
+          new PerFileProcessor(numberStatistics, decimalStatistics, textStatistics, intSink, floatSink, stringSink);
+      processor.setMetrics(metrics);
+      processor.processFiles(files);
+      return processor.getProcessedFiles() > 0;
+    }
+    if (pipelineMode) {
+      PipelineProcessor processor =
+          new PipelineProcessor(numberStatistics, decimalStatistics, textStatistics, intSink, floatSink, stringSink);
+      processor.setMetrics(metrics);
+      processor.processFiles(readableFiles(files));
+      return true;
+    }
+    SinglePassProcessor streamProcessor =
+        new SinglePassProcessor(numberStatistics, decimalStatistics, textStatistics, intSink, floatSink, stringSink);
+    streamProcessor.setMetrics(metrics);
+    streamProcessor.setCategories(categories);
+    List<File> regularFiles = new ArrayList<>();
+    for (File file : readableFiles(files)) {
+      if (InputFiles.isSequential(file)) {
+        processRegularFiles(regularFiles, intSink, floatSink, stringSink);
+        regularFiles.clear();
+        streamProcessor.processFile(file);
+      } else {
+        regularFiles.add(file);
+      }
+    }
+    processRegularFiles(regularFiles, intSink, floatSink, stringSink);
+    return true;
+  }
+
+  // Последовательная обработка с контрольными точками; resumeFrom – контрольная точка прерванного запуска или null
+  private void processWithCheckpoints(SinglePassProcessor processor, Checkpoint resumeFrom, File checkpointFile,
+                                      Map<File, OutputSink> outputs) throws IOException {
+    List<String> inputs = inputPaths();
+    long interval = checkpointSeconds != null ? checkpointSeconds : DEFAULT_CHECKPOINT_SECONDS;
+    CheckpointingProcessor checkpointing = new CheckpointingProcessor(processor, chunkSize, interval,
+        (fileIndex, offset) -> {
+          // Длина записывается только у файлов, которые этот запуск уже открыл или дописывает
+          Map<String, Long> lengths = new LinkedHashMap<>();
+          for (Map.Entry<File, OutputSink> output : outputs.entrySet()) {
+            if (output.getValue().isCreated()) {
+              lengths.put(output.getKey().getAbsolutePath(), output.getKey().length());
+            }
+          }
+          new Checkpoint(inputs, fileIndex, offset, lengths, snapshots()).write(checkpointFile.toPath());
+        });
+    if (resumeFrom == null) {
+      checkpointing.processFiles(inputFiles, 0, 0);
+    } else {
+      checkpointing.processFiles(inputFiles, resumeFrom.fileIndex(), resumeFrom.offset());
+    }
+  }
+
+  // Обрезает выходной файл до длины из контрольной точки и возвращает, нужно ли дописывать в него дальше
+  private boolean restoreOutput(Checkpoint checkpoint, File output) throws IOException {
+    Long length = checkpoint.outputs().get(output.getAbsolutePath());
+    if (length == null) {
+      return false;
+    }
+    if (!output.isFile() || output.length() < length) {
+      throw new IOException("Выходной файл " + output.getAbsolutePath() + " короче, чем в контрольной точке");
+    }
+    try (FileChannel channel = FileChannel.open(output.toPath(), StandardOpenOption.WRITE)) {
+      channel.truncate(length);
+    }
+    return true;
+  }
+
+  private boolean isCheckpointing() {
+    return checkpointSeconds != null || resume;
+  }
+
+  private List<String> inputPaths() {
+    List<String> paths = new ArrayList<>();
+    for (File file : inputFiles) {
+      paths.add(file.getPath());
+    }
+    return paths;
+  }
+
+  private void processRegularFiles(List<File> files, OutputSink intSink, OutputSink floatSink,
+                                   OutputSink stringSink) throws IOException {
+    if (files.isEmpty()) {
+      return;
+    }
+    if (threads > 1) {
+      ParallelFileProcessor processor =
+          new ParallelFileProcessor(numberStatistics, decimalStatistics, textStatistics, intSink, floatSink,
+              stringSink, threads, chunkSize);
+      processor.setMetrics(metrics);
+      processor.processFiles(files);
+    } else if (mmapMode) {
+      MappedFileProcessor processor =
+          new MappedFileProcessor(numberStatistics, decimalStatistics, textStatistics, intSink, floatSink,
+              stringSink);
+      processor.setMetrics(metrics);
+      for (File file : files) {
+        processor.processFile(file);
+      }
+    } else {
+      SinglePassProcessor processor =
+          new SinglePassProcessor(numberStatistics, decimalStatistics, textStatistics, intSink, floatSink,
+              stringSink);
+      processor.setMetrics(metrics);
+      processor.setCategories(categories);
+      for (File file : files) {
+        processor.processFile(file);
+      }
+    }
+  }
+
+  // category – одна из категорий LineClassifier, от неё зависят порядок сортировки и хранение для --dedup
+  private OutputSink createSink(File file, boolean isFileCreated, StandardOutputSink standardSink, int category) {
+    OutputSink sink;
+    if (isStandardOutput(file)) {
+      sink = standardSink;
+    } else if (numericFormat == NumericFormat.BINARY && category == LineClassifier.INTEGER) {
+      sink = ColumnarOutputSink.forIntegers(file, ColumnarOutputSink.overflowFile(file), isFileCreated,
+          ColumnarOutputSink.DEFAULT_BLOCK_VALUES, bufferSize, flushPolicy);
+    } else if (numericFormat == NumericFormat.BINARY && category == LineClassifier.DECIMAL) {
+      sink = ColumnarOutputSink.forDecimals(file, ColumnarOutputSink.overflowFile(file), isFileCreated,
+          ColumnarOutputSink.DEFAULT_BLOCK_VALUES, bufferSize, flushPolicy);
+    } else if (atomicOutput && (!file.exists() || file.isFile())) {
+      // Каналы и устройства переименовать нельзя, в них пишется напрямую
+      sink = new AtomicFileOutputSink(file, isFileCreated, bufferSize, flushPolicy, compressOutput);
+    } else {
+      sink = new FileOutputSink(file, isFileCreated, bufferSize, flushPolicy, compressOutput);
+    }
+    // Данные, не поместившиеся в память, временно хранятся в файлах в каталоге -o
+    Path tempParent = outputDir.toPath();
+    if (dedup) {
+      sink = new DedupOutputSink(sink, category == LineClassifier.INTEGER, dedupMemory, tempParent);
+    }
+    if (sort) {
+      sink = switch (category) {
+        case LineClassifier.INTEGER -> SortingOutputSink.forIntegers(sink, sortRunSize, sortFanIn, tempParent);
+        case LineClassifier.DECIMAL -> SortingOutputSink.forDecimals(sink, sortRunSize, sortFanIn, tempParent);
+        default -> SortingOutputSink.forText(sink, sortRunSize, sortFanIn, tempParent);
+      };
+    }
+    return sink;
+  }
+
+  // Выходные файлы подключаемых категорий создаются так же, как у встроенных, и сортируются как строки
+  private CategoryDispatcher createCategories(Map<Classifier<?>, File> categoryFiles, Map<File, Boolean> created,
+                                              StandardOutputSink standardSink) {
+    CategoryDispatcher dispatcher = new CategoryDispatcher();
+    for (Map.Entry<Classifier<?>, File> category : categoryFiles.entrySet()) {
+      File file = category.getValue();
+      dispatcher.add(category.getKey(),
+          createSink(file, created.getOrDefault(file, false), standardSink, LineClassifier.TEXT));
+    }
+    return dispatcher;
+  }
+
+  private boolean isStandardOutput(File file) {
+    return file != null && "-".equals(file.getPath());
+  }
+
+  private boolean usesStandardOutput() {
+    return isStandardOutput(intOutput) || isStandardOutput(floatOutput) || isStandardOutput(stringOutput);
+  }
+
+  private void writeStats(Appendable out) throws IOException {
+    StatsWriter.write(out, statsFormat, snapshots());
+  }
+
+  private Map<String, StatsSnapshot> snapshots() {
+    Map<String, StatsSnapshot> snapshots = new LinkedHashMap<>();
+    snapshots.put("integers", numberStatistics.snapshot());
+    snapshots.put("floats", decimalStatistics.snapshot());
+    snapshots.put("strings", textStatistics.snapshot());
+    if (categories != null) {
+      for (Map.Entry<String, Stats<?>> stats : categories.getStats().entrySet()) {
+        snapshots.put(stats.getKey(), stats.getValue().snapshot());
+      }
+    }
+    return snapshots;
+  }
+
+  // Манифест прошлого запуска; если выходных файлов уже нет, обработка начинается заново
+  private Manifest loadManifest(File manifestFile, File... outputs) throws IOException {
+    if (!manifestFile.exists()) {
+      return new Manifest();
+    }
+    for (File output : outputs) {
+      if (isStandardOutput(output) || output.exists()) {
+        return Manifest.read(manifestFile.toPath());
+      }
+    }
+    System.err.println("Выходные файлы не найдены, манифест " + manifestFile + " не используется.");
+    return new Manifest();
+  }
+
+  // Снимает размер и время изменения входных файлов до чтения и сравнивает их с манифестом
+  private List<PlannedInput> planIncremental(Manifest manifest) throws IOException {
+    List<PlannedInput> plan = new ArrayList<>();
+    for (File file : inputFiles) {
+      if (InputFiles.isStream(file) || !file.isFile() || !file.canRead()) {
+        plan.add(new PlannedInput(file, null, 0, 0, 0, false));
+        continue;
+      }
+      BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+      long size = attributes.size();
+      long modified = attributes.lastModifiedTime().toMillis();
+      FileChange change = manifest.check(file, size, modified);
+      switch (change.kind()) {
+        case UNCHANGED -> skippedFiles++;
+        case MODIFIED -> System.err.println("Предупреждение: Файл " + file.getAbsolutePath()
+            + " изменился с прошлого запуска; выходные файлы и статистика собираются заново по всем входным файлам.");
+        default -> {
+        }
+      }
+      plan.add(new PlannedInput(file, change.kind(), change.offset(), size, modified, InputFiles.isCompressed(file)));
+    }
+    return plan;
+  }
+
+  // Удаляет выходные файлы прежних запусков; каналы и устройства не трогаются
+  private static void discardOutputs(List<File> outputs) throws IOException {
+    for (File output : outputs) {
+      if (output.isFile()) {
+        Files.delete(output.toPath());
+      }
+    }
+  }
+
+  // Обычные файлы читаются только до размера, снятого при планировании: дописанное во время запуска
+  // не попадёт в манифест как обработанное и будет прочитано следующим запуском
+  private void processPlan(List<PlannedInput> plan, OutputSink intSink, OutputSink floatSink, OutputSink stringSink)
+      throws IOException {
+    SinglePassProcessor processor =
+        new SinglePassProcessor(numberStatistics, decimalStatistics, textStatistics, intSink, floatSink, stringSink);
+    processor.setMetrics(metrics);
+    processor.setCategories(categories);
+    for (PlannedInput input : plan) {
+      if (input.kind() == FileChange.Kind.UNCHANGED) {
+        continue;
+      }
+      if (input.kind() == null || input.compressed()) {
+        processInputs(List.of(input.file()), intSink, floatSink, stringSink);
+      } else {
+        processor.processChunk(new FileChunk(input.file(), input.start(), input.size(), true));
+      }
+    }
+  }
+
+  // Входной файл инкрементального запуска. kind == null – поток или недоступный файл: он читается целиком
+  // и в манифест не попадает. У обычного файла size и modified сняты до чтения, start – откуда читать
+  private record PlannedInput(File file, FileChange.Kind kind, long start, long size, long modified,
+                              boolean compressed) {
+  }
+
+  private void printSummary() {
+    System.out.println(
+        "Фильтрация завершена.\nФайлы сохранены в " + (outputDir.getPath().equals(".") ? "./" : outputDir.getPath()));
+
+    if (shortStats) {
+      System.out.println("Краткая статистика:");
+      numberStatistics.printShortStats();
+      decimalStatistics.printShortStats();
+      textStatistics.printShortStats();
+      if (categories != null) {
+        categories.getStats().values().forEach(Stats::printShortStats);
+      }
+    }
+    if (fullStats) {
+      System.out.println("Полная статистика:");
+      numberStatistics.printFullStats();
+      decimalStatistics.printFullStats();
+      textStatistics.printFullStats();
+      if (categories != null) {
+        categories.getStats().values().forEach(Stats::printFullStats);
+      }
+    }
+    if (incremental) {
+      System.out.println("Пропущено неизменённых входных файлов: " + skippedFiles);
+    }
+    if (metrics != null && metricsFormat != null) {
+      System.out.print(MetricsReport.format(metrics, metricsFormat));
+    }
+  }
+
   private boolean isInputFilesEmpty() {
     if (inputFiles.isEmpty()) {
       System.out.println("Воспользуйтесь опцией -h");
@@ -166,11 +902,13 @@ public class FileFilterUtil implements Callable<Integer> {
     List<File> validFiles = new ArrayList<>();
 
     for (File file : inputFiles) {
-      if (!file.exists()) {
+      if (InputFiles.isStdin(file)) {
+        validFiles.add(file);
+      } else if (!file.exists()) {
         System.err.println("Ошибка: Файл " + file.getAbsolutePath() + " не существует. Пропускаем.");
       } else if (!file.canRead()) {
         System.err.println("Ошибка: Файл " + file.getAbsolutePath() + " недоступен для чтения. Пропускаем.");
-      } else if (file.length() == 0) {
+      } else if (file.isFile() && file.length() == 0) {
         System.err.println("Ошибка: Файл " + file.getAbsolutePath() + " пустой. Пропускаем.");
       } else {
         validFiles.add(file);
@@ -179,6 +917,16 @@ public class FileFilterUtil implements Callable<Integer> {
     return validFiles;
   }
 
+  private List<File> readableFiles(List<File> files) {
+    List<File> readableFiles = new ArrayList<>();
+    for (File file : files) {
+      if (InputFiles.isStdin(file) || (file.exists() && file.canRead())) {
+        readableFiles.add(file);
+      }
+    }
+    return readableFiles;
+  }
+
   private boolean canWriteToDirectory(File dir) throws IOException {
     Path path = dir.toPath();
 
@@ -214,6 +962,58 @@ public class FileFilterUtil implements Callable<Integer> {
     this.fullStats = fullStats;
   }
 
+  public void setQuantiles(boolean quantiles) {
+    this.quantiles = quantiles;
+  }
+
+  public void setDistinct(boolean distinct) {
+    this.distinct = distinct;
+  }
+
+  public void setTopCount(int topCount) {
+    this.topCount = topCount;
+  }
+
+  public void setDedup(boolean dedup) {
+    this.dedup = dedup;
+  }
+
+  public void setDedupMemory(long dedupMemory) {
+    this.dedupMemory = dedupMemory;
+  }
+
+  public void setSort(boolean sort) {
+    this.sort = sort;
+  }
+
+  public void setSortRunSize(long sortRunSize) {
+    this.sortRunSize = sortRunSize;
+  }
+
+  public void setSortFanIn(int sortFanIn) {
+    this.sortFanIn = sortFanIn;
+  }
+
+  public void setIncremental(boolean incremental) {
+    this.incremental = incremental;
+  }
+
+  public void setCheckpointSeconds(Long checkpointSeconds) {
+    this.checkpointSeconds = checkpointSeconds;
+  }
+
+  public void setResume(boolean resume) {
+    this.resume = resume;
+  }
+
+  public void setCategoryNames(List<String> categoryNames) {
+    this.categoryNames = categoryNames;
+  }
+
+  public void setClassifierRegistry(ClassifierRegistry classifierRegistry) {
+    this.classifierRegistry = classifierRegistry;
+  }
+
   public void setAppendMode(boolean appendMode) {
     this.appendMode = appendMode;
   }
@@ -222,4 +1022,76 @@ public class FileFilterUtil implements Callable<Integer> {
     this.prefix = prefix;
   }
 
+  public void setCompatMode(boolean compatMode) {
+    this.compatMode = compatMode;
+  }
+
+  public void setBufferSize(int bufferSize) {
+    this.bufferSize = bufferSize;
+  }
+
+  public void setFlushPolicy(FlushPolicy flushPolicy) {
+    this.flushPolicy = flushPolicy;
+  }
+
+  public void setThreads(int threads) {
+    this.threads = threads;
+  }
+
+  public void setChunkSize(long chunkSize) {
+    this.chunkSize = chunkSize;
+  }
+
+  public void setMmapMode(boolean mmapMode) {
+    this.mmapMode = mmapMode;
+  }
+
+  public void setMetricsFormat(MetricsFormat metricsFormat) {
+    this.metricsFormat = metricsFormat;
+  }
+
+  public void setProgressSeconds(long progressSeconds) {
+    this.progressSeconds = progressSeconds;
+  }
+
+  public void setStatsFormat(StatsFormat statsFormat) {
+    this.statsFormat = statsFormat;
+  }
+
+  public void setStatsOutput(File statsOutput) {
+    this.statsOutput = statsOutput;
+  }
+
+  public void setVirtualThreadsMode(boolean virtualThreadsMode) {
+    this.virtualThreadsMode = virtualThreadsMode;
+  }
+
+  public void setPipelineMode(boolean pipelineMode) {
+    this.pipelineMode = pipelineMode;
+  }
+
+  public void setCompressOutput(boolean compressOutput) {
+    this.compressOutput = compressOutput;
+  }
+
+  public void setNumericFormat(NumericFormat numericFormat) {
+    this.numericFormat = numericFormat;
+  }
+
+  public void setAtomicOutput(boolean atomicOutput) {
+    this.atomicOutput = atomicOutput;
+  }
+
+  public void setIntOutput(File intOutput) {
+    this.intOutput = intOutput;
+  }
+
+  public void setFloatOutput(File floatOutput) {
+    this.floatOutput = floatOutput;
+  }
+
+  public void setStringOutput(File stringOutput) {
+    this.stringOutput = stringOutput;
+  }
+
 }
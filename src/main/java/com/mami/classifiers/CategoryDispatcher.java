@@ -0,0 +1,105 @@
+package com.mami.classifiers;
+
+import com.mami.output.OutputSink;
+import com.mami.statistics.Stats;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Проверяет строку подключаемыми классификаторами в порядке приоритета в том же проходе, что и встроенная
+ * классификация. Первый подошедший забирает строку в свой выходной файл и статистику.
+ * Владеет выходными файлами категорий и закрывает их.
+ */
+public class CategoryDispatcher implements Closeable {
+  private final List<Route<?>> routes = new ArrayList<>();
+
+  // Добавляется в конец: вызывающий передаёт классификаторы уже по возрастанию приоритета
+  public <T> void add(Classifier<T> classifier, OutputSink sink) {
+    routes.add(new Route<>(classifier, classifier.createStats(), sink));
+  }
+
+  public boolean isEmpty() {
+    return routes.isEmpty();
+  }
+
+  // Возвращает true, если строку забрала одна из категорий
+  public boolean dispatch(String line) throws IOException {
+    for (Route<?> route : routes) {
+      if (route.classifier.mayMatch(line) && route.accept(line)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Статистика по именам категорий в порядке проверки
+  public Map<String, Stats<?>> getStats() {
+    Map<String, Stats<?>> stats = new LinkedHashMap<>();
+    for (Route<?> route : routes) {
+      stats.put(route.classifier.getName(), route.stats);
+    }
+    return stats;
+  }
+
+  public Map<String, OutputSink> getSinks() {
+    Map<String, OutputSink> sinks = new LinkedHashMap<>();
+    for (Route<?> route : routes) {
+      sinks.put(route.classifier.getName(), route.sink);
+    }
+    return sinks;
+  }
+
+  public void flush() throws IOException {
+    for (Route<?> route : routes) {
+      route.sink.flush();
+    }
+  }
+
+  public void onInputFileProcessed() throws IOException {
+    for (Route<?> route : routes) {
+      route.sink.onInputFileProcessed();
+    }
+  }
+
+  public void abort() throws IOException {
+    for (Route<?> route : routes) {
+      route.sink.abort();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    IOException failure = null;
+    for (Route<?> route : routes) {
+      try {
+        route.sink.close();
+      } catch (IOException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private record Route<T>(Classifier<T> classifier, Stats<T> stats, OutputSink sink) {
+
+    boolean accept(String line) throws IOException {
+      T value = classifier.parse(line);
+      if (value == null) {
+        return false;
+      }
+      sink.write(line);
+      stats.updateStats(value);
+      return true;
+    }
+  }
+}
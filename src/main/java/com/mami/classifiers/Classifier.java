@@ -0,0 +1,25 @@
+package com.mami.classifiers;
+
+import com.mami.statistics.Stats;
+
+/**
+ * Подключаемая категория строк. Строка, которую принял классификатор, пишется в его выходной файл
+ * {@code <префикс><имя>.txt} и не попадает во встроенные категории.
+ *
+ * @param <T> тип значения для статистики
+ */
+public interface Classifier<T> {
+  // Имя категории: имя выходного файла и ключ в машиночитаемой статистике
+  String getName();
+
+  // Классификаторы проверяются по возрастанию приоритета, строку забирает первый подошедший
+  int getPriority();
+
+  // Быстрая проверка без разбора строки: false означает, что строка точно не подходит
+  boolean mayMatch(String line);
+
+  // Значение строки или null, если строка не подходит; вызывается только после mayMatch
+  T parse(String line);
+
+  Stats<T> createStats();
+}
@@ -0,0 +1,61 @@
+package com.mami.classifiers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Доступные подключаемые категории по именам. Новая категория добавляется реализацией {@link Classifier}
+ * и регистрацией здесь; входные файлы при этом по-прежнему читаются один раз.
+ */
+public class ClassifierRegistry {
+  private static final Pattern NAME = Pattern.compile("[a-z0-9_-]+");
+  // Имена встроенных категорий заняты их выходными файлами и статистикой
+  private static final Set<String> RESERVED = Set.of("integers", "floats", "strings");
+
+  private final Map<String, Classifier<?>> classifiers = new LinkedHashMap<>();
+
+  // Реестр со стандартными категориями: uuid, dates, hex
+  public static ClassifierRegistry standard() {
+    ClassifierRegistry registry = new ClassifierRegistry();
+    registry.register(new UuidClassifier(10));
+    registry.register(new DateClassifier(20));
+    registry.register(new HexClassifier(30));
+    return registry;
+  }
+
+  public void register(Classifier<?> classifier) {
+    String name = classifier.getName();
+    if (!NAME.matcher(name).matches() || RESERVED.contains(name)) {
+      throw new IllegalArgumentException("Недопустимое имя категории: " + name);
+    }
+    if (classifiers.putIfAbsent(name, classifier) != null) {
+      throw new IllegalArgumentException("Категория уже зарегистрирована: " + name);
+    }
+  }
+
+  public Classifier<?> get(String name) {
+    return classifiers.get(name);
+  }
+
+  public Set<String> getNames() {
+    return classifiers.keySet();
+  }
+
+  // Выбранные категории в порядке проверки: по приоритету, при равенстве – в порядке регистрации
+  public List<Classifier<?>> select(Collection<String> names) {
+    List<Classifier<?>> selected = new ArrayList<>();
+    for (Classifier<?> classifier : classifiers.values()) {
+      if (names.contains(classifier.getName())) {
+        selected.add(classifier);
+      }
+    }
+    selected.sort(Comparator.comparingInt(Classifier::getPriority));
+    return selected;
+  }
+}
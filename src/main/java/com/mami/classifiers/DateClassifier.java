@@ -0,0 +1,52 @@
+package com.mami.classifiers;
+
+import com.mami.statistics.CategoryStatisticsImpl;
+import com.mami.statistics.Stats;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+// Даты ISO 8601 вида 2024-02-29; несуществующие даты (2023-02-29) остаются строками
+public class DateClassifier implements Classifier<LocalDate> {
+  private static final int LENGTH = 10;
+
+  private final int priority;
+
+  public DateClassifier(int priority) {
+    this.priority = priority;
+  }
+
+  @Override
+  public String getName() {
+    return "dates";
+  }
+
+  @Override
+  public int getPriority() {
+    return priority;
+  }
+
+  @Override
+  public boolean mayMatch(String line) {
+    return line.length() == LENGTH && line.charAt(4) == '-' && line.charAt(7) == '-';
+  }
+
+  @Override
+  public LocalDate parse(String line) {
+    for (int i = 0; i < LENGTH; i++) {
+      if (i != 4 && i != 7 && (line.charAt(i) < '0' || line.charAt(i) > '9')) {
+        return null;
+      }
+    }
+    try {
+      return LocalDate.of(Integer.parseInt(line, 0, 4, 10), Integer.parseInt(line, 5, 7, 10),
+          Integer.parseInt(line, 8, 10, 10));
+    } catch (DateTimeException e) {
+      return null;
+    }
+  }
+
+  @Override
+  public Stats<LocalDate> createStats() {
+    return new CategoryStatisticsImpl<>("Даты", LocalDate::parse);
+  }
+}
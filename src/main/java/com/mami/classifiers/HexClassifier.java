@@ -0,0 +1,49 @@
+package com.mami.classifiers;
+
+import com.mami.statistics.CategoryStatisticsImpl;
+import com.mami.statistics.Stats;
+import java.math.BigInteger;
+
+// Шестнадцатеричные числа вида 0x1F или 0XdeadBEEF
+public class HexClassifier implements Classifier<BigInteger> {
+  private final int priority;
+
+  public HexClassifier(int priority) {
+    this.priority = priority;
+  }
+
+  @Override
+  public String getName() {
+    return "hex";
+  }
+
+  @Override
+  public int getPriority() {
+    return priority;
+  }
+
+  @Override
+  public boolean mayMatch(String line) {
+    return line.length() > 2 && line.charAt(0) == '0' && (line.charAt(1) == 'x' || line.charAt(1) == 'X');
+  }
+
+  @Override
+  public BigInteger parse(String line) {
+    for (int i = 2; i < line.length(); i++) {
+      if (!isHexDigit(line.charAt(i))) {
+        return null;
+      }
+    }
+    return new BigInteger(line.substring(2), 16);
+  }
+
+  @Override
+  public Stats<BigInteger> createStats() {
+    return new CategoryStatisticsImpl<>("Шестнадцатеричные числа", BigInteger::new);
+  }
+
+  // Только ASCII: Character.digit принимает и другие цифры Unicode, и полноширинные буквы
+  static boolean isHexDigit(char c) {
+    return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+  }
+}
@@ -0,0 +1,47 @@
+package com.mami.classifiers;
+
+import com.mami.statistics.CategoryStatisticsImpl;
+import com.mami.statistics.Stats;
+
+// UUID в каноническом виде 8-4-4-4-12 шестнадцатеричных цифр; минимум и максимум – в лексикографическом порядке
+public class UuidClassifier implements Classifier<String> {
+  private static final int LENGTH = 36;
+
+  private final int priority;
+
+  public UuidClassifier(int priority) {
+    this.priority = priority;
+  }
+
+  @Override
+  public String getName() {
+    return "uuid";
+  }
+
+  @Override
+  public int getPriority() {
+    return priority;
+  }
+
+  @Override
+  public boolean mayMatch(String line) {
+    return line.length() == LENGTH && line.charAt(8) == '-' && line.charAt(13) == '-';
+  }
+
+  @Override
+  public String parse(String line) {
+    for (int i = 0; i < LENGTH; i++) {
+      char c = line.charAt(i);
+      boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+      if (dash ? c != '-' : !HexClassifier.isHexDigit(c)) {
+        return null;
+      }
+    }
+    return line;
+  }
+
+  @Override
+  public Stats<String> createStats() {
+    return new CategoryStatisticsImpl<>("UUID", value -> value);
+  }
+}
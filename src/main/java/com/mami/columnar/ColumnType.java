@@ -0,0 +1,26 @@
+package com.mami.columnar;
+
+// Тип значений столбца; код записывается в заголовок файла
+public enum ColumnType {
+  LONG(1),
+  DOUBLE(2);
+
+  private final int code;
+
+  ColumnType(int code) {
+    this.code = code;
+  }
+
+  public int getCode() {
+    return code;
+  }
+
+  static ColumnType of(int code) {
+    for (ColumnType type : values()) {
+      if (type.code == code) {
+        return type;
+      }
+    }
+    return null;
+  }
+}
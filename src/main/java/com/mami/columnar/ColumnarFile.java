@@ -0,0 +1,165 @@
+package com.mami.columnar;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Чтение столбцового файла. Формат (все числа little-endian):
+ * <pre>
+ * заголовок  8 байт "FPUCOL01", int32 тип (1 – long, 2 – double), int32 размер блока в значениях
+ * данные     значения по 8 байт подряд; блок i начинается со значения i * размер блока, неполным бывает только последний
+ * индекс     на каждый блок int64 количество, min и max (того же типа, что значения)
+ * концовка   int64 число блоков, int64 число значений, 8 байт "FPUIDX01"
+ * </pre>
+ * Значения, которые не представимы точно, лежат в столбце приближённо (long – насыщенно до Long.MAX_VALUE),
+ * а точный текст – в побочном файле строками "номер значения TAB значение".
+ * Индекс читается в память, значения отображаются в память частями по 1 ГиБ.
+ */
+public class ColumnarFile implements Closeable {
+  static final long HEADER_MAGIC = magic("FPUCOL01");
+  static final long INDEX_MAGIC = magic("FPUIDX01");
+  static final int HEADER_SIZE = 16;
+  static final int TRAILER_SIZE = 24;
+  static final int BLOCK_ENTRY_SIZE = 24;
+  private static final int SEGMENT_SHIFT = 27;
+
+  private final Path path;
+  private final FileChannel channel;
+  private final ColumnType type;
+  private final int blockValues;
+  private final long count;
+  private final long[] blockSizes;
+  private final long[] blockMins;
+  private final long[] blockMaxs;
+
+  private MappedByteBuffer[] segments;
+
+  private ColumnarFile(Path path, FileChannel channel, ColumnType type, int blockValues, long count,
+                       long[] blockSizes, long[] blockMins, long[] blockMaxs) {
+    this.path = path;
+    this.channel = channel;
+    this.type = type;
+    this.blockValues = blockValues;
+    this.count = count;
+    this.blockSizes = blockSizes;
+    this.blockMins = blockMins;
+    this.blockMaxs = blockMaxs;
+  }
+
+  public static ColumnarFile open(Path path) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      long size = channel.size();
+      if (size < HEADER_SIZE + TRAILER_SIZE) {
+        throw new IOException("Файл не является столбцовым: " + path);
+      }
+      ByteBuffer header = read(channel, 0, HEADER_SIZE);
+      ByteBuffer trailer = read(channel, size - TRAILER_SIZE, TRAILER_SIZE);
+      ColumnType type = ColumnType.of(header.getInt(8));
+      int blockValues = header.getInt(12);
+      long blockCount = trailer.getLong(0);
+      long count = trailer.getLong(8);
+      if (header.getLong(0) != HEADER_MAGIC || trailer.getLong(16) != INDEX_MAGIC || type == null
+          || blockValues <= 0 || count < 0 || blockCount != (count + blockValues - 1) / blockValues
+          || size != HEADER_SIZE + count * Long.BYTES + blockCount * BLOCK_ENTRY_SIZE + TRAILER_SIZE) {
+        throw new IOException("Файл не является столбцовым или повреждён: " + path);
+      }
+      int blocks = (int) blockCount;
+      long[] sizes = new long[blocks];
+      long[] mins = new long[blocks];
+      long[] maxs = new long[blocks];
+      ByteBuffer index = read(channel, HEADER_SIZE + count * Long.BYTES, blocks * BLOCK_ENTRY_SIZE);
+      for (int i = 0; i < blocks; i++) {
+        sizes[i] = index.getLong();
+        mins[i] = index.getLong();
+        maxs[i] = index.getLong();
+      }
+      return new ColumnarFile(path, channel, type, blockValues, count, sizes, mins, maxs);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  public ColumnType getType() {
+    return type;
+  }
+
+  public int getBlockValues() {
+    return blockValues;
+  }
+
+  public int getBlockCount() {
+    return blockSizes.length;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getBlockSize(int block) {
+    return blockSizes[block];
+  }
+
+  // min и max блока в виде битов значения: для DOUBLE – Double.longBitsToDouble
+  public long getBlockMinBits(int block) {
+    return blockMins[block];
+  }
+
+  public long getBlockMaxBits(int block) {
+    return blockMaxs[block];
+  }
+
+  public long getLong(long row) throws IOException {
+    if (row < 0 || row >= count) {
+      throw new IndexOutOfBoundsException("Номер значения вне файла " + path + ": " + row);
+    }
+    int segment = (int) (row >>> SEGMENT_SHIFT);
+    if (segments == null) {
+      segments = new MappedByteBuffer[(int) ((count - 1 >>> SEGMENT_SHIFT) + 1)];
+    }
+    if (segments[segment] == null) {
+      long first = (long) segment << SEGMENT_SHIFT;
+      long values = Math.min(count - first, 1L << SEGMENT_SHIFT);
+      segments[segment] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * Long.BYTES,
+          values * Long.BYTES);
+      segments[segment].order(ByteOrder.LITTLE_ENDIAN);
+    }
+    return segments[segment].getLong((int) (row - ((long) segment << SEGMENT_SHIFT)) * Long.BYTES);
+  }
+
+  public double getDouble(long row) throws IOException {
+    return Double.longBitsToDouble(getLong(row));
+  }
+
+  @Override
+  public void close() throws IOException {
+    segments = null;
+    channel.close();
+  }
+
+  private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new EOFException("Неожиданный конец столбцового файла");
+      }
+    }
+    return buffer.flip();
+  }
+
+  private static long magic(String text) {
+    long value = 0;
+    for (int i = text.length() - 1; i >= 0; i--) {
+      value = (value << 8) | text.charAt(i);
+    }
+    return value;
+  }
+}
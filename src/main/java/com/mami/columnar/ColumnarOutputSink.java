@@ -0,0 +1,321 @@
+package com.mami.columnar;
+
+import com.mami.output.FileOutputSink;
+import com.mami.output.FlushPolicy;
+import com.mami.output.OutputSink;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Запись целых или вещественных чисел в столбцовый файл (формат описан в {@link ColumnarFile}).
+ * Файл открывается при первой записи; индекс блоков и концовка дописываются при закрытии.
+ * При дозаписи индекс существующего файла читается в память и отрезается, неполный последний блок дополняется.
+ */
+public class ColumnarOutputSink implements OutputSink {
+  public static final int DEFAULT_BLOCK_VALUES = 64 * 1024;
+  // Столько значащих цифр вещественного числа гарантированно восстанавливается из double
+  private static final int DOUBLE_DIGITS = 15;
+  private static final String LONG_MAX = Long.toString(Long.MAX_VALUE);
+  private static final int INITIAL_BLOCKS = 16;
+  // В буфер должны помещаться заголовок и концовка
+  private static final int MIN_BUFFER_SIZE = 64;
+
+  private final File outputFile;
+  private final ColumnType type;
+  private final int bufferSize;
+  private final FlushPolicy flushPolicy;
+  private final File overflowFile;
+  private final OutputSink overflow;
+
+  private boolean isFileCreated;
+  private int blockValues;
+  private FileChannel channel;
+  private ByteBuffer buffer;
+
+  // Индекс завершённых блоков
+  private int blocks;
+  private long[] blockMins = new long[INITIAL_BLOCKS];
+  private long[] blockMaxs = new long[INITIAL_BLOCKS];
+
+  // Текущий блок
+  private int blockCount;
+  private long blockMin;
+  private long blockMax;
+
+  private long count;
+
+  private ColumnarOutputSink(File outputFile, File overflowFile, ColumnType type, boolean isFileCreated,
+                             int blockValues, int bufferSize, FlushPolicy flushPolicy) {
+    if (blockValues <= 0) {
+      throw new IllegalArgumentException("Размер блока должен быть положительным: " + blockValues);
+    }
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("Размер буфера должен быть положительным: " + bufferSize);
+    }
+    this.outputFile = outputFile;
+    this.type = type;
+    this.isFileCreated = isFileCreated;
+    this.blockValues = blockValues;
+    this.bufferSize = Math.max(bufferSize, MIN_BUFFER_SIZE);
+    this.flushPolicy = flushPolicy;
+    this.overflowFile = overflowFile;
+    // Побочный файл – обычный текстовый вывод с теми же размером буфера и политикой сброса
+    this.overflow = new FileOutputSink(overflowFile, isFileCreated && overflowFile.exists(), bufferSize,
+        flushPolicy);
+  }
+
+  public static ColumnarOutputSink forIntegers(File outputFile, File overflowFile, boolean isFileCreated,
+                                               int blockValues, int bufferSize, FlushPolicy flushPolicy) {
+    return new ColumnarOutputSink(outputFile, overflowFile, ColumnType.LONG, isFileCreated, blockValues, bufferSize,
+        flushPolicy);
+  }
+
+  public static ColumnarOutputSink forDecimals(File outputFile, File overflowFile, boolean isFileCreated,
+                                               int blockValues, int bufferSize, FlushPolicy flushPolicy) {
+    return new ColumnarOutputSink(outputFile, overflowFile, ColumnType.DOUBLE, isFileCreated, blockValues,
+        bufferSize, flushPolicy);
+  }
+
+  // Побочный файл для значений, которые в столбце лежат приближённо: integers.bin -> integers.overflow.txt
+  public static File overflowFile(File outputFile) {
+    String name = outputFile.getName();
+    int dot = name.lastIndexOf('.');
+    String base = dot > 0 ? name.substring(0, dot) : name;
+    return new File(outputFile.getAbsoluteFile().getParentFile(), base + ".overflow.txt");
+  }
+
+  @Override
+  public void write(String line) throws IOException {
+    if (channel == null) {
+      open();
+    }
+    if (type == ColumnType.LONG) {
+      writeLong(line);
+    } else {
+      writeDouble(line);
+    }
+  }
+
+  // Целые числа из отображённого файла разбираются прямо из байт
+  @Override
+  public void write(ByteBuffer source, int offset, int length) throws IOException {
+    if (type != ColumnType.LONG || length > LONG_MAX.length() - 1) {
+      OutputSink.super.write(source, offset, length);
+      return;
+    }
+    if (channel == null) {
+      open();
+    }
+    long value = 0;
+    for (int i = offset; i < offset + length; i++) {
+      value = value * 10 + (source.get(i) - '0');
+    }
+    append(value, value, null);
+  }
+
+  @Override
+  public void onInputFileProcessed() throws IOException {
+    if (flushPolicy == FlushPolicy.FILE) {
+      flush();
+    }
+    overflow.onInputFileProcessed();
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (channel != null) {
+      drain();
+    }
+    overflow.flush();
+  }
+
+  @Override
+  public boolean isCreated() {
+    return isFileCreated;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      if (channel != null) {
+        if (blockCount > 0) {
+          finishBlock();
+        }
+        for (int i = 0; i < blocks; i++) {
+          ensureRoom(ColumnarFile.BLOCK_ENTRY_SIZE);
+          long size = i < blocks - 1 ? blockValues : count - (long) (blocks - 1) * blockValues;
+          buffer.putLong(size).putLong(blockMins[i]).putLong(blockMaxs[i]);
+        }
+        ensureRoom(ColumnarFile.TRAILER_SIZE);
+        buffer.putLong(blocks).putLong(count).putLong(ColumnarFile.INDEX_MAGIC);
+        drain();
+      }
+    } finally {
+      try {
+        if (channel != null) {
+          channel.close();
+          channel = null;
+          buffer = null;
+        }
+      } finally {
+        overflow.close();
+      }
+    }
+  }
+
+  long getCount() {
+    return count;
+  }
+
+  private void writeLong(String digits) throws IOException {
+    int start = 0;
+    while (start < digits.length() - 1 && digits.charAt(start) == '0') {
+      start++;
+    }
+    int significant = digits.length() - start;
+    boolean fits = significant < LONG_MAX.length()
+        || significant == LONG_MAX.length() && digits.substring(start).compareTo(LONG_MAX) <= 0;
+    if (fits) {
+      long value = Long.parseLong(digits, start, digits.length(), 10);
+      append(value, value, null);
+    } else {
+      append(Long.MAX_VALUE, Long.MAX_VALUE, digits);
+    }
+  }
+
+  private void writeDouble(String line) throws IOException {
+    double value = Double.parseDouble(line);
+    append(Double.doubleToRawLongBits(value), value, isExact(line, value) ? null : line);
+  }
+
+  // sortKey – значение для min и max блока; для double сравнение идёт по самому числу
+  private void append(long bits, double sortKey, String exact) throws IOException {
+    if (exact != null) {
+      overflow.write(count + "\t" + exact);
+    }
+    if (!buffer.hasRemaining()) {
+      drain();
+    }
+    buffer.putLong(bits);
+    if (blockCount == 0) {
+      blockMin = bits;
+      blockMax = bits;
+    } else if (type == ColumnType.LONG) {
+      blockMin = Math.min(blockMin, bits);
+      blockMax = Math.max(blockMax, bits);
+    } else {
+      if (sortKey < Double.longBitsToDouble(blockMin)) {
+        blockMin = bits;
+      }
+      if (sortKey > Double.longBitsToDouble(blockMax)) {
+        blockMax = bits;
+      }
+    }
+    count++;
+    if (++blockCount == blockValues) {
+      finishBlock();
+    }
+    if (flushPolicy == FlushPolicy.LINE) {
+      flush();
+    }
+  }
+
+  private void finishBlock() {
+    if (blocks == blockMins.length) {
+      blockMins = Arrays.copyOf(blockMins, blocks * 2);
+      blockMaxs = Arrays.copyOf(blockMaxs, blocks * 2);
+    }
+    blockMins[blocks] = blockMin;
+    blockMaxs[blocks] = blockMax;
+    blocks++;
+    blockCount = 0;
+  }
+
+  // Вещественное число точно восстанавливается из double, если в нём не больше 15 значащих цифр
+  // и оно в диапазоне нормализованных double
+  static boolean isExact(String line, double value) {
+    if (Double.isInfinite(value)) {
+      return false;
+    }
+    int significant = 0;
+    int trailingZeros = 0;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (c == 'e' || c == 'E') {
+        break;
+      }
+      if (c < '0' || c > '9' || (c == '0' && significant == 0)) {
+        continue;
+      }
+      significant++;
+      trailingZeros = c == '0' ? trailingZeros + 1 : 0;
+    }
+    significant -= trailingZeros;
+    return significant == 0 || (significant <= DOUBLE_DIGITS && Math.abs(value) >= Double.MIN_NORMAL);
+  }
+
+  private void open() throws IOException {
+    buffer = ByteBuffer.allocate(bufferSize - bufferSize % Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    if (isFileCreated && outputFile.isFile() && outputFile.length() > 0) {
+      openForAppend();
+    } else {
+      channel = FileChannel.open(outputFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING);
+      buffer.putLong(ColumnarFile.HEADER_MAGIC).putInt(type.getCode()).putInt(blockValues);
+      // Побочный файл прошлого запуска относится к прежнему содержимому
+      if (!overflow.isCreated()) {
+        Files.deleteIfExists(overflowFile.toPath());
+      }
+    }
+    isFileCreated = true;
+  }
+
+  // Индекс прежнего файла переносится в память, файл обрезается до конца данных
+  private void openForAppend() throws IOException {
+    try (ColumnarFile existing = ColumnarFile.open(outputFile.toPath())) {
+      if (existing.getType() != type) {
+        throw new IOException("Столбцовый файл " + outputFile + " содержит значения другого типа");
+      }
+      blockValues = existing.getBlockValues();
+      count = existing.getCount();
+      int existingBlocks = existing.getBlockCount();
+      blockMins = Arrays.copyOf(blockMins, Math.max(INITIAL_BLOCKS, existingBlocks * 2));
+      blockMaxs = Arrays.copyOf(blockMaxs, blockMins.length);
+      for (int i = 0; i < existingBlocks; i++) {
+        blockMins[i] = existing.getBlockMinBits(i);
+        blockMaxs[i] = existing.getBlockMaxBits(i);
+      }
+      blocks = existingBlocks;
+      if (existingBlocks > 0 && existing.getBlockSize(existingBlocks - 1) < blockValues) {
+        // Неполный последний блок продолжается новыми значениями
+        blocks--;
+        blockCount = (int) existing.getBlockSize(blocks);
+        blockMin = blockMins[blocks];
+        blockMax = blockMaxs[blocks];
+      }
+    }
+    channel = FileChannel.open(outputFile.toPath(), StandardOpenOption.WRITE);
+    channel.truncate(ColumnarFile.HEADER_SIZE + count * Long.BYTES);
+    channel.position(channel.size());
+  }
+
+  private void ensureRoom(int bytes) throws IOException {
+    if (buffer.remaining() < bytes) {
+      drain();
+    }
+  }
+
+  private void drain() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
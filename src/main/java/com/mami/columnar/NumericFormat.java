@@ -0,0 +1,7 @@
+package com.mami.columnar;
+
+// Формат выходных файлов целых и вещественных чисел
+public enum NumericFormat {
+  TEXT,
+  BINARY
+}
@@ -0,0 +1,119 @@
+package com.mami.dedup;
+
+import com.mami.output.OutputSink;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Пропускает в target только первое вхождение каждой строки. Пока множество уже записанных строк помещается
+ * в ограничение памяти, новые строки пишутся сразу. После этого множество больше не растёт: строки из него
+ * по-прежнему отбрасываются, а остальные откладываются на диск и записываются без повторов при закрытии.
+ */
+public class DedupOutputSink implements OutputSink {
+  public static final long DEFAULT_MEMORY_LIMIT = 256L * 1024 * 1024;
+  public static final long MIN_MEMORY_LIMIT = LineSet.MIN_MEMORY_BYTES;
+
+  private final OutputSink target;
+  private final boolean integers;
+  private final long memoryLimit;
+  private final Path spillDirectory;
+
+  private LineSet lines;
+  private SpillPartitions spill;
+  private boolean aborted;
+
+  public DedupOutputSink(OutputSink target, boolean integers, long memoryLimit, Path spillDirectory) {
+    if (memoryLimit < MIN_MEMORY_LIMIT) {
+      throw new IllegalArgumentException(
+          "Ограничение памяти должно быть не меньше " + MIN_MEMORY_LIMIT + " байт: " + memoryLimit);
+    }
+    this.target = target;
+    this.integers = integers;
+    this.memoryLimit = memoryLimit;
+    this.spillDirectory = spillDirectory;
+    this.lines = new LineSet(integers, memoryLimit);
+  }
+
+  @Override
+  public void write(String line) throws IOException {
+    accept(line.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public void write(ByteBuffer source, int offset, int length) throws IOException {
+    byte[] line = new byte[length];
+    source.get(offset, line);
+    accept(line);
+  }
+
+  @Override
+  public void onInputFileProcessed() throws IOException {
+    synchronized (target) {
+      target.onInputFileProcessed();
+    }
+  }
+
+  // Отложенные на диск строки записываются только при закрытии
+  @Override
+  public void flush() throws IOException {
+    synchronized (target) {
+      target.flush();
+    }
+  }
+
+  @Override
+  public boolean isCreated() {
+    return target.isCreated();
+  }
+
+  public boolean isSpilled() {
+    return spill != null;
+  }
+
+  @Override
+  public void abort() throws IOException {
+    aborted = true;
+    target.abort();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      if (spill != null && !aborted) {
+        // Строки из памяти в отложенные не попадали, поэтому множество больше не нужно
+        lines = null;
+        spill.writeTo(target);
+      }
+    } finally {
+      try {
+        if (spill != null) {
+          spill.close();
+        }
+      } finally {
+        target.close();
+      }
+    }
+  }
+
+  private void accept(byte[] line) throws IOException {
+    if (spill == null) {
+      LineSet.Result result = lines.add(line);
+      if (result == LineSet.Result.DUPLICATE) {
+        return;
+      }
+      if (result == LineSet.Result.ADDED) {
+        // Один target (stdout) может быть общим для категорий, которые в --pipeline пишут из разных потоков
+        synchronized (target) {
+          target.write(ByteBuffer.wrap(line), 0, line.length);
+        }
+        return;
+      }
+      spill = new SpillPartitions(spillDirectory, integers, memoryLimit);
+    } else if (lines.contains(line)) {
+      return;
+    }
+    spill.add(line);
+  }
+}
@@ -0,0 +1,106 @@
+package com.mami.dedup;
+
+// Точное множество строк одной категории с ограничением памяти
+class LineSet {
+  // 18 цифр всегда помещаются в long
+  private static final int MAX_LONG_DIGITS = 18;
+  // Меньше памяти не хватит даже на одну строку: таблицы и первый блок выделяются сразу целиком
+  static final long MIN_MEMORY_BYTES = OffHeapLineSet.INITIAL_MEMORY_BYTES + LongHashSet.INITIAL_MEMORY_BYTES;
+
+  private final long memoryLimit;
+  private final LongHashSet numbers;
+  private final OffHeapLineSet lines = new OffHeapLineSet();
+
+  // Для целых чисел короткие значения без ведущих нулей хранятся как long, остальные – как строки
+  LineSet(boolean integers, long memoryLimit) {
+    this.memoryLimit = memoryLimit;
+    this.numbers = integers ? new LongHashSet() : null;
+  }
+
+  enum Result { ADDED, DUPLICATE, NO_ROOM }
+
+  // Добавляет строку, если её ещё нет и для неё хватает памяти
+  Result add(byte[] line) {
+    if (numbers != null && isCompactInteger(line)) {
+      long value = parse(line);
+      if (numbers.contains(value)) {
+        return Result.DUPLICATE;
+      }
+      if (!hasRoom(numbers.memoryBytesForNext())) {
+        return Result.NO_ROOM;
+      }
+      numbers.add(value);
+      return Result.ADDED;
+    }
+    long hash = hash(line);
+    int slot = lines.find(line, hash);
+    if (slot < 0) {
+      return Result.DUPLICATE;
+    }
+    if (!hasRoom(lines.memoryBytesForNext(line.length))) {
+      return Result.NO_ROOM;
+    }
+    lines.insert(slot, line, hash);
+    return Result.ADDED;
+  }
+
+  boolean contains(byte[] line) {
+    if (numbers != null && isCompactInteger(line)) {
+      return numbers.contains(parse(line));
+    }
+    return lines.contains(line, hash(line));
+  }
+
+  private boolean hasRoom(long next) {
+    return next == 0 || memoryBytes() + next <= memoryLimit;
+  }
+
+  void clear() {
+    lines.clear();
+    if (numbers != null) {
+      numbers.clear();
+    }
+  }
+
+  long memoryBytes() {
+    return lines.memoryBytes() + (numbers == null ? 0 : numbers.memoryBytes());
+  }
+
+  static long hash(byte[] line) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : line) {
+      hash = (hash ^ b) * 0x100000001b3L;
+    }
+    return mix(hash);
+  }
+
+  // Финальное перемешивание MurmurHash3: каждый бит результата зависит от всех битов входа
+  static long mix(long value) {
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb9fe1a85ec53L;
+    value ^= value >>> 33;
+    return value;
+  }
+
+  private static boolean isCompactInteger(byte[] line) {
+    if (line.length == 0 || line.length > MAX_LONG_DIGITS || (line[0] == '0' && line.length > 1)) {
+      return false;
+    }
+    for (byte b : line) {
+      if (b < '0' || b > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long parse(byte[] line) {
+    long value = 0;
+    for (byte b : line) {
+      value = value * 10 + (b - '0');
+    }
+    return value;
+  }
+}
@@ -0,0 +1,95 @@
+package com.mami.dedup;
+
+import java.util.Arrays;
+
+/**
+ * Множество long без упаковки в объекты: открытая адресация с линейным пробированием в одном массиве.
+ * Пустая ячейка обозначается нулём, сам ноль хранится отдельным флагом.
+ */
+public class LongHashSet {
+  private static final int INITIAL_CAPACITY = 1024;
+  private static final double MAX_LOAD = 0.5;
+  static final long INITIAL_MEMORY_BYTES = (long) INITIAL_CAPACITY * Long.BYTES;
+
+  private long[] keys = new long[INITIAL_CAPACITY];
+  private int mask = INITIAL_CAPACITY - 1;
+  private int size;
+  private boolean hasZero;
+
+  // true, если значения ещё не было
+  public boolean add(long value) {
+    if (value == 0) {
+      if (hasZero) {
+        return false;
+      }
+      hasZero = true;
+      return true;
+    }
+    int index = slot(value);
+    while (keys[index] != 0) {
+      if (keys[index] == value) {
+        return false;
+      }
+      index = (index + 1) & mask;
+    }
+    keys[index] = value;
+    size++;
+    if (size > keys.length * MAX_LOAD) {
+      grow();
+    }
+    return true;
+  }
+
+  public boolean contains(long value) {
+    if (value == 0) {
+      return hasZero;
+    }
+    int index = slot(value);
+    while (keys[index] != 0) {
+      if (keys[index] == value) {
+        return true;
+      }
+      index = (index + 1) & mask;
+    }
+    return false;
+  }
+
+  public int size() {
+    return hasZero ? size + 1 : size;
+  }
+
+  // Удаляет все значения, сохраняя размер таблицы
+  public void clear() {
+    Arrays.fill(keys, 0);
+    size = 0;
+    hasZero = false;
+  }
+
+  public long memoryBytes() {
+    return (long) keys.length * Long.BYTES;
+  }
+
+  // Сколько памяти потребуется, чтобы добавить ещё одно значение
+  public long memoryBytesForNext() {
+    return size + 1 > keys.length * MAX_LOAD ? memoryBytes() * 2 : 0;
+  }
+
+  private void grow() {
+    long[] old = keys;
+    keys = new long[old.length * 2];
+    mask = keys.length - 1;
+    for (long key : old) {
+      if (key != 0) {
+        int index = slot(key);
+        while (keys[index] != 0) {
+          index = (index + 1) & mask;
+        }
+        keys[index] = key;
+      }
+    }
+  }
+
+  private int slot(long value) {
+    return (int) LineSet.mix(value) & mask;
+  }
+}
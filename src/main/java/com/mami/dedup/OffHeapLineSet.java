@@ -0,0 +1,167 @@
+package com.mami.dedup;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Множество строк в UTF-8 вне кучи. Таблица открытой адресации хранит пары (64-битный хэш, ссылка на строку),
+ * сами байты строк лежат в блоках памяти подряд с префиксом длины. При совпадении хэшей строки сравниваются
+ * побайтно, поэтому коллизии хэша не приводят к потере значений.
+ */
+public class OffHeapLineSet {
+  private static final int INITIAL_CAPACITY = 1024;
+  private static final double MAX_LOAD = 0.5;
+  private static final int SLOT_BYTES = 2 * Long.BYTES;
+  // Блоки растут от начального размера до BLOCK_SIZE, чтобы маленькие множества не занимали лишнего
+  static final int INITIAL_BLOCK_SIZE = 64 * 1024;
+  static final int BLOCK_SIZE = 1 << 20;
+  // Прямой буфер адресуется int, поэтому таблица не растёт дальше 1 ГиБ
+  private static final int MAX_TABLE_BYTES = 1 << 30;
+  // Начальная таблица и первый блок строк
+  static final long INITIAL_MEMORY_BYTES = (long) INITIAL_CAPACITY * SLOT_BYTES + INITIAL_BLOCK_SIZE;
+
+  private ByteBuffer table = ByteBuffer.allocateDirect(INITIAL_CAPACITY * SLOT_BYTES);
+  private int capacity = INITIAL_CAPACITY;
+  private int size;
+
+  private final List<ByteBuffer> blocks = new ArrayList<>();
+  // Блоки после clear() используются повторно; used – сколько из них уже заняты
+  private int used;
+  private long blockBytes;
+
+  // true, если строки ещё не было
+  public boolean add(byte[] line, long hash) {
+    int index = find(line, hash);
+    if (index < 0) {
+      return false;
+    }
+    insert(index, line, hash);
+    return true;
+  }
+
+  public boolean contains(byte[] line, long hash) {
+    return find(line, hash) < 0;
+  }
+
+  // Индекс свободной ячейки для строки или -1, если строка уже есть
+  int find(byte[] line, long hash) {
+    int mask = capacity - 1;
+    int index = (int) hash & mask;
+    long reference;
+    while ((reference = table.getLong(index * SLOT_BYTES + Long.BYTES)) != 0) {
+      if (table.getLong(index * SLOT_BYTES) == hash && equalsStored(reference, line)) {
+        return -1;
+      }
+      index = (index + 1) & mask;
+    }
+    return index;
+  }
+
+  // Записывает строку в свободную ячейку index, найденную find()
+  void insert(int index, byte[] line, long hash) {
+    long reference = store(line);
+    table.putLong(index * SLOT_BYTES, hash);
+    table.putLong(index * SLOT_BYTES + Long.BYTES, reference);
+    size++;
+    if (size > capacity * MAX_LOAD) {
+      grow();
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  // Удаляет все строки, сохраняя выделенную память для повторного использования
+  public void clear() {
+    for (int i = 0; i < capacity; i++) {
+      table.putLong(i * SLOT_BYTES + Long.BYTES, 0);
+    }
+    for (ByteBuffer block : blocks) {
+      block.clear();
+    }
+    size = 0;
+    used = 0;
+  }
+
+  public long memoryBytes() {
+    return table.capacity() + blockBytes;
+  }
+
+  // Сколько памяти потребуется, чтобы добавить ещё одну строку длины length
+  public long memoryBytesForNext(int length) {
+    long extra = 0;
+    if (size + 1 > capacity * MAX_LOAD) {
+      if ((long) table.capacity() * 2 > MAX_TABLE_BYTES) {
+        return Long.MAX_VALUE;
+      }
+      extra = (long) table.capacity() * 2;
+    }
+    if (blockFor(length) < 0) {
+      extra += Math.max(nextBlockSize(), Integer.BYTES + length);
+    }
+    return extra;
+  }
+
+  // Ссылка – номер блока в старших 32 битах и смещение в младших; ноль зарезервирован под пустую ячейку
+  private long store(byte[] line) {
+    int index = blockFor(line.length);
+    if (index < 0) {
+      ByteBuffer allocated = ByteBuffer.allocateDirect(Math.max(nextBlockSize(), Integer.BYTES + line.length));
+      blockBytes += allocated.capacity();
+      index = used;
+      blocks.add(index, allocated);
+    }
+    used = index + 1;
+    ByteBuffer block = blocks.get(index);
+    long reference = ((long) index << 32) | block.position();
+    block.putInt(line.length);
+    block.put(line);
+    return reference + 1;
+  }
+
+  private boolean equalsStored(long reference, byte[] line) {
+    ByteBuffer block = blocks.get((int) ((reference - 1) >>> 32));
+    int offset = (int) (reference - 1);
+    if (block.getInt(offset) != line.length) {
+      return false;
+    }
+    return block.slice(offset + Integer.BYTES, line.length).mismatch(ByteBuffer.wrap(line)) == -1;
+  }
+
+  // Номер текущего или следующего свободного блока, где поместится строка длины length; -1, если нужен новый
+  private int blockFor(int length) {
+    if (used > 0 && blocks.get(used - 1).remaining() >= Integer.BYTES + length) {
+      return used - 1;
+    }
+    if (used < blocks.size() && blocks.get(used).remaining() >= Integer.BYTES + length) {
+      return used;
+    }
+    return -1;
+  }
+
+  private int nextBlockSize() {
+    return blocks.size() >= 4 ? BLOCK_SIZE : INITIAL_BLOCK_SIZE << blocks.size();
+  }
+
+  private void grow() {
+    ByteBuffer old = table;
+    int oldCapacity = capacity;
+    capacity *= 2;
+    table = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+    int mask = capacity - 1;
+    for (int i = 0; i < oldCapacity; i++) {
+      long reference = old.getLong(i * SLOT_BYTES + Long.BYTES);
+      if (reference != 0) {
+        long hash = old.getLong(i * SLOT_BYTES);
+        int index = (int) hash & mask;
+        while (table.getLong(index * SLOT_BYTES + Long.BYTES) != 0) {
+          index = (index + 1) & mask;
+        }
+        table.putLong(index * SLOT_BYTES, hash);
+        table.putLong(index * SLOT_BYTES + Long.BYTES, reference);
+      }
+    }
+  }
+}
@@ -0,0 +1,226 @@
+package com.mami.dedup;
+
+import com.mami.output.OutputSink;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+/**
+ * Строки, для которых не хватило памяти: записываются с порядковым номером в файлы-разделы по старшим битам хэша.
+ * Одинаковые строки всегда попадают в один раздел, поэтому каждый раздел очищается от повторов отдельно. Раздел,
+ * не поместившийся в память, делится дальше по следующим битам хэша на столько частей, сколько нужно по доле
+ * прочитанного до нехватки памяти (с запасом вдвое). Очищенные разделы упорядочены по номеру,
+ * и их слияние по номеру восстанавливает исходный порядок первых вхождений.
+ */
+class SpillPartitions implements Closeable {
+  private static final int PARTITION_BITS = 6;
+  private static final int PARTITIONS = 1 << PARTITION_BITS;
+  private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+  // Длина и номер записи
+  private static final int RECORD_OVERHEAD = Integer.BYTES + Long.BYTES;
+
+  private final Path directory;
+  private final boolean integers;
+  private final long memoryLimit;
+
+  private final Path[] files = new Path[PARTITIONS];
+  private final DataOutputStream[] writers = new DataOutputStream[PARTITIONS];
+  private long sequence;
+
+  SpillPartitions(Path parent, boolean integers, long memoryLimit) throws IOException {
+    this.directory = Files.createTempDirectory(parent, ".dedup");
+    this.integers = integers;
+    this.memoryLimit = memoryLimit;
+  }
+
+  void add(byte[] line) throws IOException {
+    int partition = partition(LineSet.hash(line), 0, PARTITION_BITS);
+    if (writers[partition] == null) {
+      files[partition] = Files.createTempFile(directory, "part", ".bin");
+      writers[partition] = create(files[partition]);
+    }
+    write(writers[partition], sequence++, line);
+  }
+
+  // Записывает в target строки без повторов в порядке их первого появления
+  void writeTo(OutputSink target) throws IOException {
+    // Одно множество на все разделы: память выделяется один раз и очищается перед каждым разделом
+    LineSet lines = new LineSet(integers, memoryLimit);
+    List<Path> results = new ArrayList<>();
+    for (int i = 0; i < PARTITIONS; i++) {
+      if (writers[i] != null) {
+        writers[i].close();
+        writers[i] = null;
+        results.add(deduplicate(files[i], PARTITION_BITS, lines));
+      }
+    }
+    merge(results, (number, line) -> target.write(ByteBuffer.wrap(line), 0, line.length));
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (DataOutputStream writer : writers) {
+      if (writer != null) {
+        writer.close();
+      }
+    }
+    try (Stream<Path> paths = Files.walk(directory)) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+
+  // Возвращает файл с записями раздела без повторов, упорядоченными по номеру; usedBits – сколько старших
+  // битов хэша уже одинаковы у всех строк раздела
+  private Path deduplicate(Path input, int usedBits, LineSet lines) throws IOException {
+    lines.clear();
+    Path output = Files.createTempFile(directory, "unique", ".bin");
+    long read = 0;
+    boolean fits = true;
+    try (DataInputStream in = open(input); DataOutputStream out = create(output)) {
+      byte[] line;
+      while ((line = readLine(in)) != null) {
+        long number = in.readLong();
+        LineSet.Result result = lines.add(line);
+        if (result == LineSet.Result.NO_ROOM) {
+          fits = false;
+          break;
+        }
+        if (result == LineSet.Result.ADDED) {
+          write(out, number, line);
+        }
+        read += RECORD_OVERHEAD + line.length;
+      }
+    }
+    if (fits) {
+      Files.delete(input);
+      return output;
+    }
+
+    double parts = 2.0 * Files.size(input) / Math.max(1, read);
+    int bits = Math.max(1, Math.min(PARTITION_BITS, 64 - Long.numberOfLeadingZeros((long) Math.ceil(parts) - 1)));
+    if (usedBits + bits > Long.SIZE) {
+      throw new IOException("Недостаточно памяти --dedup-memory для удаления повторов: " + memoryLimit);
+    }
+    Path[] partFiles = new Path[1 << bits];
+    DataOutputStream[] partWriters = new DataOutputStream[1 << bits];
+    try (DataInputStream in = open(input)) {
+      byte[] line;
+      while ((line = readLine(in)) != null) {
+        long number = in.readLong();
+        int partition = partition(LineSet.hash(line), usedBits, bits);
+        if (partWriters[partition] == null) {
+          partFiles[partition] = Files.createTempFile(directory, "part", ".bin");
+          partWriters[partition] = create(partFiles[partition]);
+        }
+        write(partWriters[partition], number, line);
+      }
+    } finally {
+      for (DataOutputStream writer : partWriters) {
+        if (writer != null) {
+          writer.close();
+        }
+      }
+    }
+    Files.delete(input);
+
+    // Части сразу сливаются обратно в один файл, чтобы при финальном слиянии было открыто не больше PARTITIONS файлов
+    List<Path> results = new ArrayList<>();
+    for (Path part : partFiles) {
+      if (part != null) {
+        results.add(deduplicate(part, usedBits + bits, lines));
+      }
+    }
+    try (DataOutputStream out = create(output)) {
+      merge(results, (number, line) -> write(out, number, line));
+    }
+    for (Path result : results) {
+      Files.delete(result);
+    }
+    return output;
+  }
+
+  private static void merge(List<Path> results, RecordWriter writer) throws IOException {
+    PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparingLong(Head::number));
+    List<DataInputStream> inputs = new ArrayList<>();
+    try {
+      for (Path result : results) {
+        DataInputStream in = open(result);
+        inputs.add(in);
+        Head head = Head.read(in);
+        if (head != null) {
+          heads.add(head);
+        }
+      }
+      Head head;
+      while ((head = heads.poll()) != null) {
+        writer.write(head.number(), head.line());
+        Head next = Head.read(head.in());
+        if (next != null) {
+          heads.add(next);
+        }
+      }
+    } finally {
+      for (DataInputStream in : inputs) {
+        in.close();
+      }
+    }
+  }
+
+  // Младшие биты хэша занимает таблица множества, разделы берутся со старших: bits битов после usedBits первых
+  private static int partition(long hash, int usedBits, int bits) {
+    return (int) (hash >>> (Long.SIZE - usedBits - bits)) & ((1 << bits) - 1);
+  }
+
+  // Запись: длина, байты строки, порядковый номер
+  private static void write(DataOutputStream out, long number, byte[] line) throws IOException {
+    out.writeInt(line.length);
+    out.write(line);
+    out.writeLong(number);
+  }
+
+  // null в конце файла
+  private static byte[] readLine(DataInputStream in) throws IOException {
+    int length;
+    try {
+      length = in.readInt();
+    } catch (EOFException e) {
+      return null;
+    }
+    byte[] line = new byte[length];
+    in.readFully(line);
+    return line;
+  }
+
+  private static DataOutputStream create(Path path) throws IOException {
+    return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), STREAM_BUFFER_SIZE));
+  }
+
+  private static DataInputStream open(Path path) throws IOException {
+    return new DataInputStream(new BufferedInputStream(Files.newInputStream(path), STREAM_BUFFER_SIZE));
+  }
+
+  private interface RecordWriter {
+    void write(long number, byte[] line) throws IOException;
+  }
+
+  private record Head(long number, byte[] line, DataInputStream in) {
+    private static Head read(DataInputStream in) throws IOException {
+      byte[] line = readLine(in);
+      return line == null ? null : new Head(in.readLong(), line, in);
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package com.mami.manifest;
+
+import com.mami.statistics.StatsSnapshot;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Контрольная точка долгой обработки: с какого входного файла и байта продолжать, какой длины были выходные
+ * файлы и какой была статистика в этот момент. Формат текстовый, поля разделены табуляцией:
+ * <pre>
+ * position  номер входного файла  смещение в байтах
+ * input     путь входного файла (в порядке обработки)
+ * output    длина  путь выходного файла
+ * stats     категория  количество  min  max  сумма  minLength  maxLength
+ * </pre>
+ * Выходной файл, которого ещё не было, в контрольную точку не попадает. Файл заменяется атомарно.
+ */
+public record Checkpoint(List<String> inputs, int fileIndex, long offset, Map<String, Long> outputs,
+                         Map<String, StatsSnapshot> snapshots) {
+  private static final String HEADER = "# file-parser-util checkpoint 1";
+
+  public static Checkpoint read(Path file) throws IOException {
+    List<String> inputs = new ArrayList<>();
+    Map<String, Long> outputs = new LinkedHashMap<>();
+    Map<String, StatsSnapshot> snapshots = new LinkedHashMap<>();
+    int fileIndex = -1;
+    long offset = 0;
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      if (!HEADER.equals(reader.readLine())) {
+        throw new IOException("Неизвестный формат контрольной точки: " + file);
+      }
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.startsWith("position\t")) {
+          String[] fields = line.split("\t", 3);
+          fileIndex = Integer.parseInt(fields[1]);
+          offset = Long.parseLong(fields[2]);
+        } else if (line.startsWith("input\t")) {
+          inputs.add(line.substring("input\t".length()));
+        } else if (line.startsWith("output\t")) {
+          String[] fields = line.split("\t", 3);
+          outputs.put(fields[2], Long.parseLong(fields[1]));
+        } else if (line.startsWith("stats\t")) {
+          snapshots.put(StateFiles.category(line), StateFiles.parseStats(line));
+        } else if (!line.isEmpty()) {
+          throw new IOException("Неизвестная строка контрольной точки " + file + ": " + line);
+        }
+      }
+    }
+    if (fileIndex < 0 || fileIndex > inputs.size() || offset < 0) {
+      throw new IOException("Повреждённая контрольная точка: " + file);
+    }
+    return new Checkpoint(inputs, fileIndex, offset, outputs, snapshots);
+  }
+
+  public void write(Path file) throws IOException {
+    StringBuilder content = new StringBuilder(HEADER).append('\n');
+    content.append("position\t").append(fileIndex).append('\t').append(offset).append('\n');
+    for (String input : inputs) {
+      content.append("input\t").append(input).append('\n');
+    }
+    for (Map.Entry<String, Long> output : outputs.entrySet()) {
+      content.append("output\t").append(output.getValue()).append('\t').append(output.getKey()).append('\n');
+    }
+    for (Map.Entry<String, StatsSnapshot> snapshot : snapshots.entrySet()) {
+      content.append(StateFiles.statsLine(snapshot.getKey(), snapshot.getValue()));
+    }
+    StateFiles.write(file, content.toString());
+  }
+}
@@ -0,0 +1,19 @@
+package com.mami.manifest;
+
+/**
+ * Что произошло с входным файлом с прошлого запуска. Для APPENDED offset – размер файла при прошлой обработке:
+ * файл с тех пор только дописывался, и обработать нужно байты начиная с offset.
+ */
+public record FileChange(Kind kind, long offset) {
+
+  public enum Kind {
+    NEW,
+    UNCHANGED,
+    APPENDED,
+    MODIFIED
+  }
+
+  static FileChange of(Kind kind) {
+    return new FileChange(kind, 0);
+  }
+}
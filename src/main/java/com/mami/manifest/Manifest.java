@@ -0,0 +1,172 @@
+package com.mami.manifest;
+
+import com.mami.processors.InputFiles;
+import com.mami.statistics.StatsSnapshot;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Манифест инкрементальной обработки: какие входные файлы уже попали в выходные файлы и статистика выходных
+ * файлов после этого. Хранится в текстовом виде, поля разделены табуляцией:
+ * <pre>
+ * stats  категория  количество  min  max  сумма  minLength  maxLength
+ * file   размер  время изменения  sha256  путь
+ * </pre>
+ * Отсутствующие значения записываются как "-". Файл заменяется атомарно.
+ */
+public class Manifest {
+  private static final String HEADER = "# file-parser-util manifest 1";
+  private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+  private final Map<String, ManifestEntry> entries = new LinkedHashMap<>();
+  private final Map<String, StatsSnapshot> snapshots = new LinkedHashMap<>();
+
+  public static Manifest read(Path file) throws IOException {
+    Manifest manifest = new Manifest();
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String header = reader.readLine();
+      if (!HEADER.equals(header)) {
+        throw new IOException("Неизвестный формат манифеста: " + file);
+      }
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.startsWith("stats\t")) {
+          manifest.snapshots.put(StateFiles.category(line), StateFiles.parseStats(line));
+        } else if (line.startsWith("file\t")) {
+          String[] fields = line.split("\t", 5);
+          ManifestEntry entry = new ManifestEntry(fields[4], Long.parseLong(fields[1]), Long.parseLong(fields[2]),
+              fields[3]);
+          manifest.entries.put(entry.path(), entry);
+        } else if (!line.isEmpty()) {
+          throw new IOException("Неизвестная строка манифеста " + file + ": " + line);
+        }
+      }
+    }
+    return manifest;
+  }
+
+  // Манифест заменяется атомарно, чтобы при сбое не остался обрезанный файл
+  public void write(Path file) throws IOException {
+    StringBuilder content = new StringBuilder(HEADER).append('\n');
+    for (Map.Entry<String, StatsSnapshot> snapshot : snapshots.entrySet()) {
+      content.append(StateFiles.statsLine(snapshot.getKey(), snapshot.getValue()));
+    }
+    for (ManifestEntry entry : entries.values()) {
+      content.append(String.join("\t", "file", Long.toString(entry.size()), Long.toString(entry.modified()),
+          entry.hash(), entry.path())).append('\n');
+    }
+    StateFiles.write(file, content.toString());
+  }
+
+  public boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  public Map<String, StatsSnapshot> getSnapshots() {
+    return snapshots;
+  }
+
+  public void setSnapshots(Map<String, StatsSnapshot> snapshots) {
+    this.snapshots.clear();
+    this.snapshots.putAll(snapshots);
+  }
+
+  public FileChange check(File file) throws IOException {
+    if (!entries.containsKey(key(file))) {
+      return FileChange.of(FileChange.Kind.NEW);
+    }
+    BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+    return check(file, attributes.size(), attributes.lastModifiedTime().toMillis());
+  }
+
+  // Сравнивает файл с записью манифеста по размеру и времени изменения, снятым до обработки;
+  // содержимое хэшируется, только если размер или время изменения другие
+  public FileChange check(File file, long size, long modified) throws IOException {
+    ManifestEntry entry = entries.get(key(file));
+    if (entry == null) {
+      return FileChange.of(FileChange.Kind.NEW);
+    }
+    Path path = file.toPath();
+    if (size == entry.size()) {
+      if (modified == entry.modified()) {
+        return FileChange.of(FileChange.Kind.UNCHANGED);
+      }
+      if (hash(path, size).equals(entry.hash())) {
+        // Содержимое то же, запоминается новое время, чтобы в следующий раз не хэшировать
+        entries.put(entry.path(), new ManifestEntry(entry.path(), size, modified, entry.hash()));
+        return FileChange.of(FileChange.Kind.UNCHANGED);
+      }
+      return FileChange.of(FileChange.Kind.MODIFIED);
+    }
+    // Дописанный файл: прежнее содержимое – начало нового и заканчивалось переводом строки
+    if (size > entry.size() && !InputFiles.isCompressed(file) && endsWithNewline(path, entry.size())
+        && hash(path, entry.size()).equals(entry.hash())) {
+      return new FileChange(FileChange.Kind.APPENDED, entry.size());
+    }
+    return FileChange.of(FileChange.Kind.MODIFIED);
+  }
+
+  // Запоминает текущее состояние обработанного файла
+  public void record(File file) throws IOException {
+    BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+    record(file, attributes.size(), attributes.lastModifiedTime().toMillis());
+  }
+
+  // Запоминает, что обработаны первые size байт файла; modified – время изменения на момент начала обработки.
+  // Дописанное во время запуска останется необработанным хвостом для следующего запуска
+  public void record(File file, long size, long modified) throws IOException {
+    String key = key(file);
+    entries.put(key, new ManifestEntry(key, size, modified, hash(file.toPath(), size)));
+  }
+
+  static String key(File file) {
+    return file.toPath().toAbsolutePath().normalize().toString();
+  }
+
+  // SHA-256 первых length байт файла в шестнадцатеричном виде
+  static String hash(Path path, long length) throws IOException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    byte[] buffer = new byte[HASH_BUFFER_SIZE];
+    long remaining = length;
+    try (InputStream in = Files.newInputStream(path)) {
+      while (remaining > 0) {
+        int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+        if (read < 0) {
+          break;
+        }
+        digest.update(buffer, 0, read);
+        remaining -= read;
+      }
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  private static boolean endsWithNewline(Path path, long length) throws IOException {
+    if (length == 0) {
+      return true;
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer last = ByteBuffer.allocate(1);
+      return channel.read(last, length - 1) == 1 && last.get(0) == '\n';
+    }
+  }
+}
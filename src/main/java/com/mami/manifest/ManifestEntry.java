@@ -0,0 +1,5 @@
+package com.mami.manifest;
+
+// Состояние обработанного входного файла: абсолютный путь, размер, время изменения (мс) и SHA-256 содержимого
+public record ManifestEntry(String path, long size, long modified, String hash) {
+}
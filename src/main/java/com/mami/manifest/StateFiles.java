@@ -0,0 +1,109 @@
+package com.mami.manifest;
+
+import com.mami.statistics.StatsSnapshot;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Общие части текстовых файлов состояния: атомарная запись и строки статистики
+final class StateFiles {
+  private static final String NONE = "-";
+
+  private StateFiles() {
+  }
+
+  // Записывает содержимое во временный файл рядом и заменяет им прежний, чтобы при сбое не остался обрезанный файл
+  static void write(Path file, String content) throws IOException {
+    Path directory = file.toAbsolutePath().getParent();
+    Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+    try {
+      try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+        writer.write(content);
+      }
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+        channel.force(true);
+      }
+      Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  // stats  категория  количество  min  max  сумма  minLength  maxLength  minValue  maxValue
+  static String statsLine(String category, StatsSnapshot stats) {
+    return String.join("\t", "stats", category, Long.toString(stats.count()), text(stats.min()),
+        text(stats.max()), text(stats.sum()), text(stats.minLength()), text(stats.maxLength()),
+        value(stats.minValue()), value(stats.maxValue())) + "\n";
+  }
+
+  // В файлах прежней версии последних двух полей нет
+  static StatsSnapshot parseStats(String line) {
+    String[] fields = line.split("\t", -1);
+    return new StatsSnapshot(Long.parseLong(fields[2]), number(fields[3]), number(fields[4]), number(fields[5]),
+        null, length(fields[6]), length(fields[7]), fields.length > 8 ? parseValue(fields[8]) : null,
+        fields.length > 9 ? parseValue(fields[9]) : null);
+  }
+
+  static String category(String statsLine) {
+    return statsLine.split("\t", 3)[1];
+  }
+
+  private static String text(Object value) {
+    return value == null ? NONE : value.toString();
+  }
+
+  // Значение произвольного типа экранируется и помечается "=", чтобы не совпасть с NONE и не разорвать строку
+  private static String value(String value) {
+    if (value == null) {
+      return NONE;
+    }
+    StringBuilder escaped = new StringBuilder("=");
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '\\' -> escaped.append("\\\\");
+        case '\t' -> escaped.append("\\t");
+        case '\n' -> escaped.append("\\n");
+        case '\r' -> escaped.append("\\r");
+        default -> escaped.append(c);
+      }
+    }
+    return escaped.toString();
+  }
+
+  private static String parseValue(String field) {
+    if (NONE.equals(field)) {
+      return null;
+    }
+    StringBuilder value = new StringBuilder();
+    for (int i = 1; i < field.length(); i++) {
+      char c = field.charAt(i);
+      if (c != '\\' || i + 1 == field.length()) {
+        value.append(c);
+        continue;
+      }
+      char next = field.charAt(++i);
+      value.append(switch (next) {
+        case 't' -> '\t';
+        case 'n' -> '\n';
+        case 'r' -> '\r';
+        default -> next;
+      });
+    }
+    return value.toString();
+  }
+
+  private static Number number(String field) {
+    return NONE.equals(field) ? null : new BigDecimal(field);
+  }
+
+  private static Integer length(String field) {
+    return NONE.equals(field) ? null : Integer.valueOf(field);
+  }
+}
@@ -0,0 +1,13 @@
+package com.mami.metrics;
+
+// Время обработки файла: сколько он занимал читающий поток (при параллельной обработке – сумма по частям)
+public record FileMetrics(String path, long lines, long bytes, long nanos) {
+
+  public double linesPerSecond() {
+    return Metrics.perSecond(lines, nanos);
+  }
+
+  public double bytesPerSecond() {
+    return Metrics.perSecond(bytes, nanos);
+  }
+}
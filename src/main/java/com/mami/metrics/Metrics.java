@@ -0,0 +1,138 @@
+package com.mami.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счётчики времени и объёма обработки. Обновляются из нескольких потоков одновременно.
+ * Процессоры получают экземпляр только при включённых --metrics или --progress, иначе измерения не выполняются.
+ */
+public class Metrics {
+  private final long startNanos = System.nanoTime();
+
+  private final LongAdder lines = new LongAdder();
+  private final LongAdder bytes = new LongAdder();
+
+  private final LongAdder readNanos = new LongAdder();
+  private final LongAdder classifyNanos = new LongAdder();
+  private final LongAdder parseNanos = new LongAdder();
+  private final LongAdder writeNanos = new LongAdder();
+
+  private final LongAdder integers = new LongAdder();
+  private final LongAdder decimals = new LongAdder();
+  private final LongAdder texts = new LongAdder();
+
+  private final List<FileMetrics> files = new ArrayList<>();
+
+  public Metrics() {
+    // Пик считается с начала обработки, а не с запуска JVM
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        pool.resetPeakUsage();
+      }
+    }
+  }
+
+  public void addLines(long count) {
+    lines.add(count);
+  }
+
+  public void addBytes(long count) {
+    bytes.add(count);
+  }
+
+  public void addReadTime(long nanos) {
+    readNanos.add(nanos);
+  }
+
+  public void addClassifyTime(long nanos) {
+    classifyNanos.add(nanos);
+  }
+
+  public void addParseTime(long nanos) {
+    parseNanos.add(nanos);
+  }
+
+  public void addWriteTime(long nanos) {
+    writeNanos.add(nanos);
+  }
+
+  public void addInteger() {
+    integers.increment();
+  }
+
+  public void addDecimal() {
+    decimals.increment();
+  }
+
+  public void addText() {
+    texts.increment();
+  }
+
+  public synchronized void addFile(FileMetrics file) {
+    files.add(file);
+  }
+
+  public synchronized List<FileMetrics> getFiles() {
+    return List.copyOf(files);
+  }
+
+  public long getLines() {
+    return lines.sum();
+  }
+
+  public long getBytes() {
+    return bytes.sum();
+  }
+
+  public long getReadNanos() {
+    return readNanos.sum();
+  }
+
+  public long getClassifyNanos() {
+    return classifyNanos.sum();
+  }
+
+  public long getParseNanos() {
+    return parseNanos.sum();
+  }
+
+  public long getWriteNanos() {
+    return writeNanos.sum();
+  }
+
+  public long getIntegers() {
+    return integers.sum();
+  }
+
+  public long getDecimals() {
+    return decimals.sum();
+  }
+
+  public long getTexts() {
+    return texts.sum();
+  }
+
+  public long getElapsedNanos() {
+    return System.nanoTime() - startNanos;
+  }
+
+  // Сумма пиков отдельных областей кучи: верхняя оценка, пики областей могли приходиться на разное время
+  public long getPeakHeapBytes() {
+    long peak = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+        peak += pool.getPeakUsage().getUsed();
+      }
+    }
+    return peak;
+  }
+
+  static double perSecond(long count, long nanos) {
+    return nanos > 0 ? count * 1_000_000_000.0 / nanos : 0;
+  }
+}
@@ -0,0 +1,8 @@
+package com.mami.metrics;
+
+public enum MetricsFormat {
+  // Один JSON-объект
+  JSON,
+  // Текстовый формат экспозиции Prometheus
+  PROMETHEUS
+}
@@ -0,0 +1,151 @@
+package com.mami.metrics;
+
+import java.util.List;
+import java.util.Locale;
+
+// Итоговый отчёт по Metrics в JSON или в текстовом формате Prometheus
+public final class MetricsReport {
+
+  private MetricsReport() {
+  }
+
+  public static String format(Metrics metrics, MetricsFormat format) {
+    return format == MetricsFormat.PROMETHEUS ? toPrometheus(metrics) : toJson(metrics);
+  }
+
+  public static String toJson(Metrics metrics) {
+    long elapsed = metrics.getElapsedNanos();
+    StringBuilder json = new StringBuilder();
+    json.append("{\n");
+    json.append("  \"elapsedSeconds\": ").append(seconds(elapsed)).append(",\n");
+    json.append("  \"lines\": ").append(metrics.getLines()).append(",\n");
+    json.append("  \"bytes\": ").append(metrics.getBytes()).append(",\n");
+    json.append("  \"linesPerSecond\": ").append(rate(metrics.getLines(), elapsed)).append(",\n");
+    json.append("  \"bytesPerSecond\": ").append(rate(metrics.getBytes(), elapsed)).append(",\n");
+    json.append("  \"phaseSeconds\": {")
+        .append("\"read\": ").append(seconds(metrics.getReadNanos()))
+        .append(", \"classify\": ").append(seconds(metrics.getClassifyNanos()))
+        .append(", \"parse\": ").append(seconds(metrics.getParseNanos()))
+        .append(", \"write\": ").append(seconds(metrics.getWriteNanos()))
+        .append("},\n");
+    json.append("  \"categories\": {")
+        .append("\"integers\": ").append(metrics.getIntegers())
+        .append(", \"floats\": ").append(metrics.getDecimals())
+        .append(", \"strings\": ").append(metrics.getTexts())
+        .append("},\n");
+    json.append("  \"peakHeapBytes\": ").append(metrics.getPeakHeapBytes()).append(",\n");
+    json.append("  \"files\": [");
+    List<FileMetrics> files = metrics.getFiles();
+    for (int i = 0; i < files.size(); i++) {
+      FileMetrics file = files.get(i);
+      json.append(i == 0 ? "\n" : ",\n");
+      json.append("    {\"path\": \"").append(escapeJson(file.path())).append('"')
+          .append(", \"lines\": ").append(file.lines())
+          .append(", \"bytes\": ").append(file.bytes())
+          .append(", \"seconds\": ").append(seconds(file.nanos()))
+          .append(", \"linesPerSecond\": ").append(number(file.linesPerSecond()))
+          .append(", \"bytesPerSecond\": ").append(number(file.bytesPerSecond()))
+          .append('}');
+    }
+    json.append(files.isEmpty() ? "]\n" : "\n  ]\n");
+    json.append("}\n");
+    return json.toString();
+  }
+
+  public static String toPrometheus(Metrics metrics) {
+    StringBuilder text = new StringBuilder();
+    metric(text, "filter_elapsed_seconds", "gauge", "Время работы");
+    text.append("filter_elapsed_seconds ").append(seconds(metrics.getElapsedNanos())).append('\n');
+    metric(text, "filter_lines_total", "counter", "Прочитано строк");
+    text.append("filter_lines_total ").append(metrics.getLines()).append('\n');
+    metric(text, "filter_bytes_total", "counter", "Прочитано байт");
+    text.append("filter_bytes_total ").append(metrics.getBytes()).append('\n');
+
+    metric(text, "filter_phase_seconds_total", "counter", "Суммарное время по стадиям обработки");
+    phase(text, "read", metrics.getReadNanos());
+    phase(text, "classify", metrics.getClassifyNanos());
+    phase(text, "parse", metrics.getParseNanos());
+    phase(text, "write", metrics.getWriteNanos());
+
+    metric(text, "filter_category_lines_total", "counter", "Записано строк по категориям");
+    category(text, "integers", metrics.getIntegers());
+    category(text, "floats", metrics.getDecimals());
+    category(text, "strings", metrics.getTexts());
+
+    metric(text, "filter_peak_heap_bytes", "gauge", "Пиковое использование кучи");
+    text.append("filter_peak_heap_bytes ").append(metrics.getPeakHeapBytes()).append('\n');
+
+    List<FileMetrics> files = metrics.getFiles();
+    if (!files.isEmpty()) {
+      metric(text, "filter_file_lines_total", "counter", "Прочитано строк по входным файлам");
+      for (FileMetrics file : files) {
+        text.append("filter_file_lines_total{file=\"").append(escapeLabel(file.path())).append("\"} ")
+            .append(file.lines()).append('\n');
+      }
+      metric(text, "filter_file_bytes_total", "counter", "Прочитано байт по входным файлам");
+      for (FileMetrics file : files) {
+        text.append("filter_file_bytes_total{file=\"").append(escapeLabel(file.path())).append("\"} ")
+            .append(file.bytes()).append('\n');
+      }
+      metric(text, "filter_file_seconds", "gauge", "Время обработки входных файлов");
+      for (FileMetrics file : files) {
+        text.append("filter_file_seconds{file=\"").append(escapeLabel(file.path())).append("\"} ")
+            .append(seconds(file.nanos())).append('\n');
+      }
+    }
+    return text.toString();
+  }
+
+  private static void metric(StringBuilder text, String name, String type, String help) {
+    text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private static void phase(StringBuilder text, String phase, long nanos) {
+    text.append("filter_phase_seconds_total{phase=\"").append(phase).append("\"} ").append(seconds(nanos))
+        .append('\n');
+  }
+
+  private static void category(StringBuilder text, String category, long count) {
+    text.append("filter_category_lines_total{category=\"").append(category).append("\"} ").append(count)
+        .append('\n');
+  }
+
+  private static String seconds(long nanos) {
+    return String.format(Locale.ROOT, "%.6f", nanos / 1_000_000_000.0);
+  }
+
+  private static String rate(long count, long nanos) {
+    return number(Metrics.perSecond(count, nanos));
+  }
+
+  private static String number(double value) {
+    return String.format(Locale.ROOT, "%.1f", value);
+  }
+
+  private static String escapeJson(String value) {
+    StringBuilder escaped = new StringBuilder(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> escaped.append("\\\"");
+        case '\\' -> escaped.append("\\\\");
+        case '\n' -> escaped.append("\\n");
+        case '\r' -> escaped.append("\\r");
+        case '\t' -> escaped.append("\\t");
+        default -> {
+          if (c < ' ') {
+            escaped.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+          } else {
+            escaped.append(c);
+          }
+        }
+      }
+    }
+    return escaped.toString();
+  }
+
+  private static String escapeLabel(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+}
@@ -0,0 +1,52 @@
+package com.mami.metrics;
+
+import java.io.Closeable;
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Периодически печатает строку о ходе обработки; скорость считается за последний интервал
+public class ProgressReporter implements Closeable {
+  private final Metrics metrics;
+  private final PrintStream out;
+  private final ScheduledExecutorService scheduler;
+
+  private long lastNanos;
+  private long lastLines;
+  private long lastBytes;
+
+  public ProgressReporter(Metrics metrics, PrintStream out, long intervalSeconds) {
+    if (intervalSeconds <= 0) {
+      throw new IllegalArgumentException("Интервал должен быть положительным: " + intervalSeconds);
+    }
+    this.metrics = metrics;
+    this.out = out;
+    this.lastNanos = metrics.getElapsedNanos();
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+      Thread thread = new Thread(task, "progress");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleAtFixedRate(this::report, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+  }
+
+  void report() {
+    long nanos = metrics.getElapsedNanos();
+    long lines = metrics.getLines();
+    long bytes = metrics.getBytes();
+    long interval = nanos - lastNanos;
+    out.println(String.format(Locale.ROOT, "Прогресс: %d строк, %.0f строк/с, %.1f МиБ/с, прошло %.0f с",
+        lines, Metrics.perSecond(lines - lastLines, interval),
+        Metrics.perSecond(bytes - lastBytes, interval) / (1024 * 1024), nanos / 1_000_000_000.0));
+    lastNanos = nanos;
+    lastLines = lines;
+    lastBytes = bytes;
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+}
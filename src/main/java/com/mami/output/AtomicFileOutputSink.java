@@ -0,0 +1,94 @@
+package com.mami.output;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Запись в скрытый временный файл в том же каталоге, который при успешном закрытии синхронизируется на диск
+ * (один fsync на файл) и атомарно переименовывается в выходной. До этого прежний выходной файл не меняется,
+ * поэтому читатели никогда не видят недописанный результат. При дозаписи (-a) временный файл начинается
+ * с копии существующего содержимого. После abort() или ошибки при закрытии временный файл удаляется.
+ */
+public class AtomicFileOutputSink extends FileOutputSink {
+  private Path temp;
+  private boolean aborted;
+
+  public AtomicFileOutputSink(File outputFile, boolean isFileCreated, int bufferSize, FlushPolicy flushPolicy,
+                              boolean compressed) {
+    super(outputFile, isFileCreated, bufferSize, flushPolicy, compressed);
+  }
+
+  @Override
+  protected FileChannel openFile(boolean append) throws IOException {
+    Path target = getOutputFile().toPath();
+    Path directory = target.toAbsolutePath().getParent();
+    temp = directory.resolve("." + target.getFileName() + "."
+        + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36) + ".tmp");
+    if (append && Files.exists(target)) {
+      // Копия вместе с правами доступа; на файловых системах с reflink ядро может не копировать данные
+      Files.copy(target, temp, StandardCopyOption.COPY_ATTRIBUTES);
+      return FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+    return FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+  }
+
+  @Override
+  public void abort() {
+    aborted = true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      super.close();
+    } catch (IOException | RuntimeException e) {
+      discard();
+      throw e;
+    }
+    if (temp == null) {
+      return;
+    }
+    if (aborted) {
+      discard();
+    } else {
+      commit();
+    }
+  }
+
+  private void commit() throws IOException {
+    try {
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+        channel.force(true);
+      }
+      Files.move(temp, getOutputFile().toPath(), StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      discard();
+      throw e;
+    }
+    temp = null;
+    syncDirectory(getOutputFile().toPath().toAbsolutePath().getParent());
+  }
+
+  private void discard() throws IOException {
+    if (temp != null) {
+      Files.deleteIfExists(temp);
+      temp = null;
+    }
+  }
+
+  // Чтобы переименование пережило сбой питания, синхронизируется и каталог; не везде это поддерживается
+  private static void syncDirectory(Path directory) {
+    try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+      channel.force(true);
+    } catch (IOException e) {
+      // Windows не открывает каталоги как файлы; переименование уже выполнено
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package com.mami.output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+// Буферизованная запись строк в канал, который открывается при первой записи
+public abstract class ChannelOutputSink implements OutputSink {
+  public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+  // Минимальный размер, в который гарантированно помещается любой закодированный символ
+  private static final int MIN_BUFFER_SIZE = 16;
+
+  private final int bufferSize;
+  private final FlushPolicy flushPolicy;
+  private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+  private WritableByteChannel channel;
+  private ByteBuffer buffer;
+
+  protected ChannelOutputSink(int bufferSize, FlushPolicy flushPolicy) {
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("Размер буфера должен быть положительным: " + bufferSize);
+    }
+    this.bufferSize = Math.max(bufferSize, MIN_BUFFER_SIZE);
+    this.flushPolicy = flushPolicy;
+  }
+
+  protected abstract WritableByteChannel openChannel() throws IOException;
+
+  protected abstract void closeChannel(WritableByteChannel channel) throws IOException;
+
+  // Для каналов с собственной буферизацией (например, сжатия): протолкнуть записанные данные дальше
+  protected void flushChannel(WritableByteChannel channel) throws IOException {
+  }
+
+  @Override
+  public void write(String line) throws IOException {
+    if (channel == null) {
+      open();
+    }
+
+    CharBuffer chars = CharBuffer.wrap(line);
+    encoder.reset();
+    while (encoder.encode(chars, buffer, true).isOverflow()) {
+      drain();
+    }
+    CoderResult result;
+    while ((result = encoder.flush(buffer)).isOverflow()) {
+      drain();
+    }
+    if (result.isError()) {
+      result.throwException();
+    }
+    endLine();
+  }
+
+  @Override
+  public void write(ByteBuffer source, int offset, int length) throws IOException {
+    if (channel == null) {
+      open();
+    }
+
+    if (length >= buffer.remaining()) {
+      drain();
+    }
+    if (length >= buffer.capacity()) {
+      ByteBuffer slice = source.slice(offset, length);
+      while (slice.hasRemaining()) {
+        channel.write(slice);
+      }
+    } else {
+      buffer.put(buffer.position(), source, offset, length);
+      buffer.position(buffer.position() + length);
+    }
+    endLine();
+  }
+
+  @Override
+  public void onInputFileProcessed() throws IOException {
+    if (flushPolicy == FlushPolicy.FILE) {
+      flush();
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (channel != null) {
+      drain();
+      flushChannel(channel);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (channel != null) {
+      try {
+        drain();
+      } finally {
+        WritableByteChannel opened = channel;
+        channel = null;
+        buffer = null;
+        closeChannel(opened);
+      }
+    }
+  }
+
+  private void open() throws IOException {
+    channel = openChannel();
+    buffer = ByteBuffer.allocate(bufferSize);
+  }
+
+  private void endLine() throws IOException {
+    if (!buffer.hasRemaining()) {
+      drain();
+    }
+    buffer.put((byte) '\n');
+    if (flushPolicy == FlushPolicy.LINE) {
+      flush();
+    }
+  }
+
+  private void drain() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
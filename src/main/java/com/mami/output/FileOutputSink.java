@@ -0,0 +1,79 @@
+package com.mami.output;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+public class FileOutputSink extends ChannelOutputSink {
+  private final File outputFile;
+  private final boolean compressed;
+
+  private boolean isFileCreated;
+  private OutputStream compressedStream;
+
+  public FileOutputSink(File outputFile, boolean isFileCreated) {
+    this(outputFile, isFileCreated, DEFAULT_BUFFER_SIZE, FlushPolicy.CLOSE);
+  }
+
+  public FileOutputSink(File outputFile, boolean isFileCreated, int bufferSize, FlushPolicy flushPolicy) {
+    this(outputFile, isFileCreated, bufferSize, flushPolicy, false);
+  }
+
+  // При сжатии дозапись (-a) добавляет к файлу новый gzip-член, такой файл читается целиком как один поток
+  public FileOutputSink(File outputFile, boolean isFileCreated, int bufferSize, FlushPolicy flushPolicy,
+                        boolean compressed) {
+    super(bufferSize, flushPolicy);
+    this.outputFile = outputFile;
+    this.isFileCreated = isFileCreated;
+    this.compressed = compressed;
+  }
+
+  @Override
+  public boolean isCreated() {
+    return isFileCreated;
+  }
+
+  @Override
+  protected WritableByteChannel openChannel() throws IOException {
+    FileChannel channel = openFile(isFileCreated);
+    isFileCreated = true;
+    if (!compressed) {
+      return channel;
+    }
+    try {
+      compressedStream = new GZIPOutputStream(Channels.newOutputStream(channel), DEFAULT_BUFFER_SIZE, true);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    return Channels.newChannel(compressedStream);
+  }
+
+  // append – дописывать к существующему содержимому, иначе файл создаётся заново
+  protected FileChannel openFile(boolean append) throws IOException {
+    StandardOpenOption mode = append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING;
+    return FileChannel.open(outputFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode);
+  }
+
+  protected File getOutputFile() {
+    return outputFile;
+  }
+
+  @Override
+  protected void flushChannel(WritableByteChannel channel) throws IOException {
+    if (compressedStream != null) {
+      compressedStream.flush();
+    }
+  }
+
+  @Override
+  protected void closeChannel(WritableByteChannel channel) throws IOException {
+    compressedStream = null;
+    channel.close();
+  }
+}
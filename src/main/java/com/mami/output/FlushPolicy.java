@@ -0,0 +1,10 @@
+package com.mami.output;
+
+public enum FlushPolicy {
+  // Сбрасывать буфер только при его заполнении и при закрытии
+  CLOSE,
+  // Дополнительно сбрасывать буфер после каждого входного файла
+  FILE,
+  // Сбрасывать буфер после каждой строки
+  LINE
+}
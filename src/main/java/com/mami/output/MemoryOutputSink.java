@@ -0,0 +1,38 @@
+package com.mami.output;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MemoryOutputSink implements OutputSink {
+  private final List<String> lines = new ArrayList<>();
+
+  @Override
+  public void write(String line) {
+    lines.add(line);
+  }
+
+  @Override
+  public void onInputFileProcessed() {
+  }
+
+  @Override
+  public void flush() {
+  }
+
+  @Override
+  public boolean isCreated() {
+    return !lines.isEmpty();
+  }
+
+  @Override
+  public void close() {
+  }
+
+  public void transferTo(OutputSink target) throws IOException {
+    for (String line : lines) {
+      target.write(line);
+    }
+    lines.clear();
+  }
+}
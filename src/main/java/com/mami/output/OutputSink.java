@@ -0,0 +1,27 @@
+package com.mami.output;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public interface OutputSink extends Closeable {
+  void write(String line) throws IOException;
+
+  // Запись строки, уже закодированной в UTF-8, без промежуточного String там, где это возможно
+  default void write(ByteBuffer source, int offset, int length) throws IOException {
+    byte[] bytes = new byte[length];
+    source.get(offset, bytes);
+    write(new String(bytes, StandardCharsets.UTF_8));
+  }
+
+  void onInputFileProcessed() throws IOException;
+
+  void flush() throws IOException;
+
+  boolean isCreated();
+
+  // Обработка прервана ошибкой: то, что ещё не дошло до выходного файла, при close() нужно отбросить
+  default void abort() throws IOException {
+  }
+}
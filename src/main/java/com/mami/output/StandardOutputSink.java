@@ -0,0 +1,30 @@
+package com.mami.output;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+// Запись в стандартный вывод процесса; сам поток при закрытии не закрывается
+public class StandardOutputSink extends ChannelOutputSink {
+  private boolean isCreated;
+
+  public StandardOutputSink(int bufferSize, FlushPolicy flushPolicy) {
+    super(bufferSize, flushPolicy);
+  }
+
+  @Override
+  public boolean isCreated() {
+    return isCreated;
+  }
+
+  @Override
+  protected WritableByteChannel openChannel() {
+    isCreated = true;
+    return new FileOutputStream(FileDescriptor.out).getChannel();
+  }
+
+  @Override
+  protected void closeChannel(WritableByteChannel channel) throws IOException {
+  }
+}
@@ -0,0 +1,116 @@
+package com.mami.processors;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Читает исходный поток в отдельном потоке блоками и отдаёт их через ограниченную очередь.
+ * Используется для распаковки: разжатие идёт параллельно с классификацией строк, а память ограничена очередью.
+ */
+final class BackgroundInputStream extends InputStream {
+  static final int BLOCK_SIZE = 64 * 1024;
+  private static final int QUEUE_CAPACITY = 4;
+  private static final byte[] END = new byte[0];
+
+  private final InputStream source;
+  private final BlockingQueue<byte[]> blocks = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+  private final Thread reader;
+
+  // Записывается до помещения END в очередь, поэтому видна читателю после его получения
+  private volatile IOException failure;
+
+  private byte[] current = END;
+  private int position;
+  private boolean finished;
+
+  BackgroundInputStream(InputStream source, String name) {
+    this.source = source;
+    this.reader = new Thread(this::readAll, name);
+    this.reader.setDaemon(true);
+    this.reader.start();
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!ensureData()) {
+      return -1;
+    }
+    return current[position++] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] target, int offset, int length) throws IOException {
+    if (length == 0) {
+      return 0;
+    }
+    if (!ensureData()) {
+      return -1;
+    }
+    int count = Math.min(length, current.length - position);
+    System.arraycopy(current, position, target, offset, count);
+    position += count;
+    return count;
+  }
+
+  @Override
+  public int available() {
+    return current.length - position;
+  }
+
+  @Override
+  public void close() {
+    finished = true;
+    reader.interrupt();
+    blocks.clear();
+  }
+
+  private boolean ensureData() throws IOException {
+    while (position == current.length) {
+      if (finished) {
+        return false;
+      }
+      try {
+        current = blocks.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Чтение прервано");
+      }
+      position = 0;
+      if (current == END) {
+        finished = true;
+        if (failure != null) {
+          throw failure;
+        }
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void readAll() {
+    try (source) {
+      int count;
+      do {
+        byte[] block = new byte[BLOCK_SIZE];
+        count = source.readNBytes(block, 0, BLOCK_SIZE);
+        if (count > 0) {
+          blocks.put(count == BLOCK_SIZE ? block : Arrays.copyOf(block, count));
+        }
+      } while (count == BLOCK_SIZE);
+    } catch (IOException e) {
+      failure = e;
+    } catch (InterruptedException e) {
+      // Читатель закрыл поток, данные больше не нужны
+      return;
+    }
+    try {
+      blocks.put(END);
+    } catch (InterruptedException ignored) {
+      // Читатель закрыл поток до конца данных
+    }
+  }
+}
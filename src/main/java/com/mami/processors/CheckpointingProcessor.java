@@ -0,0 +1,75 @@
+package com.mami.processors;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Последовательная обработка с контрольными точками. Обычные файлы читаются частями по границам строк;
+ * после части, если с прошлой контрольной точки прошло не меньше заданного интервала, буферы выходных файлов
+ * записываются и вызывается Listener с позицией, с которой можно продолжить. Сжатые файлы читаются
+ * целиком, для них позиция – начало следующего файла.
+ */
+public class CheckpointingProcessor {
+  private final SinglePassProcessor processor;
+  private final long chunkSize;
+  private final long intervalNanos;
+  private final Listener listener;
+
+  private long lastCheckpoint;
+
+  public interface Listener {
+    // Все строки до байта offset файла с номером fileIndex обработаны и записаны
+    void onCheckpoint(int fileIndex, long offset) throws IOException;
+  }
+
+  public CheckpointingProcessor(SinglePassProcessor processor, long chunkSize, long intervalSeconds,
+                                Listener listener) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Размер части должен быть положительным: " + chunkSize);
+    }
+    this.processor = processor;
+    this.chunkSize = chunkSize;
+    this.intervalNanos = TimeUnit.SECONDS.toNanos(intervalSeconds);
+    this.listener = listener;
+  }
+
+  // Обрабатывает файлы, начиная с байта startOffset файла с номером startIndex; нечитаемые файлы пропускаются
+  public void processFiles(List<File> files, int startIndex, long startOffset) throws IOException {
+    lastCheckpoint = System.nanoTime();
+    for (int i = startIndex; i < files.size(); i++) {
+      File file = files.get(i);
+      if (!file.exists() || !file.canRead()) {
+        continue;
+      }
+      if (InputFiles.isSequential(file)) {
+        processor.processFile(file);
+        checkpoint(i + 1, 0);
+        continue;
+      }
+      for (FileChunk chunk : FileChunk.split(file, i == startIndex ? startOffset : 0, chunkSize)) {
+        try (BufferedReader reader = chunk.openReader()) {
+          processor.processLines(reader);
+        }
+        if (chunk.isLast()) {
+          processor.finishFile();
+          checkpoint(i + 1, 0);
+        } else {
+          checkpoint(i, chunk.getEnd());
+        }
+      }
+    }
+  }
+
+  private void checkpoint(int fileIndex, long offset) throws IOException {
+    long now = System.nanoTime();
+    if (now - lastCheckpoint < intervalNanos) {
+      return;
+    }
+    processor.flush();
+    listener.onCheckpoint(fileIndex, offset);
+    lastCheckpoint = now;
+  }
+}
@@ -0,0 +1,56 @@
+package com.mami.processors;
+
+import com.mami.metrics.Metrics;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Считает байты, прочитанные из источника (для сжатых файлов – до распаковки)
+final class CountingInputStream extends FilterInputStream {
+  private final Metrics metrics;
+  private long count;
+
+  CountingInputStream(InputStream in, Metrics metrics) {
+    super(in);
+    this.metrics = metrics;
+  }
+
+  @Override
+  public int read() throws IOException {
+    int b = in.read();
+    if (b >= 0) {
+      add(1);
+    }
+    return b;
+  }
+
+  @Override
+  public int read(byte[] target, int offset, int length) throws IOException {
+    int read = in.read(target, offset, length);
+    if (read > 0) {
+      add(read);
+    }
+    return read;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    long skipped = in.skip(n);
+    add(skipped);
+    return skipped;
+  }
+
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+
+  long getCount() {
+    return count;
+  }
+
+  private void add(long bytes) {
+    count += bytes;
+    metrics.addBytes(bytes);
+  }
+}
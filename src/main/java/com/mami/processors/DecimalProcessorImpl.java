@@ -1,13 +1,11 @@
 package com.mami.processors;
 
+import com.mami.output.OutputSink;
 import com.mami.statistics.Stats;
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
 
 public class DecimalProcessorImpl implements FileProcessor {
   private final Stats<BigDecimal> statistics;
@@ -17,13 +15,13 @@ public class DecimalProcessorImpl implements FileProcessor {
   }
 
   @Override
-  public boolean processFile(File inputFile, File outputFile, boolean isFileCreated) throws IOException {
+  public boolean processFile(File inputFile, OutputSink outputSink) throws IOException {
 
-    if (inputFile == null || outputFile == null) {
+    if (inputFile == null || outputSink == null) {
       return false;
     }
 
-    try (BufferedReader reader = new BufferedReader(new FileReader(inputFile))) {
+    try (BufferedReader reader = InputFiles.openReader(inputFile)) {
       String line;
       while ((line = reader.readLine()) != null) {
         line = line.trim();
@@ -32,21 +30,15 @@ public class DecimalProcessorImpl implements FileProcessor {
         }
 
         if (isDecimal(line)) {
-          if (!isFileCreated) {
-            Files.write(outputFile.toPath(), new byte[0], StandardOpenOption.CREATE,
-                StandardOpenOption.TRUNCATE_EXISTING);
-            isFileCreated = true;
-          }
-          Files.writeString(outputFile.toPath(), line + "\n", StandardOpenOption.APPEND);
+          outputSink.write(line);
           statistics.updateStats(new BigDecimal(line));
         }
       }
     }
-    return isFileCreated;
+    return outputSink.isCreated();
   }
 
   private boolean isDecimal(String str) {
-    return !str.isEmpty()
-        && str.matches("^-?\\d+\\.\\d+(?:[eE][-+]?\\d+)?$");
+    return LineClassifier.isDecimal(str);
   }
 }
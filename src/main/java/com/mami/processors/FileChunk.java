@@ -0,0 +1,142 @@
+package com.mami.processors;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Диапазон байт входного файла, который начинается с начала строки и заканчивается после символа '\n'
+ * (или в конце файла). Байт '\n' не встречается внутри многобайтовых символов UTF-8,
+ * поэтому каждую часть можно декодировать независимо.
+ */
+public class FileChunk {
+  private static final int SCAN_BUFFER_SIZE = 8 * 1024;
+
+  private final File file;
+  private final long start;
+  private final long end;
+  private final boolean last;
+
+  public FileChunk(File file, long start, long end, boolean last) {
+    this.file = file;
+    this.start = start;
+    this.end = end;
+    this.last = last;
+  }
+
+  public static List<FileChunk> split(File file, long chunkSize) throws IOException {
+    return split(file, 0, chunkSize);
+  }
+
+  // Делит файл, начиная с позиции from, которая должна быть началом строки
+  public static List<FileChunk> split(File file, long from, long chunkSize) throws IOException {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Размер части должен быть положительным: " + chunkSize);
+    }
+
+    List<FileChunk> chunks = new ArrayList<>();
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      long length = channel.size();
+      long start = Math.min(from, length);
+
+      while (length - start > chunkSize) {
+        long end = nextLineStart(channel, start + chunkSize, length);
+        if (end >= length) {
+          break;
+        }
+        chunks.add(new FileChunk(file, start, end, false));
+        start = end;
+      }
+      chunks.add(new FileChunk(file, start, length, true));
+    }
+    return chunks;
+  }
+
+  public BufferedReader openReader() throws IOException {
+    return new BufferedReader(new InputStreamReader(openStream(), StandardCharsets.UTF_8));
+  }
+
+  InputStream openStream() throws IOException {
+    FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    return new RangeInputStream(channel, start, end);
+  }
+
+  public File getFile() {
+    return file;
+  }
+
+  public long getStart() {
+    return start;
+  }
+
+  public long getEnd() {
+    return end;
+  }
+
+  public boolean isLast() {
+    return last;
+  }
+
+  private static long nextLineStart(FileChannel channel, long position, long length) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+
+    while (position < length) {
+      buffer.clear();
+      int read = channel.read(buffer, position);
+      if (read <= 0) {
+        break;
+      }
+      for (int i = 0; i < read; i++) {
+        if (buffer.get(i) == '\n') {
+          return position + i + 1;
+        }
+      }
+      position += read;
+    }
+    return length;
+  }
+
+  private static class RangeInputStream extends InputStream {
+    private final FileChannel channel;
+    private final long end;
+    private long position;
+
+    private RangeInputStream(FileChannel channel, long start, long end) {
+      this.channel = channel;
+      this.position = start;
+      this.end = end;
+    }
+
+    @Override
+    public int read() throws IOException {
+      byte[] single = new byte[1];
+      return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+      if (position >= end) {
+        return -1;
+      }
+      int toRead = (int) Math.min(length, end - position);
+      int read = channel.read(ByteBuffer.wrap(bytes, offset, toRead), position);
+      if (read > 0) {
+        position += read;
+      }
+      return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+}
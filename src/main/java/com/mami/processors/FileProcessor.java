@@ -1,8 +1,19 @@
 package com.mami.processors;
 
+import com.mami.output.FileOutputSink;
+import com.mami.output.OutputSink;
 import java.io.File;
 import java.io.IOException;
 
 public interface FileProcessor {
-  boolean processFile(File inputFile, File outputFile, boolean isFileCreated) throws IOException;
+  boolean processFile(File inputFile, OutputSink outputSink) throws IOException;
+
+  default boolean processFile(File inputFile, File outputFile, boolean isFileCreated) throws IOException {
+    if (inputFile == null || outputFile == null) {
+      return false;
+    }
+    try (OutputSink outputSink = new FileOutputSink(outputFile, isFileCreated)) {
+      return processFile(inputFile, outputSink);
+    }
+  }
 }
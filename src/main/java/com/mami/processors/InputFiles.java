@@ -0,0 +1,106 @@
+package com.mami.processors;
+
+import com.mami.metrics.Metrics;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Открытие входных данных: обычных файлов, именованных каналов и стандартного ввода ("-").
+ * Потоковые входы читаются последовательно и не имеют известной длины.
+ * Сжатые gzip данные распознаются по сигнатуре и распаковываются на лету в отдельном потоке.
+ */
+public final class InputFiles {
+  public static final String STDIN = "-";
+
+  private static final int GZIP_MAGIC_1 = 0x1f;
+  private static final int GZIP_MAGIC_2 = 0x8b;
+
+  private InputFiles() {
+  }
+
+  public static boolean isStdin(File file) {
+    return STDIN.equals(file.getPath());
+  }
+
+  // Стандартный ввод или существующий файл, который не является обычным (например, FIFO или /dev/fd/N)
+  public static boolean isStream(File file) {
+    return isStdin(file) || (file.exists() && !file.isFile() && !file.isDirectory());
+  }
+
+  // Сигнатура проверяется только у обычных файлов: у потоковых входов прочитанные байты не вернуть
+  public static boolean isCompressed(File file) throws IOException {
+    if (isStream(file) || !file.isFile()) {
+      return false;
+    }
+    try (InputStream in = new FileInputStream(file)) {
+      return isGzip(in.read(), in.read());
+    }
+  }
+
+  // Такие входы нельзя делить на части или отображать в память
+  public static boolean isSequential(File file) throws IOException {
+    return isStream(file) || isCompressed(file);
+  }
+
+  public static InputStream open(File file) throws IOException {
+    return decode(openRaw(file), file);
+  }
+
+  public static BufferedReader openReader(File file) throws IOException {
+    return reader(open(file));
+  }
+
+  // Неразобранный поток файла со счётчиком прочитанных байт; читается через openReader(InputStream, File)
+  static CountingInputStream openCounted(File file, Metrics metrics) throws IOException {
+    return new CountingInputStream(openRaw(file), metrics);
+  }
+
+  static BufferedReader openReader(InputStream raw, File file) throws IOException {
+    return reader(decode(raw, file));
+  }
+
+  private static InputStream decode(InputStream raw, File file) throws IOException {
+    BufferedInputStream in = new BufferedInputStream(raw, BackgroundInputStream.BLOCK_SIZE);
+    in.mark(2);
+    boolean compressed = isGzip(in.read(), in.read());
+    in.reset();
+    if (!compressed) {
+      return in;
+    }
+    try {
+      return new BackgroundInputStream(new GZIPInputStream(in, BackgroundInputStream.BLOCK_SIZE),
+          "gunzip-" + file.getName());
+    } catch (IOException e) {
+      in.close();
+      throw e;
+    }
+  }
+
+  private static BufferedReader reader(InputStream in) {
+    return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+  }
+
+  private static InputStream openRaw(File file) throws IOException {
+    if (isStdin(file)) {
+      // Стандартный ввод принадлежит процессу, закрывать его нельзя
+      return new FilterInputStream(System.in) {
+        @Override
+        public void close() {
+        }
+      };
+    }
+    return new FileInputStream(file);
+  }
+
+  private static boolean isGzip(int first, int second) {
+    return first == GZIP_MAGIC_1 && second == GZIP_MAGIC_2;
+  }
+}
@@ -0,0 +1,21 @@
+package com.mami.processors;
+
+import com.mami.statistics.LongStats;
+import com.mami.statistics.Stats;
+import java.math.BigInteger;
+
+final class IntegerValues {
+  // Столько цифр всегда помещается в long
+  static final int MAX_LONG_DIGITS = 18;
+
+  private IntegerValues() {
+  }
+
+  static void updateStats(Stats<BigInteger> statistics, String digits) {
+    if (digits.length() <= MAX_LONG_DIGITS && statistics instanceof LongStats longStats) {
+      longStats.updateStats(Long.parseLong(digits));
+    } else {
+      statistics.updateStats(new BigInteger(digits));
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package com.mami.processors;
+
+/**
+ * Классификация строки за один проход без выделения памяти.
+ * Результат совпадает с регулярными выражениями процессоров:
+ * целое - {@code ^\d+$}, вещественное - {@code ^-?\d+\.\d+(?:[eE][-+]?\d+)?$},
+ * строка - непустая строка, не подходящая под {@code ^-?\d+(\.\d+)?(E-?\d+)?$}.
+ * Эти правила пересекаются (например, "1.5e3" одновременно вещественное число и строка, а "-5" не подходит
+ * ни под одно), поэтому {@link #classify(CharSequence)} возвращает битовую маску.
+ */
+public final class LineClassifier {
+  public static final int NONE = 0;
+  public static final int INTEGER = 1;
+  public static final int DECIMAL = 1 << 1;
+  public static final int TEXT = 1 << 2;
+
+  private LineClassifier() {
+  }
+
+  public static int classify(CharSequence line) {
+    int length = line.length();
+    if (length == 0) {
+      return NONE;
+    }
+
+    int i = 0;
+    boolean negative = line.charAt(i) == '-';
+    if (negative) {
+      i++;
+    }
+
+    int start = i;
+    while (i < length && isDigit(line.charAt(i))) {
+      i++;
+    }
+    int intDigits = i - start;
+
+    boolean hasFraction = false;
+    int fractionDigits = 0;
+    if (i < length && line.charAt(i) == '.') {
+      hasFraction = true;
+      start = ++i;
+      while (i < length && isDigit(line.charAt(i))) {
+        i++;
+      }
+      fractionDigits = i - start;
+    }
+
+    char exponentMarker = 0;
+    char exponentSign = 0;
+    int exponentDigits = 0;
+    if (i < length && (line.charAt(i) == 'e' || line.charAt(i) == 'E')) {
+      exponentMarker = line.charAt(i++);
+      if (i < length && (line.charAt(i) == '-' || line.charAt(i) == '+')) {
+        exponentSign = line.charAt(i++);
+      }
+      start = i;
+      while (i < length && isDigit(line.charAt(i))) {
+        i++;
+      }
+      exponentDigits = i - start;
+    }
+
+    if (i != length || intDigits == 0) {
+      return TEXT;
+    }
+
+    boolean hasExponent = exponentMarker != 0;
+    int result = NONE;
+
+    if (!negative && !hasFraction && !hasExponent) {
+      result |= INTEGER;
+    }
+    if (hasFraction && fractionDigits > 0 && (!hasExponent || exponentDigits > 0)) {
+      result |= DECIMAL;
+    }
+    boolean numeric = (!hasFraction || fractionDigits > 0)
+        && (!hasExponent || (exponentMarker == 'E' && exponentSign != '+' && exponentDigits > 0));
+    if (!numeric) {
+      result |= TEXT;
+    }
+    return result;
+  }
+
+  public static boolean isInteger(CharSequence line) {
+    return (classify(line) & INTEGER) != 0;
+  }
+
+  public static boolean isDecimal(CharSequence line) {
+    return (classify(line) & DECIMAL) != 0;
+  }
+
+  public static boolean isText(CharSequence line) {
+    return (classify(line) & TEXT) != 0;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+}
@@ -0,0 +1,233 @@
+package com.mami.processors;
+
+import com.mami.metrics.FileMetrics;
+import com.mami.metrics.Metrics;
+import com.mami.output.OutputSink;
+import com.mami.statistics.LongStats;
+import com.mami.statistics.Stats;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Однопроходная обработка через отображение файла в память. Строки ищутся и классифицируются по байтам,
+ * целые и вещественные числа копируются в выходной файл без создания String.
+ * Строки текста декодируются из UTF-8, как в SinglePassProcessor, потому что их статистике нужен String.
+ */
+public class MappedFileProcessor {
+  public static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+
+  private final Stats<BigInteger> numberStatistics;
+  private final Stats<BigDecimal> decimalStatistics;
+  private final Stats<String> textStatistics;
+
+  private final OutputSink intSink;
+  private final OutputSink floatSink;
+  private final OutputSink stringSink;
+
+  private final int windowSize;
+  private final AsciiLine line = new AsciiLine();
+  private char[] chars = new char[64];
+
+  // Время по стадиям в этом режиме не измеряется, считаются только строки, байты и категории
+  private Metrics metrics;
+  private long lines;
+  // Предыдущее окно закончилось на '\r': '\n' в начале следующего окна относится к тому же "\r\n"
+  private boolean afterCarriageReturn;
+
+  public MappedFileProcessor(Stats<BigInteger> numberStatistics, Stats<BigDecimal> decimalStatistics,
+                             Stats<String> textStatistics, OutputSink intSink, OutputSink floatSink,
+                             OutputSink stringSink) {
+    this(numberStatistics, decimalStatistics, textStatistics, intSink, floatSink, stringSink, DEFAULT_WINDOW_SIZE);
+  }
+
+  public MappedFileProcessor(Stats<BigInteger> numberStatistics, Stats<BigDecimal> decimalStatistics,
+                             Stats<String> textStatistics, OutputSink intSink, OutputSink floatSink,
+                             OutputSink stringSink, int windowSize) {
+    if (windowSize <= 0) {
+      throw new IllegalArgumentException("Размер окна должен быть положительным: " + windowSize);
+    }
+    this.numberStatistics = numberStatistics;
+    this.decimalStatistics = decimalStatistics;
+    this.textStatistics = textStatistics;
+    this.intSink = intSink;
+    this.floatSink = floatSink;
+    this.stringSink = stringSink;
+    this.windowSize = windowSize;
+  }
+
+  public void setMetrics(Metrics metrics) {
+    this.metrics = metrics;
+  }
+
+  public void processFile(File inputFile) throws IOException {
+
+    if (inputFile == null) {
+      return;
+    }
+    long start = System.nanoTime();
+    lines = 0;
+    afterCarriageReturn = false;
+    long size;
+
+    try (FileChannel channel = FileChannel.open(inputFile.toPath(), StandardOpenOption.READ)) {
+      size = channel.size();
+      long position = 0;
+
+      // Файлы больше 2 ГБ нельзя отобразить целиком, поэтому они отображаются окнами, начинающимися с начала строки
+      while (position < size) {
+        long length = Math.min(windowSize, size - position);
+        boolean lastWindow = position + length == size;
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+        int processed = processWindow(buffer, (int) length, lastWindow);
+        if (processed == 0) {
+          throw new IOException("Строка длиннее " + windowSize + " байт в файле " + inputFile.getAbsolutePath());
+        }
+        position += processed;
+      }
+    }
+    if (metrics != null) {
+      metrics.addLines(lines);
+      metrics.addBytes(size);
+      metrics.addFile(new FileMetrics(inputFile.getPath(), lines, size, System.nanoTime() - start));
+    }
+    intSink.onInputFileProcessed();
+    floatSink.onInputFileProcessed();
+    stringSink.onInputFileProcessed();
+  }
+
+  private int processWindow(MappedByteBuffer buffer, int length, boolean lastWindow) throws IOException {
+    int lineStart = afterCarriageReturn && length > 0 && buffer.get(0) == '\n' ? 1 : 0;
+    afterCarriageReturn = false;
+    for (int i = lineStart; i < length; i++) {
+      byte b = buffer.get(i);
+      // Как BufferedReader.readLine: строки разделяются '\n', '\r' или "\r\n" как одним разделителем
+      if (b == '\n' || b == '\r') {
+        processLine(buffer, lineStart, i);
+        afterCarriageReturn = b == '\r' && i + 1 == length;
+        if (b == '\r' && i + 1 < length && buffer.get(i + 1) == '\n') {
+          i++;
+        }
+        lineStart = i + 1;
+      }
+    }
+    if (lastWindow) {
+      if (lineStart < length) {
+        processLine(buffer, lineStart, length);
+      }
+      return length;
+    }
+    return lineStart;
+  }
+
+  private void processLine(MappedByteBuffer buffer, int start, int end) throws IOException {
+    lines++;
+    // То же, что String.trim(): символы до U+0020 в UTF-8 всегда занимают один байт
+    while (start < end && (buffer.get(start) & 0xFF) <= ' ') {
+      start++;
+    }
+    while (end > start && (buffer.get(end - 1) & 0xFF) <= ' ') {
+      end--;
+    }
+    if (start == end) {
+      return;
+    }
+
+    line.reset(buffer, start, end);
+    int type = LineClassifier.classify(line);
+
+    if ((type & LineClassifier.INTEGER) != 0) {
+      intSink.write(buffer, start, end - start);
+      updateIntegerStats(buffer, start, end);
+      if (metrics != null) {
+        metrics.addInteger();
+      }
+    }
+    if ((type & LineClassifier.DECIMAL) != 0) {
+      floatSink.write(buffer, start, end - start);
+      decimalStatistics.updateStats(parseDecimal(buffer, start, end));
+      if (metrics != null) {
+        metrics.addDecimal();
+      }
+    }
+    if ((type & LineClassifier.TEXT) != 0) {
+      byte[] bytes = new byte[end - start];
+      buffer.get(start, bytes);
+      String text = new String(bytes, StandardCharsets.UTF_8);
+      stringSink.write(text);
+      textStatistics.updateStats(text);
+      if (metrics != null) {
+        metrics.addText();
+      }
+    }
+  }
+
+  private void updateIntegerStats(MappedByteBuffer buffer, int start, int end) {
+    if (end - start > IntegerValues.MAX_LONG_DIGITS) {
+      numberStatistics.updateStats(new BigInteger(line.toString()));
+      return;
+    }
+    long value = 0;
+    for (int i = start; i < end; i++) {
+      value = value * 10 + (buffer.get(i) - '0');
+    }
+    if (numberStatistics instanceof LongStats longStats) {
+      longStats.updateStats(value);
+    } else {
+      numberStatistics.updateStats(BigInteger.valueOf(value));
+    }
+  }
+
+  private BigDecimal parseDecimal(MappedByteBuffer buffer, int start, int end) {
+    int length = end - start;
+    if (chars.length < length) {
+      chars = new char[Math.max(length, chars.length * 2)];
+    }
+    for (int i = 0; i < length; i++) {
+      chars[i] = (char) buffer.get(start + i);
+    }
+    return new BigDecimal(chars, 0, length);
+  }
+
+  // Представление байтов строки как CharSequence без копирования; байты больше 0x7F не совпадают
+  // ни с цифрами, ни со знаками, поэтому классификация совпадает с классификацией декодированной строки
+  private static class AsciiLine implements CharSequence {
+    private MappedByteBuffer buffer;
+    private int start;
+    private int end;
+
+    private void reset(MappedByteBuffer buffer, int start, int end) {
+      this.buffer = buffer;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    public int length() {
+      return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+      return (char) (buffer.get(start + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+      return toString().subSequence(from, to);
+    }
+
+    @Override
+    public String toString() {
+      byte[] bytes = new byte[length()];
+      buffer.get(start, bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+  }
+}
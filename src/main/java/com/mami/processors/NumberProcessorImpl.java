@@ -1,13 +1,11 @@
 package com.mami.processors;
 
+import com.mami.output.OutputSink;
 import com.mami.statistics.Stats;
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.math.BigInteger;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
 
 public class NumberProcessorImpl implements FileProcessor {
   private final Stats<BigInteger> statistics;
@@ -17,13 +15,13 @@ public class NumberProcessorImpl implements FileProcessor {
   }
 
   @Override
-  public boolean processFile(File inputFile, File outputFile, boolean isFileCreated) throws IOException {
+  public boolean processFile(File inputFile, OutputSink outputSink) throws IOException {
 
-    if (inputFile == null || outputFile == null) {
+    if (inputFile == null || outputSink == null) {
       return false;
     }
 
-    try (BufferedReader reader = new BufferedReader(new FileReader(inputFile))) {
+    try (BufferedReader reader = InputFiles.openReader(inputFile)) {
       String line;
       while ((line = reader.readLine()) != null) {
 
@@ -33,20 +31,15 @@ public class NumberProcessorImpl implements FileProcessor {
         }
 
         if (isOnlyDigits(line)) {
-          if (!isFileCreated) {
-            Files.write(outputFile.toPath(), new byte[0], StandardOpenOption.CREATE,
-                StandardOpenOption.TRUNCATE_EXISTING);
-            isFileCreated = true;
-          }
-          Files.writeString(outputFile.toPath(), line + "\n", StandardOpenOption.APPEND);
-          statistics.updateStats(new BigInteger(line));
+          outputSink.write(line);
+          IntegerValues.updateStats(statistics, line);
         }
       }
     }
-    return isFileCreated;
+    return outputSink.isCreated();
   }
 
   private boolean isOnlyDigits(String str) {
-    return str.matches("^\\d+$");
+    return LineClassifier.isInteger(str);
   }
 }
@@ -0,0 +1,186 @@
+package com.mami.processors;
+
+import com.mami.metrics.FileMetrics;
+import com.mami.metrics.Metrics;
+import com.mami.output.MemoryOutputSink;
+import com.mami.output.OutputSink;
+import com.mami.statistics.Stats;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Классифицирует входные файлы параллельно, а результаты записывает в порядке входных файлов,
+ * поэтому содержимое выходных файлов совпадает с последовательной обработкой.
+ * Каждая часть собирает собственную статистику, которая затем объединяется с общей через Stats.merge.
+ * Файлы больше chunkSize байт делятся на части по границам строк, которые тоже обрабатываются параллельно.
+ */
+public class ParallelFileProcessor {
+  public static final long DEFAULT_CHUNK_SIZE = 64L * 1024 * 1024;
+
+  private final Stats<BigInteger> numberStatistics;
+  private final Stats<BigDecimal> decimalStatistics;
+  private final Stats<String> textStatistics;
+
+  private final OutputSink intSink;
+  private final OutputSink floatSink;
+  private final OutputSink stringSink;
+
+  private final int threads;
+  private final long chunkSize;
+
+  private Metrics metrics;
+  // Метрики текущего файла, собираемые по его частям
+  private long fileLines;
+  private long fileBytes;
+  private long fileNanos;
+
+  public ParallelFileProcessor(Stats<BigInteger> numberStatistics, Stats<BigDecimal> decimalStatistics,
+                               Stats<String> textStatistics, OutputSink intSink, OutputSink floatSink,
+                               OutputSink stringSink, int threads) {
+    this(numberStatistics, decimalStatistics, textStatistics, intSink, floatSink, stringSink, threads,
+        DEFAULT_CHUNK_SIZE);
+  }
+
+  public ParallelFileProcessor(Stats<BigInteger> numberStatistics, Stats<BigDecimal> decimalStatistics,
+                               Stats<String> textStatistics, OutputSink intSink, OutputSink floatSink,
+                               OutputSink stringSink, int threads, long chunkSize) {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Количество потоков должно быть положительным: " + threads);
+    }
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Размер части должен быть положительным: " + chunkSize);
+    }
+    this.numberStatistics = numberStatistics;
+    this.decimalStatistics = decimalStatistics;
+    this.textStatistics = textStatistics;
+    this.intSink = intSink;
+    this.floatSink = floatSink;
+    this.stringSink = stringSink;
+    this.threads = threads;
+    this.chunkSize = chunkSize;
+  }
+
+  public void setMetrics(Metrics metrics) {
+    this.metrics = metrics;
+  }
+
+  public void processFiles(List<File> inputFiles) throws IOException {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      // Не больше двух частей на поток в памяти одновременно
+      Deque<Future<ChunkResult>> pending = new ArrayDeque<>();
+      Deque<FileChunk> chunks = new ArrayDeque<>();
+      Iterator<File> files = inputFiles.iterator();
+
+      while (files.hasNext() || !chunks.isEmpty() || !pending.isEmpty()) {
+        while (pending.size() < threads * 2 && (files.hasNext() || !chunks.isEmpty())) {
+          if (chunks.isEmpty()) {
+            chunks.addAll(FileChunk.split(files.next(), chunkSize));
+          }
+          FileChunk chunk = chunks.poll();
+          pending.add(executor.submit(() -> classify(chunk)));
+        }
+        await(pending.poll()).applyTo(this);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private ChunkResult classify(FileChunk chunk) throws IOException {
+    ChunkResult result = new ChunkResult(this, chunk);
+    SinglePassProcessor processor =
+        new SinglePassProcessor(result.numberStatistics, result.decimalStatistics, result.textStatistics,
+            result.intLines, result.floatLines, result.stringLines);
+    processor.setMetrics(metrics);
+    if (metrics == null) {
+      try (BufferedReader reader = chunk.openReader()) {
+        processor.processLines(reader);
+      }
+      return result;
+    }
+    long start = System.nanoTime();
+    try (BufferedReader reader = new BufferedReader(
+        new InputStreamReader(new CountingInputStream(chunk.openStream(), metrics), StandardCharsets.UTF_8))) {
+      result.lines = processor.processLines(reader);
+    }
+    result.nanos = System.nanoTime() - start;
+    return result;
+  }
+
+  private static ChunkResult await(Future<ChunkResult> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Обработка прервана");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  private static class ChunkResult {
+    private final FileChunk chunk;
+    private long lines;
+    private long nanos;
+
+    private final MemoryOutputSink intLines = new MemoryOutputSink();
+    private final MemoryOutputSink floatLines = new MemoryOutputSink();
+    private final MemoryOutputSink stringLines = new MemoryOutputSink();
+
+    private final Stats<BigInteger> numberStatistics;
+    private final Stats<BigDecimal> decimalStatistics;
+    private final Stats<String> textStatistics;
+
+    private ChunkResult(ParallelFileProcessor processor, FileChunk chunk) {
+      this.chunk = chunk;
+      this.numberStatistics = processor.numberStatistics.createEmpty();
+      this.decimalStatistics = processor.decimalStatistics.createEmpty();
+      this.textStatistics = processor.textStatistics.createEmpty();
+    }
+
+    private void applyTo(ParallelFileProcessor processor) throws IOException {
+      intLines.transferTo(processor.intSink);
+      floatLines.transferTo(processor.floatSink);
+      stringLines.transferTo(processor.stringSink);
+      if (chunk.isLast()) {
+        processor.intSink.onInputFileProcessed();
+        processor.floatSink.onInputFileProcessed();
+        processor.stringSink.onInputFileProcessed();
+      }
+      if (processor.metrics != null) {
+        processor.fileLines += lines;
+        processor.fileBytes += chunk.getEnd() - chunk.getStart();
+        processor.fileNanos += nanos;
+        if (chunk.isLast()) {
+          processor.metrics.addFile(new FileMetrics(chunk.getFile().getPath(), processor.fileLines,
+              processor.fileBytes, processor.fileNanos));
+          processor.fileLines = 0;
+          processor.fileBytes = 0;
+          processor.fileNanos = 0;
+        }
+      }
+
+      processor.numberStatistics.merge(numberStatistics);
+      processor.decimalStatistics.merge(decimalStatistics);
+      processor.textStatistics.merge(textStatistics);
+    }
+  }
+}
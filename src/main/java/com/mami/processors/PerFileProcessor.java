@@ -0,0 +1,231 @@
+package com.mami.processors;
+
+import com.mami.metrics.FileMetrics;
+import com.mami.metrics.Metrics;
+import com.mami.output.MemoryOutputSink;
+import com.mami.output.OutputSink;
+import com.mami.statistics.Stats;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Обработка большого количества маленьких файлов: проверка, открытие и чтение каждого файла выполняются
+ * в отдельной задаче, поэтому задержки файловой системы перекрываются. Результаты записываются в порядке
+ * входных файлов, как при последовательной обработке.
+ * На Java 21 и новее задачи выполняются в виртуальных потоках, на более ранних версиях – в пуле обычных потоков.
+ */
+public class PerFileProcessor {
+  public static final int DEFAULT_WINDOW = 1024;
+
+  private static final int FALLBACK_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 4);
+
+  // Executors.newVirtualThreadPerTaskExecutor появился в Java 21, сборка по умолчанию нацелена на Java 17
+  private static final Method VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutor();
+
+  private final Stats<BigInteger> numberStatistics;
+  private final Stats<BigDecimal> decimalStatistics;
+  private final Stats<String> textStatistics;
+
+  private final OutputSink intSink;
+  private final OutputSink floatSink;
+  private final OutputSink stringSink;
+
+  // Сколько файлов может быть прочитано заранее и ждать записи
+  private final int window;
+
+  private int processedFiles;
+  private Metrics metrics;
+
+  public PerFileProcessor(Stats<BigInteger> numberStatistics, Stats<BigDecimal> decimalStatistics,
+                          Stats<String> textStatistics, OutputSink intSink, OutputSink floatSink,
+                          OutputSink stringSink) {
+    this(numberStatistics, decimalStatistics, textStatistics, intSink, floatSink, stringSink, DEFAULT_WINDOW);
+  }
+
+  public PerFileProcessor(Stats<BigInteger> numberStatistics, Stats<BigDecimal> decimalStatistics,
+                          Stats<String> textStatistics, OutputSink intSink, OutputSink floatSink,
+                          OutputSink stringSink, int window) {
+    if (window <= 0) {
+      throw new IllegalArgumentException("Размер окна должен быть положительным: " + window);
+    }
+    this.numberStatistics = numberStatistics;
+    this.decimalStatistics = decimalStatistics;
+    this.textStatistics = textStatistics;
+    this.intSink = intSink;
+    this.floatSink = floatSink;
+    this.stringSink = stringSink;
+    this.window = window;
+  }
+
+  // Файлы проверяются здесь же, недоступные пропускаются с тем же сообщением, что и в FileFilterUtil
+  public void processFiles(List<File> inputFiles) throws IOException {
+    ExecutorService executor = newExecutor();
+    try {
+      Deque<Future<FileResult>> pending = new ArrayDeque<>();
+      Iterator<File> files = inputFiles.iterator();
+
+      while (files.hasNext() || !pending.isEmpty()) {
+        while (pending.size() < window && files.hasNext()) {
+          File file = files.next();
+          pending.add(executor.submit(() -> process(file)));
+        }
+        await(pending.poll()).applyTo(this);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  public void setMetrics(Metrics metrics) {
+    this.metrics = metrics;
+  }
+
+  public int getProcessedFiles() {
+    return processedFiles;
+  }
+
+  public static boolean isVirtualThreadsAvailable() {
+    return VIRTUAL_THREAD_EXECUTOR != null;
+  }
+
+  private FileResult process(File file) throws IOException {
+    long start = System.nanoTime();
+    FileResult result = new FileResult(this);
+    if (!InputFiles.isStdin(file)) {
+      // Одно обращение к атрибутам вместо exists, canRead и length
+      BasicFileAttributes attributes;
+      try {
+        attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+      } catch (NoSuchFileException e) {
+        return result.skip("Ошибка: Файл " + file.getAbsolutePath() + " не существует. Пропускаем.");
+      }
+      if (attributes.isRegularFile() && attributes.size() == 0) {
+        return result.skip("Ошибка: Файл " + file.getAbsolutePath() + " пустой. Пропускаем.");
+      }
+    }
+
+    SinglePassProcessor processor =
+        new SinglePassProcessor(result.numberStatistics, result.decimalStatistics, result.textStatistics,
+            result.intLines, result.floatLines, result.stringLines);
+    processor.setMetrics(metrics);
+    CountingInputStream counter = null;
+    BufferedReader reader;
+    try {
+      if (metrics == null) {
+        reader = InputFiles.openReader(file);
+      } else {
+        counter = InputFiles.openCounted(file, metrics);
+        reader = InputFiles.openReader(counter, file);
+      }
+    } catch (FileNotFoundException e) {
+      // FileInputStream сообщает так и об отсутствии прав на чтение, и о попытке открыть каталог
+      return result.skip("Ошибка: Файл " + file.getAbsolutePath() + " недоступен для чтения. Пропускаем.");
+    }
+    long lines;
+    try (reader) {
+      lines = processor.processLines(reader);
+    }
+    if (counter != null) {
+      result.fileMetrics = new FileMetrics(file.getPath(), lines, counter.getCount(), System.nanoTime() - start);
+    }
+    return result;
+  }
+
+  private static ExecutorService newExecutor() {
+    if (VIRTUAL_THREAD_EXECUTOR != null) {
+      try {
+        return (ExecutorService) VIRTUAL_THREAD_EXECUTOR.invoke(null);
+      } catch (IllegalAccessException | InvocationTargetException e) {
+        // Переходим на обычные потоки
+      }
+    }
+    return Executors.newFixedThreadPool(FALLBACK_THREADS);
+  }
+
+  private static Method findVirtualThreadExecutor() {
+    try {
+      return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  private static FileResult await(Future<FileResult> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Обработка прервана");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  private static class FileResult {
+    private String skipMessage;
+    // Записывается в Metrics при выводе результата, чтобы файлы шли в порядке входных
+    private FileMetrics fileMetrics;
+
+    private final MemoryOutputSink intLines = new MemoryOutputSink();
+    private final MemoryOutputSink floatLines = new MemoryOutputSink();
+    private final MemoryOutputSink stringLines = new MemoryOutputSink();
+
+    private final Stats<BigInteger> numberStatistics;
+    private final Stats<BigDecimal> decimalStatistics;
+    private final Stats<String> textStatistics;
+
+    private FileResult(PerFileProcessor processor) {
+      this.numberStatistics = processor.numberStatistics.createEmpty();
+      this.decimalStatistics = processor.decimalStatistics.createEmpty();
+      this.textStatistics = processor.textStatistics.createEmpty();
+    }
+
+    private FileResult skip(String message) {
+      this.skipMessage = message;
+      return this;
+    }
+
+    private void applyTo(PerFileProcessor processor) throws IOException {
+      if (skipMessage != null) {
+        System.err.println(skipMessage);
+        return;
+      }
+      processor.processedFiles++;
+      if (fileMetrics != null) {
+        processor.metrics.addFile(fileMetrics);
+      }
+
+      intLines.transferTo(processor.intSink);
+      floatLines.transferTo(processor.floatSink);
+      stringLines.transferTo(processor.stringSink);
+      processor.intSink.onInputFileProcessed();
+      processor.floatSink.onInputFileProcessed();
+      processor.stringSink.onInputFileProcessed();
+
+      processor.numberStatistics.merge(numberStatistics);
+      processor.decimalStatistics.merge(decimalStatistics);
+      processor.textStatistics.merge(textStatistics);
+    }
+  }
+}
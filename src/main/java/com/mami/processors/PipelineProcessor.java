@@ -0,0 +1,287 @@
+package com.mami.processors;
+
+import com.mami.metrics.FileMetrics;
+import com.mami.metrics.Metrics;
+import com.mami.output.OutputSink;
+import com.mami.statistics.Stats;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Конвейер: чтение, классификация и запись в каждый выходной файл выполняются в отдельных потоках
+ * и связаны ограниченными очередями пакетов строк. Заполненная очередь приостанавливает предыдущую стадию,
+ * поэтому память ограничена, а скорость определяется самой медленной стадией, а не их суммой.
+ * Содержимое выходных файлов и статистика совпадают с SinglePassProcessor.
+ */
+public class PipelineProcessor {
+  public static final int DEFAULT_BATCH_SIZE = 1024;
+  public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+  private final Stats<BigInteger> numberStatistics;
+  private final Stats<BigDecimal> decimalStatistics;
+  private final Stats<String> textStatistics;
+
+  private final OutputSink intSink;
+  private final OutputSink floatSink;
+  private final OutputSink stringSink;
+
+  private final int batchSize;
+  private final int queueCapacity;
+
+  private Metrics metrics;
+
+  public PipelineProcessor(Stats<BigInteger> numberStatistics, Stats<BigDecimal> decimalStatistics,
+                           Stats<String> textStatistics, OutputSink intSink, OutputSink floatSink,
+                           OutputSink stringSink) {
+    this(numberStatistics, decimalStatistics, textStatistics, intSink, floatSink, stringSink, DEFAULT_BATCH_SIZE,
+        DEFAULT_QUEUE_CAPACITY);
+  }
+
+  public PipelineProcessor(Stats<BigInteger> numberStatistics, Stats<BigDecimal> decimalStatistics,
+                           Stats<String> textStatistics, OutputSink intSink, OutputSink floatSink,
+                           OutputSink stringSink, int batchSize, int queueCapacity) {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("Размер пакета должен быть положительным: " + batchSize);
+    }
+    if (queueCapacity <= 0) {
+      throw new IllegalArgumentException("Размер очереди должен быть положительным: " + queueCapacity);
+    }
+    this.numberStatistics = numberStatistics;
+    this.decimalStatistics = decimalStatistics;
+    this.textStatistics = textStatistics;
+    this.intSink = intSink;
+    this.floatSink = floatSink;
+    this.stringSink = stringSink;
+    this.batchSize = batchSize;
+    this.queueCapacity = queueCapacity;
+  }
+
+  public void setMetrics(Metrics metrics) {
+    this.metrics = metrics;
+  }
+
+  public void processFiles(List<File> inputFiles) throws IOException {
+    BlockingQueue<Batch> lines = new ArrayBlockingQueue<>(queueCapacity);
+
+    // Категории с общим выходом (например, stdout) пишутся одной стадией, чтобы сохранить порядок строк
+    Map<OutputSink, QueueOutputSink> writers = new IdentityHashMap<>();
+    QueueOutputSink intQueue = writers.computeIfAbsent(intSink, this::newQueue);
+    QueueOutputSink floatQueue = writers.computeIfAbsent(floatSink, this::newQueue);
+    QueueOutputSink stringQueue = writers.computeIfAbsent(stringSink, this::newQueue);
+
+    int stages = 2 + writers.size();
+    ExecutorService executor = Executors.newFixedThreadPool(stages);
+    try {
+      CompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+      completion.submit(() -> read(inputFiles, lines));
+      completion.submit(() -> classify(lines, intQueue, floatQueue, stringQueue, writers.values()));
+      for (Map.Entry<OutputSink, QueueOutputSink> writer : writers.entrySet()) {
+        completion.submit(() -> write(writer.getValue().queue, writer.getKey()));
+      }
+      // Первая же ошибка любой стадии останавливает остальные через shutdownNow
+      for (int i = 0; i < stages; i++) {
+        await(completion);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private Void read(List<File> inputFiles, BlockingQueue<Batch> lines) throws IOException, InterruptedException {
+    for (File file : inputFiles) {
+      if (metrics != null) {
+        readMeasured(file, lines);
+        continue;
+      }
+      List<String> batch = new ArrayList<>(batchSize);
+      try (BufferedReader reader = InputFiles.openReader(file)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          batch.add(line);
+          if (batch.size() == batchSize) {
+            lines.put(new Batch(batch, false));
+            batch = new ArrayList<>(batchSize);
+          }
+        }
+      }
+      lines.put(new Batch(batch, true));
+    }
+    lines.put(Batch.END);
+    return null;
+  }
+
+  // Время чтения считается по пакетам, ожидание места в очереди в него не входит
+  private void readMeasured(File file, BlockingQueue<Batch> lines) throws IOException, InterruptedException {
+    long readNanos = 0;
+    long count = 0;
+    CountingInputStream counter = InputFiles.openCounted(file, metrics);
+    List<String> batch = new ArrayList<>(batchSize);
+    try (BufferedReader reader = InputFiles.openReader(counter, file)) {
+      long start = System.nanoTime();
+      String line;
+      while ((line = reader.readLine()) != null) {
+        batch.add(line);
+        if (batch.size() == batchSize) {
+          readNanos += recordRead(batch, start);
+          count += batch.size();
+          lines.put(new Batch(batch, false));
+          batch = new ArrayList<>(batchSize);
+          start = System.nanoTime();
+        }
+      }
+      readNanos += recordRead(batch, start);
+      count += batch.size();
+    }
+    lines.put(new Batch(batch, true));
+    metrics.addFile(new FileMetrics(file.getPath(), count, counter.getCount(), readNanos));
+  }
+
+  private long recordRead(List<String> batch, long start) {
+    long nanos = System.nanoTime() - start;
+    metrics.addReadTime(nanos);
+    metrics.addLines(batch.size());
+    return nanos;
+  }
+
+  private Void classify(BlockingQueue<Batch> lines, QueueOutputSink intQueue, QueueOutputSink floatQueue,
+                        QueueOutputSink stringQueue, Iterable<QueueOutputSink> queues)
+      throws IOException, InterruptedException {
+    SinglePassProcessor processor =
+        new SinglePassProcessor(numberStatistics, decimalStatistics, textStatistics, intQueue, floatQueue,
+            stringQueue);
+    processor.setMetrics(metrics);
+    // Передача строк в очередь (и ожидание места в ней) — не запись; её время считает стадия записи
+    processor.setWriteTimed(false);
+    Batch batch;
+    while ((batch = lines.take()) != Batch.END) {
+      for (String line : batch.lines) {
+        processor.processLine(line);
+      }
+      if (batch.endOfFile) {
+        for (QueueOutputSink queue : queues) {
+          queue.onInputFileProcessed();
+        }
+      }
+    }
+    for (QueueOutputSink queue : queues) {
+      queue.close();
+    }
+    return null;
+  }
+
+  private Void write(BlockingQueue<Batch> queue, OutputSink sink) throws IOException, InterruptedException {
+    Batch batch;
+    while ((batch = queue.take()) != Batch.END) {
+      long start = metrics != null ? System.nanoTime() : 0;
+      for (String line : batch.lines) {
+        sink.write(line);
+      }
+      if (metrics != null) {
+        metrics.addWriteTime(System.nanoTime() - start);
+      }
+      if (batch.endOfFile) {
+        sink.onInputFileProcessed();
+      }
+    }
+    return null;
+  }
+
+  private QueueOutputSink newQueue(OutputSink sink) {
+    return new QueueOutputSink(batchSize, queueCapacity);
+  }
+
+  private static void await(CompletionService<Void> completion) throws IOException {
+    try {
+      completion.take().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Обработка прервана");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      if (e.getCause() instanceof InterruptedException) {
+        throw new InterruptedIOException("Обработка прервана");
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  // Пакет строк; endOfFile отмечает последний пакет входного файла
+  private record Batch(List<String> lines, boolean endOfFile) {
+    private static final Batch END = new Batch(List.of(), false);
+  }
+
+  // Выход стадии классификации: собирает строки в пакеты и передаёт их стадии записи
+  private static class QueueOutputSink implements OutputSink {
+    private final int batchSize;
+    private final BlockingQueue<Batch> queue;
+    private List<String> batch;
+
+    private QueueOutputSink(int batchSize, int queueCapacity) {
+      this.batchSize = batchSize;
+      this.queue = new ArrayBlockingQueue<>(queueCapacity);
+      this.batch = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public void write(String line) throws IOException {
+      batch.add(line);
+      if (batch.size() == batchSize) {
+        send(false);
+      }
+    }
+
+    @Override
+    public void onInputFileProcessed() throws IOException {
+      send(true);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      if (!batch.isEmpty()) {
+        send(false);
+      }
+    }
+
+    @Override
+    public boolean isCreated() {
+      return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+      flush();
+      put(Batch.END);
+    }
+
+    private void send(boolean endOfFile) throws IOException {
+      put(new Batch(batch, endOfFile));
+      batch = new ArrayList<>(batchSize);
+    }
+
+    private void put(Batch value) throws IOException {
+      try {
+        queue.put(value);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Обработка прервана");
+      }
+    }
+  }
+}
@@ -0,0 +1,221 @@
+package com.mami.processors;
+
+import com.mami.classifiers.CategoryDispatcher;
+import com.mami.metrics.FileMetrics;
+import com.mami.metrics.Metrics;
+import com.mami.output.OutputSink;
+import com.mami.statistics.Stats;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Однопроходная обработка: каждая строка читается один раз и отправляется во все подходящие выходные файлы.
+ * Правила классификации те же, что у NumberProcessorImpl, DecimalProcessorImpl и TextProcessorImpl (LineClassifier).
+ */
+public class SinglePassProcessor {
+  private final Stats<BigInteger> numberStatistics;
+  private final Stats<BigDecimal> decimalStatistics;
+  private final Stats<String> textStatistics;
+
+  private final OutputSink intSink;
+  private final OutputSink floatSink;
+  private final OutputSink stringSink;
+
+  // null, если метрики не собираются: тогда обработка идёт без замеров времени
+  private Metrics metrics;
+  // Подключаемые категории проверяются раньше встроенных; null, если их нет
+  private CategoryDispatcher categories;
+  // false, если выходы — очереди конвейера: запись тогда замеряет стадия записи
+  private boolean writeTimed = true;
+
+  public SinglePassProcessor(Stats<BigInteger> numberStatistics, Stats<BigDecimal> decimalStatistics,
+                             Stats<String> textStatistics, OutputSink intSink, OutputSink floatSink,
+                             OutputSink stringSink) {
+    this.numberStatistics = numberStatistics;
+    this.decimalStatistics = decimalStatistics;
+    this.textStatistics = textStatistics;
+    this.intSink = intSink;
+    this.floatSink = floatSink;
+    this.stringSink = stringSink;
+  }
+
+  public void setMetrics(Metrics metrics) {
+    this.metrics = metrics;
+  }
+
+  public void setCategories(CategoryDispatcher categories) {
+    this.categories = categories;
+  }
+
+  void setWriteTimed(boolean writeTimed) {
+    this.writeTimed = writeTimed;
+  }
+
+  public void processFile(File inputFile) throws IOException {
+
+    if (inputFile == null) {
+      return;
+    }
+
+    if (metrics == null) {
+      try (BufferedReader reader = InputFiles.openReader(inputFile)) {
+        processLines(reader);
+      }
+    } else {
+      long start = System.nanoTime();
+      CountingInputStream counter = InputFiles.openCounted(inputFile, metrics);
+      long lines;
+      try (BufferedReader reader = InputFiles.openReader(counter, inputFile)) {
+        lines = processLines(reader);
+      }
+      metrics.addFile(new FileMetrics(inputFile.getPath(), lines, counter.getCount(), System.nanoTime() - start));
+    }
+    finishFile();
+  }
+
+  // Обработка части файла, например дописанного с прошлого запуска хвоста
+  public void processChunk(FileChunk chunk) throws IOException {
+    try (BufferedReader reader = chunk.openReader()) {
+      processLines(reader);
+    }
+    finishFile();
+  }
+
+  // Сообщает выходным файлам, что входной файл обработан до конца (для --flush FILE)
+  public void finishFile() throws IOException {
+    intSink.onInputFileProcessed();
+    floatSink.onInputFileProcessed();
+    stringSink.onInputFileProcessed();
+    if (categories != null) {
+      categories.onInputFileProcessed();
+    }
+  }
+
+  // Записывает буферы всех выходных файлов, чтобы их длина соответствовала обработанным строкам
+  public void flush() throws IOException {
+    intSink.flush();
+    floatSink.flush();
+    stringSink.flush();
+    if (categories != null) {
+      categories.flush();
+    }
+  }
+
+  // Возвращает количество прочитанных строк
+  public long processLines(BufferedReader reader) throws IOException {
+    if (metrics != null) {
+      return processLinesMeasured(reader);
+    }
+    long lines = 0;
+    String line;
+    while ((line = reader.readLine()) != null) {
+      processLine(line);
+      lines++;
+    }
+    return lines;
+  }
+
+  public void processLine(String line) throws IOException {
+    if (metrics != null) {
+      processLineMeasured(line);
+      return;
+    }
+    line = line.trim();
+    if (line.isEmpty()) {
+      return;
+    }
+
+    if (categories != null && categories.dispatch(line)) {
+      return;
+    }
+    int type = LineClassifier.classify(line);
+    if ((type & LineClassifier.INTEGER) != 0) {
+      intSink.write(line);
+      IntegerValues.updateStats(numberStatistics, line);
+    }
+    if ((type & LineClassifier.DECIMAL) != 0) {
+      floatSink.write(line);
+      decimalStatistics.updateStats(new BigDecimal(line));
+    }
+    if ((type & LineClassifier.TEXT) != 0) {
+      stringSink.write(line);
+      textStatistics.updateStats(line);
+    }
+  }
+
+  private long processLinesMeasured(BufferedReader reader) throws IOException {
+    long lines = 0;
+    long start = System.nanoTime();
+    String line;
+    while ((line = reader.readLine()) != null) {
+      metrics.addReadTime(System.nanoTime() - start);
+      metrics.addLines(1);
+      processLineMeasured(line);
+      lines++;
+      start = System.nanoTime();
+    }
+    metrics.addReadTime(System.nanoTime() - start);
+    return lines;
+  }
+
+  // Та же обработка, что в processLine, с замером времени классификации, разбора чисел и записи
+  private void processLineMeasured(String line) throws IOException {
+    line = line.trim();
+    if (line.isEmpty()) {
+      return;
+    }
+
+    long time = System.nanoTime();
+    if (categories != null && categories.dispatch(line)) {
+      lap(time, Phase.CLASSIFY);
+      return;
+    }
+    int type = LineClassifier.classify(line);
+    time = lap(time, Phase.CLASSIFY);
+
+    if ((type & LineClassifier.INTEGER) != 0) {
+      intSink.write(line);
+      time = lap(time, Phase.WRITE);
+      IntegerValues.updateStats(numberStatistics, line);
+      time = lap(time, Phase.PARSE);
+      metrics.addInteger();
+    }
+    if ((type & LineClassifier.DECIMAL) != 0) {
+      floatSink.write(line);
+      time = lap(time, Phase.WRITE);
+      decimalStatistics.updateStats(new BigDecimal(line));
+      time = lap(time, Phase.PARSE);
+      metrics.addDecimal();
+    }
+    if ((type & LineClassifier.TEXT) != 0) {
+      stringSink.write(line);
+      time = lap(time, Phase.WRITE);
+      textStatistics.updateStats(line);
+      lap(time, Phase.PARSE);
+      metrics.addText();
+    }
+  }
+
+  private long lap(long start, Phase phase) {
+    long now = System.nanoTime();
+    switch (phase) {
+      case CLASSIFY -> metrics.addClassifyTime(now - start);
+      case PARSE -> metrics.addParseTime(now - start);
+      case WRITE -> {
+        if (writeTimed) {
+          metrics.addWriteTime(now - start);
+        }
+      }
+    }
+    return now;
+  }
+
+  private enum Phase {
+    CLASSIFY,
+    PARSE,
+    WRITE
+  }
+}
@@ -1,14 +1,10 @@
 package com.mami.processors;
 
+import com.mami.output.OutputSink;
 import com.mami.statistics.Stats;
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
 
 public class TextProcessorImpl implements FileProcessor {
   private final Stats<String> statistics;
@@ -18,14 +14,13 @@ public class TextProcessorImpl implements FileProcessor {
   }
 
   @Override
-  public boolean processFile(File inputFile, File outputFile, boolean isFileCreated) throws IOException {
+  public boolean processFile(File inputFile, OutputSink outputSink) throws IOException {
 
-    if (inputFile == null || outputFile == null) {
+    if (inputFile == null || outputSink == null) {
       return false;
     }
 
-    try (BufferedReader reader = new BufferedReader(
-        new InputStreamReader(new FileInputStream(inputFile), StandardCharsets.UTF_8))) {
+    try (BufferedReader reader = InputFiles.openReader(inputFile)) {
       String line;
       while ((line = reader.readLine()) != null) {
         line = line.trim();
@@ -34,21 +29,15 @@ public class TextProcessorImpl implements FileProcessor {
         }
 
         if (isOnlyText(line)) {
-          if (!isFileCreated) {
-            Files.write(outputFile.toPath(), new byte[0], StandardOpenOption.CREATE,
-                StandardOpenOption.TRUNCATE_EXISTING);
-            isFileCreated = true;
-          }
-          Files.writeString(outputFile.toPath(), line + "\n", StandardOpenOption.APPEND);
+          outputSink.write(line);
           statistics.updateStats(line);
         }
       }
     }
-    return isFileCreated;
+    return outputSink.isCreated();
   }
 
   private boolean isOnlyText(String str) {
-    return !str.isEmpty()
-        && !str.matches("^-?\\d+(\\.\\d+)?(E-?\\d+)?$");
+    return LineClassifier.isText(str);
   }
 }
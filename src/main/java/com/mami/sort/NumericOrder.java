@@ -0,0 +1,49 @@
+package com.mami.sort;
+
+// Сравнение десятичных записей целых чисел по значению без перевода в BigInteger
+final class NumericOrder {
+
+  private NumericOrder() {
+  }
+
+  // Строки вида [-]цифры, возможно с ведущими нулями; результат совпадает с new BigInteger(a).compareTo(...)
+  static int compareIntegers(String a, String b) {
+    boolean negativeA = a.startsWith("-");
+    boolean negativeB = b.startsWith("-");
+    int startA = significantStart(a, negativeA ? 1 : 0);
+    int startB = significantStart(b, negativeB ? 1 : 0);
+    boolean zeroA = startA == a.length();
+    boolean zeroB = startB == b.length();
+    // "-0" равен нулю
+    negativeA &= !zeroA;
+    negativeB &= !zeroB;
+    if (negativeA != negativeB) {
+      return negativeA ? -1 : 1;
+    }
+    int magnitude = compareMagnitude(a, startA, b, startB);
+    return negativeA ? -magnitude : magnitude;
+  }
+
+  private static int significantStart(String value, int from) {
+    int start = from;
+    while (start < value.length() && value.charAt(start) == '0') {
+      start++;
+    }
+    return start;
+  }
+
+  private static int compareMagnitude(String a, int startA, String b, int startB) {
+    int lengthA = a.length() - startA;
+    int lengthB = b.length() - startB;
+    if (lengthA != lengthB) {
+      return Integer.compare(lengthA, lengthB);
+    }
+    for (int i = 0; i < lengthA; i++) {
+      int diff = a.charAt(startA + i) - b.charAt(startB + i);
+      if (diff != 0) {
+        return diff;
+      }
+    }
+    return 0;
+  }
+}
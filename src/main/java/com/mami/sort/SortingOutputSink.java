@@ -0,0 +1,263 @@
+package com.mami.sort;
+
+import com.mami.output.OutputSink;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Записывает строки в target отсортированными (внешняя сортировка слиянием). Строки копятся в памяти, пока
+ * их оценочный объём не превысит runBytes; тогда накопленное сортируется и сохраняется во временный файл-серию.
+ * При закрытии серии сливаются не больше чем по fanIn за раз, пока не останется одно слияние прямо в target.
+ * Если всё поместилось в одну серию, временные файлы не создаются. Сортировка устойчива: равные по ключу
+ * строки остаются в порядке поступления.
+ */
+public class SortingOutputSink<K> implements OutputSink {
+  public static final long DEFAULT_RUN_BYTES = 64L * 1024 * 1024;
+  public static final int DEFAULT_FAN_IN = 64;
+
+  // Приблизительный размер строки в списке без учёта символов: объекты записи, String и массива
+  private static final int ENTRY_BYTES = 80;
+  private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+  private final OutputSink target;
+  private final Function<String, K> key;
+  private final Comparator<K> order;
+  private final int keyBytes;
+  private final long runBytes;
+  private final int fanIn;
+  private final Path tempParent;
+
+  private List<Entry<K>> run = new ArrayList<>();
+  private long bufferedBytes;
+  private Path tempDirectory;
+  private final List<Path> runs = new ArrayList<>();
+  private boolean aborted;
+
+  private SortingOutputSink(OutputSink target, Function<String, K> key, Comparator<K> order, int keyBytes,
+                            long runBytes, int fanIn, Path tempParent) {
+    if (runBytes <= 0) {
+      throw new IllegalArgumentException("Размер серии должен быть положительным: " + runBytes);
+    }
+    if (fanIn < 2) {
+      throw new IllegalArgumentException("Слияние должно объединять хотя бы две серии: " + fanIn);
+    }
+    this.target = target;
+    this.key = key;
+    this.order = order;
+    this.keyBytes = keyBytes;
+    this.runBytes = runBytes;
+    this.fanIn = fanIn;
+    this.tempParent = tempParent;
+  }
+
+  // Целые числа по значению, как BigInteger, но без разбора строки
+  public static SortingOutputSink<String> forIntegers(OutputSink target, long runBytes, int fanIn, Path tempParent) {
+    return new SortingOutputSink<>(target, Function.identity(), NumericOrder::compareIntegers, 0, runBytes, fanIn,
+        tempParent);
+  }
+
+  // Вещественные числа по значению BigDecimal: 1.50 и 1.5 равны и остаются в порядке поступления
+  public static SortingOutputSink<BigDecimal> forDecimals(OutputSink target, long runBytes, int fanIn,
+                                                          Path tempParent) {
+    return new SortingOutputSink<>(target, BigDecimal::new, Comparator.<BigDecimal>naturalOrder(), ENTRY_BYTES,
+        runBytes, fanIn, tempParent);
+  }
+
+  // Строки в лексикографическом порядке String.compareTo
+  public static SortingOutputSink<String> forText(OutputSink target, long runBytes, int fanIn, Path tempParent) {
+    return new SortingOutputSink<>(target, Function.identity(), Comparator.naturalOrder(), 0, runBytes, fanIn,
+        tempParent);
+  }
+
+  @Override
+  public void write(String line) throws IOException {
+    run.add(new Entry<>(line, key.apply(line)));
+    bufferedBytes += ENTRY_BYTES + keyBytes + 2L * line.length();
+    if (bufferedBytes >= runBytes) {
+      runs.add(writeRun());
+    }
+  }
+
+  // Отсортированные строки записываются только при закрытии
+  @Override
+  public void onInputFileProcessed() throws IOException {
+    target.onInputFileProcessed();
+  }
+
+  @Override
+  public void flush() throws IOException {
+    target.flush();
+  }
+
+  @Override
+  public boolean isCreated() {
+    return target.isCreated();
+  }
+
+  int getRunCount() {
+    return runs.size();
+  }
+
+  @Override
+  public void abort() throws IOException {
+    aborted = true;
+    target.abort();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      if (aborted) {
+        run = null;
+      } else if (runs.isEmpty()) {
+        sortRun();
+        for (Entry<K> entry : run) {
+          target.write(entry.line());
+        }
+        run = null;
+      } else {
+        if (!run.isEmpty()) {
+          runs.add(writeRun());
+        }
+        run = null;
+        mergeRuns();
+      }
+    } finally {
+      try {
+        deleteTempDirectory();
+      } finally {
+        target.close();
+      }
+    }
+  }
+
+  private void mergeRuns() throws IOException {
+    // Каждый проход сливает соседние группы серий, поэтому порядок серий и устойчивость сохраняются
+    List<Path> pending = new ArrayList<>(runs);
+    while (pending.size() > fanIn) {
+      List<Path> merged = new ArrayList<>();
+      for (int from = 0; from < pending.size(); from += fanIn) {
+        List<Path> group = pending.subList(from, Math.min(from + fanIn, pending.size()));
+        if (group.size() == 1) {
+          merged.add(group.get(0));
+          continue;
+        }
+        Path output = Files.createTempFile(tempDirectory, "merged", ".txt");
+        try (BufferedWriter writer = newWriter(output)) {
+          merge(group, line -> {
+            writer.write(line);
+            writer.newLine();
+          });
+        }
+        for (Path run : group) {
+          Files.delete(run);
+        }
+        merged.add(output);
+      }
+      pending = merged;
+    }
+    merge(pending, target::write);
+  }
+
+  private void merge(List<Path> group, LineWriter writer) throws IOException {
+    PriorityQueue<RunReader<K>> heads = new PriorityQueue<>(
+        Comparator.<RunReader<K>, K>comparing(reader -> reader.key, order).thenComparingInt(reader -> reader.index));
+    List<RunReader<K>> readers = new ArrayList<>();
+    try {
+      for (int i = 0; i < group.size(); i++) {
+        RunReader<K> reader = new RunReader<>(Files.newBufferedReader(group.get(i), StandardCharsets.UTF_8), i);
+        readers.add(reader);
+        if (reader.advance(key)) {
+          heads.add(reader);
+        }
+      }
+      RunReader<K> head;
+      while ((head = heads.poll()) != null) {
+        writer.write(head.line);
+        if (head.advance(key)) {
+          heads.add(head);
+        }
+      }
+    } finally {
+      for (RunReader<K> reader : readers) {
+        reader.reader.close();
+      }
+    }
+  }
+
+  private Path writeRun() throws IOException {
+    sortRun();
+    if (tempDirectory == null) {
+      tempDirectory = Files.createTempDirectory(tempParent, ".sort");
+    }
+    Path file = Files.createTempFile(tempDirectory, "run", ".txt");
+    try (BufferedWriter writer = newWriter(file)) {
+      for (Entry<K> entry : run) {
+        writer.write(entry.line());
+        writer.newLine();
+      }
+    }
+    run = new ArrayList<>();
+    bufferedBytes = 0;
+    return file;
+  }
+
+  private void sortRun() {
+    run.sort(Comparator.comparing(Entry::key, order));
+  }
+
+  private void deleteTempDirectory() throws IOException {
+    if (tempDirectory == null) {
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(tempDirectory)) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+
+  private static BufferedWriter newWriter(Path file) throws IOException {
+    return new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), STREAM_BUFFER_SIZE);
+  }
+
+  private record Entry<K>(String line, K key) {
+  }
+
+  private interface LineWriter {
+    void write(String line) throws IOException;
+  }
+
+  // Текущая строка серии при слиянии; index – номер серии для устойчивости при равных ключах
+  private static class RunReader<K> {
+    private final BufferedReader reader;
+    private final int index;
+    private String line;
+    private K key;
+
+    private RunReader(BufferedReader reader, int index) {
+      this.reader = reader;
+      this.index = index;
+    }
+
+    private boolean advance(Function<String, K> keyFunction) throws IOException {
+      line = reader.readLine();
+      if (line == null) {
+        return false;
+      }
+      key = keyFunction.apply(line);
+      return true;
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package com.mami.statistics;
+
+import java.util.function.Function;
+
+/**
+ * Статистика подключаемой категории: количество, минимальное и максимальное значение в естественном порядке.
+ * Значения-числа попадают и в машиночитаемый снимок. Для продолжения из файлов состояния минимум и максимум
+ * хранятся в снимке текстом и разбираются обратно функцией valueParser.
+ */
+public class CategoryStatisticsImpl<T extends Comparable<? super T>> implements Stats<T> {
+  private final String label;
+  private final Function<String, T> valueParser;
+
+  private long count;
+  private T min;
+  private T max;
+
+  // valueParser – обратное к toString() значения преобразование
+  public CategoryStatisticsImpl(String label, Function<String, T> valueParser) {
+    this.label = label;
+    this.valueParser = valueParser;
+  }
+
+  @Override
+  public void updateStats(T value) {
+    count++;
+    updateRange(value);
+  }
+
+  private void updateRange(T value) {
+    if (min == null || value.compareTo(min) < 0) {
+      min = value;
+    }
+    if (max == null || value.compareTo(max) > 0) {
+      max = value;
+    }
+  }
+
+  @Override
+  public void merge(Stats<T> other) {
+    if (!(other instanceof CategoryStatisticsImpl<T> stats)) {
+      throw new IllegalArgumentException("Нельзя объединить со статистикой " + other.getClass().getName());
+    }
+    if (stats.count == 0) {
+      return;
+    }
+    count += stats.count;
+    if (min == null || stats.min.compareTo(min) < 0) {
+      min = stats.min;
+    }
+    if (max == null || stats.max.compareTo(max) > 0) {
+      max = stats.max;
+    }
+  }
+
+  @Override
+  public CategoryStatisticsImpl<T> createEmpty() {
+    return new CategoryStatisticsImpl<>(label, valueParser);
+  }
+
+  @Override
+  public StatsSnapshot snapshot() {
+    return StatsSnapshot.ofValues(count, min instanceof Number number ? number : null,
+        max instanceof Number number ? number : null, min == null ? null : min.toString(),
+        max == null ? null : max.toString());
+  }
+
+  @Override
+  public void restore(StatsSnapshot snapshot) {
+    count += snapshot.count();
+    if (snapshot.minValue() != null) {
+      updateRange(valueParser.apply(snapshot.minValue()));
+    }
+    if (snapshot.maxValue() != null) {
+      updateRange(valueParser.apply(snapshot.maxValue()));
+    }
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public T getMin() {
+    return min;
+  }
+
+  public T getMax() {
+    return max;
+  }
+
+  @Override
+  public void printShortStats() {
+    System.out.println(label + ": " + count);
+  }
+
+  @Override
+  public void printFullStats() {
+    printShortStats();
+    if (min == null) {
+      return;
+    }
+    if (min.compareTo(max) == 0) {
+      System.out.println("  Все значения одинаковы: " + min);
+    } else {
+      System.out.println("  Минимальное: " + min);
+      System.out.println("  Максимальное: " + max);
+    }
+  }
+}
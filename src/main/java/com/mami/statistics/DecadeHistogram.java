@@ -0,0 +1,103 @@
+package com.mami.statistics;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Гистограмма с фиксированными корзинами по десятичным порядкам: [1; 1e1), [1e1; 1e2), ... и симметрично
+ * для отрицательных чисел. Порядки за пределами [MIN_EXPONENT; MAX_EXPONENT] попадают в крайние корзины,
+ * поэтому размер гистограммы постоянный, а объединение – поэлементное сложение.
+ */
+public class DecadeHistogram {
+  public static final int MIN_EXPONENT = -30;
+  public static final int MAX_EXPONENT = 30;
+
+  private static final int EXPONENTS = MAX_EXPONENT - MIN_EXPONENT + 1;
+  private static final int ZERO = EXPONENTS;
+
+  // [0, EXPONENTS) – отрицательные по убыванию модуля, ZERO – ноль, выше – положительные по возрастанию
+  private final long[] counts = new long[2 * EXPONENTS + 1];
+
+  public void add(long value) {
+    if (value == 0) {
+      counts[ZERO]++;
+      return;
+    }
+    // Модуль Long.MIN_VALUE не помещается в long, но его порядок тот же, что у Long.MAX_VALUE
+    long abs = value == Long.MIN_VALUE ? Long.MAX_VALUE : Math.abs(value);
+    int exponent = 0;
+    while (abs >= 10) {
+      abs /= 10;
+      exponent++;
+    }
+    add(value > 0 ? 1 : -1, exponent);
+  }
+
+  public void add(BigInteger value) {
+    if (value.bitLength() < Long.SIZE) {
+      add(value.longValue());
+    } else {
+      add(new BigDecimal(value));
+    }
+  }
+
+  public void add(BigDecimal value) {
+    if (value.signum() == 0) {
+      counts[ZERO]++;
+      return;
+    }
+    // Для ненулевого значения precision - scale - 1 равно floor(log10(|value|))
+    add(value.signum(), value.precision() - value.scale() - 1);
+  }
+
+  public void merge(DecadeHistogram other) {
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] += other.counts[i];
+    }
+  }
+
+  // Обходит непустые корзины по возрастанию значений: подпись корзины и количество
+  public void forEachBucket(BiConsumer<String, Long> action) {
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] != 0) {
+        action.accept(label(i), counts[i]);
+      }
+    }
+  }
+
+  long count(int signum, int exponent) {
+    return counts[index(signum, exponent)];
+  }
+
+  private void add(int signum, int exponent) {
+    counts[index(signum, exponent)]++;
+  }
+
+  private static int index(int signum, int exponent) {
+    if (signum == 0) {
+      return ZERO;
+    }
+    int offset = Math.max(MIN_EXPONENT, Math.min(MAX_EXPONENT, exponent)) - MIN_EXPONENT;
+    return signum > 0 ? ZERO + 1 + offset : ZERO - 1 - offset;
+  }
+
+  private static String label(int index) {
+    if (index == ZERO) {
+      return "0";
+    }
+    int offset = index > ZERO ? index - ZERO - 1 : ZERO - 1 - index;
+    int exponent = offset + MIN_EXPONENT;
+    String lower = exponent == MIN_EXPONENT ? "0" : power(exponent);
+    String upper = exponent == MAX_EXPONENT ? "∞" : power(exponent + 1);
+    if (index > ZERO) {
+      return (exponent == MIN_EXPONENT ? "(" : "[") + lower + "; " + upper + ")";
+    }
+    return "(" + (exponent == MAX_EXPONENT ? "-∞" : "-" + upper) + "; " + (exponent == MIN_EXPONENT ? "0" : "-" + lower)
+        + (exponent == MIN_EXPONENT ? ")" : "]");
+  }
+
+  private static String power(int exponent) {
+    return exponent == 0 ? "1" : "1e" + exponent;
+  }
+}
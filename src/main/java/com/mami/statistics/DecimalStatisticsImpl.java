@@ -8,7 +8,10 @@ public class DecimalStatisticsImpl implements Stats<BigDecimal> {
   private BigDecimal sum = BigDecimal.ZERO;
   private BigDecimal min = null;
   private BigDecimal max = null;
+  // Вычисляется из суммы и количества при первом обращении и сбрасывается при изменении статистики
   private BigDecimal average = null;
+  // Приближённое распределение, собирается только после enableQuantiles()
+  private Distribution distribution;
 
   @Override
   public void updateStats(BigDecimal value) {
@@ -20,7 +23,66 @@ public class DecimalStatisticsImpl implements Stats<BigDecimal> {
     if (max == null || value.compareTo(max) > 0) {
       max = value;
     }
-    average = (count == 0) ? null : sum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    average = null;
+    if (distribution != null) {
+      distribution.add(value);
+    }
+  }
+
+  @Override
+  public void merge(Stats<BigDecimal> other) {
+    if (!(other instanceof DecimalStatisticsImpl stats)) {
+      throw new IllegalArgumentException("Нельзя объединить со статистикой " + other.getClass().getName());
+    }
+    if (stats.count == 0) {
+      return;
+    }
+    count += stats.count;
+    sum = sum.add(stats.sum);
+    if (min == null || stats.min.compareTo(min) < 0) {
+      min = stats.min;
+    }
+    if (max == null || stats.max.compareTo(max) > 0) {
+      max = stats.max;
+    }
+    average = null;
+    if (distribution != null && stats.distribution != null) {
+      distribution.merge(stats.distribution);
+    }
+  }
+
+  @Override
+  public DecimalStatisticsImpl createEmpty() {
+    DecimalStatisticsImpl empty = new DecimalStatisticsImpl();
+    if (distribution != null) {
+      empty.enableQuantiles();
+    }
+    return empty;
+  }
+
+  @Override
+  public void enableQuantiles() {
+    if (distribution == null) {
+      distribution = new Distribution();
+    }
+  }
+
+  @Override
+  public StatsSnapshot snapshot() {
+    return StatsSnapshot.ofNumbers(count, min, max, sum, getAverage());
+  }
+
+  @Override
+  public void restore(StatsSnapshot snapshot) {
+    if (snapshot.count() == 0) {
+      return;
+    }
+    DecimalStatisticsImpl restored = new DecimalStatisticsImpl();
+    restored.count = snapshot.count();
+    restored.sum = new BigDecimal(snapshot.sum().toString());
+    restored.min = new BigDecimal(snapshot.min().toString());
+    restored.max = new BigDecimal(snapshot.max().toString());
+    merge(restored);
   }
 
   @Override
@@ -46,12 +108,20 @@ public class DecimalStatisticsImpl implements Stats<BigDecimal> {
           System.out.println("  Минимальное: " + min);
           System.out.println("  Максимальное: " + max);
           System.out.println("  Сумма: " + sum);
-          System.out.println("  Среднее: " + average);
+          System.out.println("  Среднее: " + getAverage());
+          if (distribution != null) {
+            distribution.print();
+          }
         }
       }
     }
   }
 
+  // Приближённый квантиль q или null, если квантили не собираются или значений не было
+  public Double getQuantile(double q) {
+    return distribution == null || count == 0 ? null : distribution.getSketch().quantile(q);
+  }
+
   public long getCount() {
     return count;
   }
@@ -69,6 +139,9 @@ public class DecimalStatisticsImpl implements Stats<BigDecimal> {
   }
 
   public BigDecimal getAverage() {
+    if (average == null && count > 0) {
+      average = sum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
     return average;
   }
 }
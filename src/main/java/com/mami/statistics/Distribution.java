@@ -0,0 +1,65 @@
+package com.mami.statistics;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+// Приближённое распределение числовых значений: квантили и гистограмма по порядкам
+class Distribution {
+  private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+  // Целые значения меньше этого порога печатаются без экспоненты
+  private static final double PLAIN_LIMIT = 1e15;
+
+  private final QuantileSketch sketch = new QuantileSketch();
+  private final DecadeHistogram histogram = new DecadeHistogram();
+
+  void add(long value) {
+    sketch.update(value);
+    histogram.add(value);
+  }
+
+  void add(BigInteger value) {
+    sketch.update(value.doubleValue());
+    histogram.add(value);
+  }
+
+  void add(BigDecimal value) {
+    sketch.update(value.doubleValue());
+    histogram.add(value);
+  }
+
+  void merge(Distribution other) {
+    sketch.merge(other.sketch);
+    histogram.merge(other.histogram);
+  }
+
+  QuantileSketch getSketch() {
+    return sketch;
+  }
+
+  DecadeHistogram getHistogram() {
+    return histogram;
+  }
+
+  void print() {
+    if (sketch.getCount() == 0) {
+      return;
+    }
+    StringBuilder line = new StringBuilder("  Квантили (приблизительно): ");
+    for (int i = 0; i < QUANTILES.length; i++) {
+      if (i > 0) {
+        line.append(", ");
+      }
+      line.append('p').append(Math.round(QUANTILES[i] * 100)).append('=').append(format(sketch.quantile(QUANTILES[i])));
+    }
+    System.out.println(line);
+    System.out.println("  Гистограмма по порядкам:");
+    histogram.forEachBucket((label, count) -> System.out.println("    " + label + ": " + count));
+  }
+
+  static String format(double value) {
+    if (value == Math.rint(value) && Math.abs(value) < PLAIN_LIMIT) {
+      return Long.toString((long) value);
+    }
+    return Double.toString(value);
+  }
+}
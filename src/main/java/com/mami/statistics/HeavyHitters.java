@@ -0,0 +1,92 @@
+package com.mami.statistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Самые частые строки с ограниченной памятью (алгоритм Мисры–Гриса). Хранится не больше capacity счётчиков.
+ * Когда для новой строки нет места, все счётчики уменьшаются на единицу и нулевые удаляются. Каждый счётчик
+ * занижает истинную частоту не больше чем на getError(), а строка с частотой выше n / (capacity + 1)
+ * гарантированно остаётся среди счётчиков. Объединение складывает счётчики и снова урезает их до capacity.
+ */
+public class HeavyHitters {
+  private final int capacity;
+  private final Map<String, long[]> counters = new HashMap<>();
+  // Сколько раз счётчики уменьшались – верхняя граница занижения каждого из них
+  private long error;
+
+  public HeavyHitters(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Количество счётчиков должно быть положительным: " + capacity);
+    }
+    this.capacity = capacity;
+  }
+
+  public void add(String value) {
+    long[] counter = counters.get(value);
+    if (counter != null) {
+      counter[0]++;
+    } else if (counters.size() < capacity) {
+      counters.put(value, new long[] {1});
+    } else {
+      // Новая строка и все счётчики уменьшаются на единицу; строка при этом не сохраняется
+      decrement(1);
+    }
+  }
+
+  public void merge(HeavyHitters other) {
+    for (Map.Entry<String, long[]> entry : other.counters.entrySet()) {
+      long[] counter = counters.get(entry.getKey());
+      if (counter != null) {
+        counter[0] += entry.getValue()[0];
+      } else {
+        counters.put(entry.getKey(), new long[] {entry.getValue()[0]});
+      }
+    }
+    error += other.error;
+    if (counters.size() > capacity) {
+      long[] counts = new long[counters.size()];
+      int i = 0;
+      for (long[] counter : counters.values()) {
+        counts[i++] = counter[0];
+      }
+      Arrays.sort(counts);
+      // Вычитается (capacity + 1)-й по величине счётчик, после чего остаётся не больше capacity счётчиков
+      decrement(counts[counts.length - capacity - 1]);
+    }
+  }
+
+  public HeavyHitters createEmpty() {
+    return new HeavyHitters(capacity);
+  }
+
+  // До limit строк с наибольшими счётчиками по убыванию; счётчик – нижняя оценка частоты
+  public List<Map.Entry<String, Long>> top(int limit) {
+    List<Map.Entry<String, Long>> entries = new ArrayList<>(counters.size());
+    for (Map.Entry<String, long[]> entry : counters.entrySet()) {
+      entries.add(Map.entry(entry.getKey(), entry.getValue()[0]));
+    }
+    entries.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+    return entries.subList(0, Math.min(limit, entries.size()));
+  }
+
+  public long getError() {
+    return error;
+  }
+
+  private void decrement(long amount) {
+    error += amount;
+    Iterator<long[]> iterator = counters.values().iterator();
+    while (iterator.hasNext()) {
+      long[] counter = iterator.next();
+      counter[0] -= amount;
+      if (counter[0] <= 0) {
+        iterator.remove();
+      }
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package com.mami.statistics;
+
+/**
+ * Приближённое количество различных строк (HyperLogLog). Хэш строки делится на номер регистра (старшие биты)
+ * и остаток, в регистре хранится максимальная позиция первой единицы остатка. Память постоянная – 2^precision байт,
+ * относительная погрешность около 1.04 / sqrt(2^precision). Объединение – поэлементный максимум регистров.
+ */
+public class HyperLogLog {
+  public static final int DEFAULT_PRECISION = 14;
+
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private final int precision;
+  private final byte[] registers;
+
+  public HyperLogLog() {
+    this(DEFAULT_PRECISION);
+  }
+
+  public HyperLogLog(int precision) {
+    if (precision < 4 || precision > 18) {
+      throw new IllegalArgumentException("Точность должна быть от 4 до 18: " + precision);
+    }
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  public void add(String value) {
+    long hash = hash(value);
+    int index = (int) (hash >>> (Long.SIZE - precision));
+    // Единица в младшей части ограничивает ранг, если все оставшиеся биты нулевые
+    int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+    if (rank > registers[index]) {
+      registers[index] = (byte) rank;
+    }
+  }
+
+  public void merge(HyperLogLog other) {
+    if (other.precision != precision) {
+      throw new IllegalArgumentException("Нельзя объединить HyperLogLog с разной точностью: "
+          + precision + " и " + other.precision);
+    }
+    for (int i = 0; i < registers.length; i++) {
+      if (other.registers[i] > registers[i]) {
+        registers[i] = other.registers[i];
+      }
+    }
+  }
+
+  public HyperLogLog createEmpty() {
+    return new HyperLogLog(precision);
+  }
+
+  public long estimate() {
+    int m = registers.length;
+    double sum = 0;
+    int zeros = 0;
+    for (byte register : registers) {
+      sum += 1.0 / (1L << register);
+      if (register == 0) {
+        zeros++;
+      }
+    }
+    double alpha = 0.7213 / (1 + 1.079 / m);
+    double estimate = alpha * m * m / sum;
+    // На малых количествах точнее линейный подсчёт по пустым регистрам
+    if (estimate <= 2.5 * m && zeros > 0) {
+      estimate = m * Math.log((double) m / zeros);
+    }
+    return Math.round(estimate);
+  }
+
+  // FNV-1a по символам с перемешиванием из MurmurHash3, чтобы старшие биты зависели от всей строки
+  static long hash(String value) {
+    long hash = FNV_OFFSET;
+    for (int i = 0; i < value.length(); i++) {
+      hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
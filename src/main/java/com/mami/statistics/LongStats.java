@@ -0,0 +1,5 @@
+package com.mami.statistics;
+
+public interface LongStats {
+  void updateStats(long value);
+}
@@ -2,28 +2,135 @@ package com.mami.statistics;
 
 import java.math.BigInteger;
 
-public class NumberStatisticsImpl implements Stats<BigInteger> {
+public class NumberStatisticsImpl implements Stats<BigInteger>, LongStats {
   private long count;
-  private BigInteger sum = BigInteger.ZERO;
-  private BigInteger min = null;
-  private BigInteger max = null;
+
+  // Пока сумма помещается в long, она копится в longSum; при переполнении longSum переносится в bigSum
+  private long longSum;
+  private BigInteger bigSum = BigInteger.ZERO;
+
+  // Значения, помещающиеся в long, и значения за его пределами учитываются раздельно
+  private boolean hasLongValues;
+  private long longMin;
+  private long longMax;
+  private BigInteger bigMin = null;
+  private BigInteger bigMax = null;
+
+  // Вычисляется из суммы и количества при первом обращении и сбрасывается при изменении статистики
   private BigInteger average = null;
 
+  // Приближённое распределение, собирается только после enableQuantiles()
+  private Distribution distribution;
+
   @Override
   public void updateStats(BigInteger value) {
 
     if (value == null) {
       return;
     }
+    if (value.bitLength() < Long.SIZE) {
+      updateStats(value.longValue());
+      return;
+    }
+    count++;
+    average = null;
+    bigSum = bigSum.add(value);
+    if (distribution != null) {
+      distribution.add(value);
+    }
+    if (bigMin == null || value.compareTo(bigMin) < 0) {
+      bigMin = value;
+    }
+    if (bigMax == null || value.compareTo(bigMax) > 0) {
+      bigMax = value;
+    }
+  }
+
+  @Override
+  public void updateStats(long value) {
     count++;
-    sum = sum.add(value);
-    if (min == null || value.compareTo(min) < 0) {
-      min = value;
+    average = null;
+    addToSum(value);
+    if (distribution != null) {
+      distribution.add(value);
+    }
+    if (!hasLongValues) {
+      hasLongValues = true;
+      longMin = value;
+      longMax = value;
+    } else if (value < longMin) {
+      longMin = value;
+    } else if (value > longMax) {
+      longMax = value;
+    }
+  }
+
+  @Override
+  public void merge(Stats<BigInteger> other) {
+    if (!(other instanceof NumberStatisticsImpl stats)) {
+      throw new IllegalArgumentException("Нельзя объединить со статистикой " + other.getClass().getName());
+    }
+    if (stats.count == 0) {
+      return;
+    }
+    count += stats.count;
+    average = null;
+    addToSum(stats.longSum);
+    bigSum = bigSum.add(stats.bigSum);
+    if (stats.hasLongValues) {
+      if (!hasLongValues) {
+        hasLongValues = true;
+        longMin = stats.longMin;
+        longMax = stats.longMax;
+      } else {
+        longMin = Math.min(longMin, stats.longMin);
+        longMax = Math.max(longMax, stats.longMax);
+      }
+    }
+    if (stats.bigMin != null && (bigMin == null || stats.bigMin.compareTo(bigMin) < 0)) {
+      bigMin = stats.bigMin;
+    }
+    if (stats.bigMax != null && (bigMax == null || stats.bigMax.compareTo(bigMax) > 0)) {
+      bigMax = stats.bigMax;
     }
-    if (max == null || value.compareTo(max) > 0) {
-      max = value;
+    if (distribution != null && stats.distribution != null) {
+      distribution.merge(stats.distribution);
     }
-    average = (count == 0) ? null : sum.divide(BigInteger.valueOf(count));
+  }
+
+  @Override
+  public NumberStatisticsImpl createEmpty() {
+    NumberStatisticsImpl empty = new NumberStatisticsImpl();
+    if (distribution != null) {
+      empty.enableQuantiles();
+    }
+    return empty;
+  }
+
+  @Override
+  public void enableQuantiles() {
+    if (distribution == null) {
+      distribution = new Distribution();
+    }
+  }
+
+  @Override
+  public StatsSnapshot snapshot() {
+    return StatsSnapshot.ofNumbers(count, getMin(), getMax(), getSum(), getAverage());
+  }
+
+  @Override
+  public void restore(StatsSnapshot snapshot) {
+    if (snapshot.count() == 0) {
+      return;
+    }
+    NumberStatisticsImpl restored = new NumberStatisticsImpl();
+    restored.updateStats(new BigInteger(snapshot.min().toString()));
+    restored.updateStats(new BigInteger(snapshot.max().toString()));
+    restored.count = snapshot.count();
+    restored.longSum = 0;
+    restored.bigSum = new BigInteger(snapshot.sum().toString());
+    merge(restored);
   }
 
   @Override
@@ -36,6 +143,8 @@ public class NumberStatisticsImpl implements Stats<BigInteger> {
     if (count == 0) {
       printShortStats();
     } else {
+      BigInteger min = getMin();
+      BigInteger max = getMax();
       if (count == 1) {
         printShortStats();
         System.out.println("  Всего однo целое число: " + min);
@@ -43,34 +152,62 @@ public class NumberStatisticsImpl implements Stats<BigInteger> {
         printShortStats();
         if (min.equals(max)) {
           System.out.println("  Все целые числа одинаковы: " + min);
-          System.out.println("  Сумма: " + sum);
+          System.out.println("  Сумма: " + getSum());
         } else {
           System.out.println("  Минимальное: " + min);
           System.out.println("  Максимальное: " + max);
-          System.out.println("  Сумма: " + sum);
-          System.out.println("  Среднее: " + average);
+          System.out.println("  Сумма: " + getSum());
+          System.out.println("  Среднее: " + getAverage());
+          if (distribution != null) {
+            distribution.print();
+          }
         }
       }
     }
   }
 
+  // Приближённый квантиль q или null, если квантили не собираются или значений не было
+  public Double getQuantile(double q) {
+    return distribution == null || count == 0 ? null : distribution.getSketch().quantile(q);
+  }
+
   public long getCount() {
     return count;
   }
 
   public BigInteger getAverage() {
+    if (average == null && count > 0) {
+      average = getSum().divide(BigInteger.valueOf(count));
+    }
     return average;
   }
 
   public BigInteger getSum() {
-    return sum;
+    return bigSum.add(BigInteger.valueOf(longSum));
   }
 
   public BigInteger getMin() {
-    return min;
+    if (!hasLongValues) {
+      return bigMin;
+    }
+    BigInteger min = BigInteger.valueOf(longMin);
+    return (bigMin != null && bigMin.compareTo(min) < 0) ? bigMin : min;
   }
 
   public BigInteger getMax() {
-    return max;
+    if (!hasLongValues) {
+      return bigMax;
+    }
+    BigInteger max = BigInteger.valueOf(longMax);
+    return (bigMax != null && bigMax.compareTo(max) > 0) ? bigMax : max;
+  }
+
+  private void addToSum(long value) {
+    try {
+      longSum = Math.addExact(longSum, value);
+    } catch (ArithmeticException e) {
+      bigSum = bigSum.add(BigInteger.valueOf(longSum));
+      longSum = value;
+    }
   }
 }
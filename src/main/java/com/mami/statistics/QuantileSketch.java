@@ -0,0 +1,176 @@
+package com.mami.statistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Приближённые квантили с ограниченной памятью (схема KLL). Значения хранятся по уровням: элемент уровня h
+ * представляет 2^h исходных значений. Переполненный уровень сортируется, и каждый второй его элемент переходит
+ * на следующий уровень. Ёмкость уровней убывает вниз геометрически, поэтому хранится O(k) значений, а ошибка
+ * ранга порядка 1/k. Скетчи объединяются слиянием уровней, поэтому частичные результаты потоков можно складывать.
+ */
+public class QuantileSketch {
+  public static final int DEFAULT_K = 200;
+
+  private static final double DECAY = 2.0 / 3.0;
+  private static final int MIN_LEVEL_CAPACITY = 8;
+
+  private final int k;
+  private final List<Level> levels = new ArrayList<>();
+  // Фиксированное зерно: при одинаковом порядке значений результат воспроизводим
+  private final SplittableRandom random = new SplittableRandom(0x6b6c6cL);
+
+  private long count;
+  private int retained;
+
+  public QuantileSketch() {
+    this(DEFAULT_K);
+  }
+
+  public QuantileSketch(int k) {
+    if (k < MIN_LEVEL_CAPACITY) {
+      throw new IllegalArgumentException("Параметр k должен быть не меньше " + MIN_LEVEL_CAPACITY + ": " + k);
+    }
+    this.k = k;
+    levels.add(new Level());
+  }
+
+  public void update(double value) {
+    levels.get(0).add(value);
+    count++;
+    retained++;
+    if (retained >= capacity()) {
+      compress();
+    }
+  }
+
+  public void merge(QuantileSketch other) {
+    if (other.count == 0) {
+      return;
+    }
+    while (levels.size() < other.levels.size()) {
+      levels.add(new Level());
+    }
+    for (int h = 0; h < other.levels.size(); h++) {
+      Level source = other.levels.get(h);
+      Level target = levels.get(h);
+      for (int i = 0; i < source.size; i++) {
+        target.add(source.values[i]);
+      }
+      retained += source.size;
+    }
+    count += other.count;
+    while (retained >= capacity()) {
+      compress();
+    }
+  }
+
+  public QuantileSketch createEmpty() {
+    return new QuantileSketch(k);
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  // Значение, не меньше которого доля q всех учтённых значений; NaN, если значений не было
+  public double quantile(double q) {
+    if (q < 0 || q > 1) {
+      throw new IllegalArgumentException("Квантиль должен быть от 0 до 1: " + q);
+    }
+    if (count == 0) {
+      return Double.NaN;
+    }
+    double[] values = new double[retained];
+    long[] weights = new long[retained];
+    int n = 0;
+    for (int h = 0; h < levels.size(); h++) {
+      Level level = levels.get(h);
+      for (int i = 0; i < level.size; i++) {
+        values[n] = level.values[i];
+        weights[n] = 1L << h;
+        n++;
+      }
+    }
+    Integer[] order = new Integer[n];
+    for (int i = 0; i < n; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+    long total = 0;
+    for (long weight : weights) {
+      total += weight;
+    }
+    double rank = q * total;
+    long cumulative = 0;
+    for (int index : order) {
+      cumulative += weights[index];
+      if (cumulative >= rank) {
+        return values[index];
+      }
+    }
+    return values[order[n - 1]];
+  }
+
+  int getRetained() {
+    return retained;
+  }
+
+  private int capacity() {
+    int capacity = 0;
+    for (int h = 0; h < levels.size(); h++) {
+      capacity += levelCapacity(h);
+    }
+    return capacity;
+  }
+
+  private int levelCapacity(int level) {
+    int depth = levels.size() - level - 1;
+    return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(DECAY, depth)));
+  }
+
+  // Сжимает самый нижний переполненный уровень
+  private void compress() {
+    for (int h = 0; h < levels.size(); h++) {
+      if (levels.get(h).size >= levelCapacity(h)) {
+        if (h + 1 == levels.size()) {
+          levels.add(new Level());
+        }
+        compact(levels.get(h), levels.get(h + 1));
+        return;
+      }
+    }
+  }
+
+  private void compact(Level level, Level next) {
+    Arrays.sort(level.values, 0, level.size);
+    // При нечётном размере наибольший элемент остаётся на уровне
+    int pairs = level.size / 2;
+    int offset = random.nextBoolean() ? 1 : 0;
+    for (int i = 0; i < pairs; i++) {
+      next.add(level.values[2 * i + offset]);
+    }
+    if (level.size % 2 == 1) {
+      level.values[0] = level.values[level.size - 1];
+      level.size = 1;
+    } else {
+      level.size = 0;
+    }
+    retained -= pairs;
+  }
+
+  private static class Level {
+    private double[] values = new double[MIN_LEVEL_CAPACITY];
+    private int size;
+
+    private void add(double value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+  }
+}
@@ -3,6 +3,25 @@ package com.mami.statistics;
 public interface Stats<T> {
   void updateStats(T value);
 
+  // Добавляет к этой статистике значения, учтённые в other после значений этой статистики.
+  // Операция ассоциативна, поэтому частичные статистики можно объединять в любом порядке группировки.
+  void merge(Stats<T> other);
+
+  Stats<T> createEmpty();
+
+  // Включает сбор приближённых квантилей и гистограммы для полной статистики; по умолчанию не поддерживается
+  default void enableQuantiles() {
+  }
+
+  // Включает приближённый подсчёт различных значений и topCount самых частых для полной статистики
+  default void enableFrequencies(int topCount) {
+  }
+
+  StatsSnapshot snapshot();
+
+  // Добавляет к статистике значения, описанные снимком (например, сохранённым после прошлого запуска)
+  void restore(StatsSnapshot snapshot);
+
   void printShortStats();
 
   void printFullStats();
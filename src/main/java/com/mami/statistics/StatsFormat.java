@@ -0,0 +1,8 @@
+package com.mami.statistics;
+
+public enum StatsFormat {
+  // Один JSON-объект с категориями в качестве ключей
+  JSON,
+  // Заголовок и по строке на категорию
+  CSV
+}
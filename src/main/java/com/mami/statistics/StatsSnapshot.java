@@ -0,0 +1,28 @@
+package com.mami.statistics;
+
+/**
+ * Неизменяемый снимок статистики для машиночитаемого вывода.
+ * У чисел заполнены min, max, sum и average, у строк – minLength и maxLength; отсутствующие значения равны null.
+ * minValue и maxValue – текстовый вид минимума и максимума подключаемой категории, они нужны только для
+ * продолжения статистики из файлов состояния.
+ */
+public record StatsSnapshot(long count, Number min, Number max, Number sum, Number average, Integer minLength,
+                            Integer maxLength, String minValue, String maxValue) {
+
+  public StatsSnapshot(long count, Number min, Number max, Number sum, Number average, Integer minLength,
+                       Integer maxLength) {
+    this(count, min, max, sum, average, minLength, maxLength, null, null);
+  }
+
+  public static StatsSnapshot ofNumbers(long count, Number min, Number max, Number sum, Number average) {
+    return new StatsSnapshot(count, min, max, sum, average, null, null);
+  }
+
+  public static StatsSnapshot ofText(long count, Integer minLength, Integer maxLength) {
+    return new StatsSnapshot(count, null, null, null, null, minLength, maxLength);
+  }
+
+  public static StatsSnapshot ofValues(long count, Number min, Number max, String minValue, String maxValue) {
+    return new StatsSnapshot(count, min, max, null, null, null, null, minValue, maxValue);
+  }
+}
@@ -0,0 +1,69 @@
+package com.mami.statistics;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Запись снимков статистики в JSON или CSV напрямую в Appendable, без сборки всего отчёта в памяти
+public final class StatsWriter {
+  private static final String CSV_HEADER = "category,count,min,max,sum,average,min_length,max_length";
+
+  private StatsWriter() {
+  }
+
+  // Ключи – названия категорий, порядок вывода совпадает с порядком обхода
+  public static void write(Appendable out, StatsFormat format, Map<String, StatsSnapshot> snapshots)
+      throws IOException {
+    if (format == StatsFormat.CSV) {
+      writeCsv(out, snapshots);
+    } else {
+      writeJson(out, snapshots);
+    }
+  }
+
+  private static void writeJson(Appendable out, Map<String, StatsSnapshot> snapshots) throws IOException {
+    out.append('{');
+    boolean first = true;
+    for (Map.Entry<String, StatsSnapshot> entry : snapshots.entrySet()) {
+      out.append(first ? "\n" : ",\n");
+      first = false;
+      StatsSnapshot snapshot = entry.getValue();
+      out.append("  \"").append(entry.getKey()).append("\": {\"count\": ").append(Long.toString(snapshot.count()));
+      jsonField(out, "min", snapshot.min());
+      jsonField(out, "max", snapshot.max());
+      jsonField(out, "sum", snapshot.sum());
+      jsonField(out, "average", snapshot.average());
+      jsonField(out, "minLength", snapshot.minLength());
+      jsonField(out, "maxLength", snapshot.maxLength());
+      out.append('}');
+    }
+    out.append(first ? "}\n" : "\n}\n");
+  }
+
+  private static void jsonField(Appendable out, String name, Number value) throws IOException {
+    if (value != null) {
+      out.append(", \"").append(name).append("\": ").append(value.toString());
+    }
+  }
+
+  private static void writeCsv(Appendable out, Map<String, StatsSnapshot> snapshots) throws IOException {
+    out.append(CSV_HEADER).append('\n');
+    for (Map.Entry<String, StatsSnapshot> entry : snapshots.entrySet()) {
+      StatsSnapshot snapshot = entry.getValue();
+      out.append(entry.getKey()).append(',').append(Long.toString(snapshot.count()));
+      csvField(out, snapshot.min());
+      csvField(out, snapshot.max());
+      csvField(out, snapshot.sum());
+      csvField(out, snapshot.average());
+      csvField(out, snapshot.minLength());
+      csvField(out, snapshot.maxLength());
+      out.append('\n');
+    }
+  }
+
+  private static void csvField(Appendable out, Number value) throws IOException {
+    out.append(',');
+    if (value != null) {
+      out.append(value.toString());
+    }
+  }
+}
@@ -1,10 +1,20 @@
 package com.mami.statistics;
 
+import java.util.Map;
+
 public class TextStatisticsImpl implements Stats<String> {
+  // Счётчиков частых строк больше, чем выводится, чтобы ошибка оценки была мала относительно частот
+  private static final int COUNTERS_PER_TOP_VALUE = 100;
+
   private long count;
   private int min = Integer.MAX_VALUE;
   private int max = Integer.MIN_VALUE;
 
+  // Собираются только после enableFrequencies()
+  private int topCount;
+  private HyperLogLog distinct;
+  private HeavyHitters topValues;
+
   @Override
   public void updateStats(String str) {
     if (str.isEmpty()) {
@@ -13,6 +23,65 @@ public class TextStatisticsImpl implements Stats<String> {
     count++;
     min = Math.min(min, str.length());
     max = Math.max(max, str.length());
+    if (distinct != null) {
+      distinct.add(str);
+      topValues.add(str);
+    }
+  }
+
+  @Override
+  public void merge(Stats<String> other) {
+    if (!(other instanceof TextStatisticsImpl stats)) {
+      throw new IllegalArgumentException("Нельзя объединить со статистикой " + other.getClass().getName());
+    }
+    count += stats.count;
+    min = Math.min(min, stats.min);
+    max = Math.max(max, stats.max);
+    if (distinct != null && stats.distinct != null) {
+      distinct.merge(stats.distinct);
+      topValues.merge(stats.topValues);
+    }
+  }
+
+  @Override
+  public TextStatisticsImpl createEmpty() {
+    TextStatisticsImpl empty = new TextStatisticsImpl();
+    if (distinct != null) {
+      empty.enableFrequencies(topCount);
+    }
+    return empty;
+  }
+
+  @Override
+  public void enableFrequencies(int topCount) {
+    if (topCount < 0) {
+      throw new IllegalArgumentException("Количество частых строк не может быть отрицательным: " + topCount);
+    }
+    this.topCount = topCount;
+    if (distinct == null) {
+      distinct = new HyperLogLog();
+      topValues = new HeavyHitters(Math.max(1, topCount) * COUNTERS_PER_TOP_VALUE);
+    }
+  }
+
+  @Override
+  public StatsSnapshot snapshot() {
+    if (count == 0) {
+      return StatsSnapshot.ofText(0, null, null);
+    }
+    return StatsSnapshot.ofText(count, min, max);
+  }
+
+  @Override
+  public void restore(StatsSnapshot snapshot) {
+    if (snapshot.count() == 0) {
+      return;
+    }
+    TextStatisticsImpl restored = new TextStatisticsImpl();
+    restored.count = snapshot.count();
+    restored.min = snapshot.minLength();
+    restored.max = snapshot.maxLength();
+    merge(restored);
   }
 
   @Override
@@ -37,10 +106,22 @@ public class TextStatisticsImpl implements Stats<String> {
           System.out.println("  Самая короткая строка: " + min);
           System.out.println("  Самая длинная строка: " + max);
         }
+        if (distinct != null) {
+          printFrequencies();
+        }
       }
     }
   }
 
+  // Приближённое количество различных строк или null, если оно не собирается
+  public Long getDistinctCount() {
+    return distinct == null ? null : distinct.estimate();
+  }
+
+  HeavyHitters getTopValues() {
+    return topValues;
+  }
+
   public long getCount() {
     return count;
   }
@@ -52,4 +133,16 @@ public class TextStatisticsImpl implements Stats<String> {
   public int getMax() {
     return max;
   }
+
+  private void printFrequencies() {
+    System.out.println("  Различных строк (приблизительно): " + distinct.estimate());
+    if (topCount == 0) {
+      return;
+    }
+    System.out.println("  Самые частые строки (количество не меньше указанного, и не больше чем на "
+        + topValues.getError() + "):");
+    for (Map.Entry<String, Long> entry : topValues.top(topCount)) {
+      System.out.println("    " + entry.getValue() + ": " + entry.getKey());
+    }
+  }
 }
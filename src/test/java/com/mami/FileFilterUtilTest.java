@@ -7,33 +7,67 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.mami.classifiers.Classifier;
+import com.mami.classifiers.ClassifierRegistry;
+import com.mami.columnar.ColumnarFile;
+import com.mami.columnar.NumericFormat;
+import com.mami.dedup.DedupOutputSink;
 import com.mami.exceptions.InvalidOutputDirectoryException;
 import com.mami.exceptions.MissingOutputDirectoryException;
+import com.mami.manifest.Checkpoint;
+import com.mami.metrics.MetricsFormat;
+import com.mami.output.FileOutputSink;
+import com.mami.output.FlushPolicy;
+import com.mami.processors.DecimalProcessorImpl;
 import com.mami.processors.FileProcessor;
+import com.mami.processors.NumberProcessorImpl;
+import com.mami.processors.TextProcessorImpl;
+import com.mami.statistics.CategoryStatisticsImpl;
+import com.mami.statistics.DecimalStatisticsImpl;
+import com.mami.statistics.NumberStatisticsImpl;
 import com.mami.statistics.Stats;
+import com.mami.statistics.StatsFormat;
+import com.mami.statistics.StatsSnapshot;
+import com.mami.statistics.TextStatisticsImpl;
 import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.DosFileAttributeView;
 import java.nio.file.attribute.DosFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.nio.file.attribute.PosixFilePermissions;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -60,9 +94,434 @@ class FileFilterUtilTest {
     fileFilterUtil =
         new FileFilterUtil(numberStatistics, decimalStatistics, textStatistics, numberProcessor, decimalProcessor,
             textProcessor);
+    fileFilterUtil.setCompatMode(true);
     fileFilterUtil.setInputFiles(Arrays.asList(new File("in1.txt"), new File("in2.txt")));
   }
 
+  @Test
+  public void testStandardInputIsFilteredAsStream(@TempDir Path outputDir) throws Exception {
+    fileFilterUtil.setCompatMode(false);
+    fileFilterUtil.setOutputDir(outputDir.toFile());
+    fileFilterUtil.setInputFiles(List.of(new File("-")));
+    InputStream stdin = System.in;
+    System.setIn(new ByteArrayInputStream("42\n1.5\nhello\n".getBytes(StandardCharsets.UTF_8)));
+    try {
+      assertEquals(0, fileFilterUtil.call());
+    } finally {
+      System.setIn(stdin);
+    }
+
+    assertEquals(List.of("42"), Files.readAllLines(outputDir.resolve("integers.txt")));
+    assertEquals(List.of("1.5"), Files.readAllLines(outputDir.resolve("floats.txt")));
+    assertEquals(List.of("hello"), Files.readAllLines(outputDir.resolve("strings.txt")));
+  }
+
+  @Test
+  public void testCompressedInputAndOutput(@TempDir Path outputDir, @TempDir Path inputDir) throws Exception {
+    Path input = inputDir.resolve("input.gz");
+    try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(input))) {
+      out.write("42\n1.5\nhello\n".getBytes(StandardCharsets.UTF_8));
+    }
+    fileFilterUtil.setCompatMode(false);
+    fileFilterUtil.setThreads(2);
+    fileFilterUtil.setCompressOutput(true);
+    fileFilterUtil.setOutputDir(outputDir.toFile());
+    fileFilterUtil.setInputFiles(List.of(input.toFile()));
+
+    assertEquals(0, fileFilterUtil.call());
+
+    try (InputStream in = new GZIPInputStream(Files.newInputStream(outputDir.resolve("integers.txt.gz")))) {
+      assertEquals("42\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+    }
+    assertFalse(Files.exists(outputDir.resolve("integers.txt")));
+  }
+
+  @Test
+  public void testDedupDropsRepeatedValues(@TempDir Path outputDir, @TempDir Path inputDir) throws Exception {
+    Path first = inputDir.resolve("first.txt");
+    Path second = inputDir.resolve("second.txt");
+    Files.writeString(first, "42\n1.5\nhello\n42\n");
+    Files.writeString(second, "7\nhello\n1.5\nworld\n42\n");
+    fileFilterUtil.setCompatMode(false);
+    fileFilterUtil.setDedup(true);
+    fileFilterUtil.setOutputDir(outputDir.toFile());
+    fileFilterUtil.setInputFiles(List.of(first.toFile(), second.toFile()));
+
+    assertEquals(0, fileFilterUtil.call());
+
+    assertEquals(List.of("42", "7"), Files.readAllLines(outputDir.resolve("integers.txt")));
+    assertEquals(List.of("1.5"), Files.readAllLines(outputDir.resolve("floats.txt")));
+    assertEquals(List.of("hello", "world"), Files.readAllLines(outputDir.resolve("strings.txt")));
+  }
+
+  @Test
+  public void testDedupMemoryBelowInitialFootprintIsRejected(@TempDir Path outputDir, @TempDir Path inputDir)
+      throws Exception {
+    Path input = Files.writeString(inputDir.resolve("input.txt"), "1\n2\n");
+    Files.writeString(outputDir.resolve("integers.txt"), "0\n");
+    FileFilterUtil util = newUtil(outputDir, new NumberStatisticsImpl(), input);
+    util.setDedup(true);
+    util.setDedupMemory(DedupOutputSink.MIN_MEMORY_LIMIT - 1);
+
+    assertEquals(2, util.call());
+    assertEquals(List.of("0"), Files.readAllLines(outputDir.resolve("integers.txt")));
+
+    util.setDedupMemory(DedupOutputSink.MIN_MEMORY_LIMIT);
+    assertEquals(0, util.call());
+    assertEquals(List.of("1", "2"), Files.readAllLines(outputDir.resolve("integers.txt")));
+  }
+
+  @Test
+  public void testSortOrdersEachCategory(@TempDir Path outputDir, @TempDir Path inputDir) throws Exception {
+    Path input = inputDir.resolve("input.txt");
+    Files.writeString(input, "42\n1.5\nhello\n7\n-0.5\nabc\n100\n1.25\n");
+    fileFilterUtil.setCompatMode(false);
+    fileFilterUtil.setSort(true);
+    fileFilterUtil.setOutputDir(outputDir.toFile());
+    fileFilterUtil.setInputFiles(List.of(input.toFile()));
+
+    assertEquals(0, fileFilterUtil.call());
+
+    assertEquals(List.of("7", "42", "100"), Files.readAllLines(outputDir.resolve("integers.txt")));
+    assertEquals(List.of("-0.5", "1.25", "1.5"), Files.readAllLines(outputDir.resolve("floats.txt")));
+    assertEquals(List.of("abc", "hello"), Files.readAllLines(outputDir.resolve("strings.txt")));
+  }
+
+  @Test
+  public void testIncrementalRunSkipsUnchangedAndReadsAppendedTail(@TempDir Path outputDir, @TempDir Path inputDir)
+      throws Exception {
+    Path first = Files.writeString(inputDir.resolve("first.txt"), "1\nhello\n");
+    Path second = Files.writeString(inputDir.resolve("second.txt"), "2\n1.5\n");
+    FileFilterUtil run = newUtil(outputDir, new NumberStatisticsImpl(), first, second);
+    run.setIncremental(true);
+    assertEquals(0, run.call());
+
+    Files.writeString(second, "3\n", StandardOpenOption.APPEND);
+    Path third = Files.writeString(inputDir.resolve("third.txt"), "4\nworld\n");
+    NumberStatisticsImpl numbers = new NumberStatisticsImpl();
+    FileFilterUtil rerun = newUtil(outputDir, numbers, first, second, third);
+    rerun.setIncremental(true);
+    assertEquals(0, rerun.call());
+
+    assertEquals(List.of("1", "2", "3", "4"), Files.readAllLines(outputDir.resolve("integers.txt")));
+    assertEquals(List.of("1.5"), Files.readAllLines(outputDir.resolve("floats.txt")));
+    assertEquals(List.of("hello", "world"), Files.readAllLines(outputDir.resolve("strings.txt")));
+    // Статистика продолжена из манифеста, а не посчитана только по новым строкам
+    assertEquals(4, numbers.getCount());
+    assertEquals(BigInteger.TEN, numbers.getSum());
+
+    FileFilterUtil unchanged = newUtil(outputDir, new NumberStatisticsImpl(), first, second, third);
+    unchanged.setIncremental(true);
+    assertEquals(0, unchanged.call());
+    assertEquals(4, Files.readAllLines(outputDir.resolve("integers.txt")).size());
+  }
+
+  @Test
+  public void testIncrementalRunRebuildsWhenInputIsModified(@TempDir Path outputDir, @TempDir Path inputDir)
+      throws Exception {
+    Path first = Files.writeString(inputDir.resolve("first.txt"), "1\n2.5\n");
+    Path second = Files.writeString(inputDir.resolve("second.txt"), "2\nhello\n");
+    FileFilterUtil run = newUtil(outputDir, new NumberStatisticsImpl(), first, second);
+    run.setIncremental(true);
+    assertEquals(0, run.call());
+
+    // Прежние строки первого файла не должны остаться ни в выходных файлах, ни в статистике
+    Files.writeString(first, "7\n");
+    Files.setLastModifiedTime(first, FileTime.fromMillis(Files.getLastModifiedTime(first).toMillis() + 5000));
+    NumberStatisticsImpl numbers = new NumberStatisticsImpl();
+    FileFilterUtil rerun = newUtil(outputDir, numbers, first, second);
+    rerun.setIncremental(true);
+    assertEquals(0, rerun.call());
+
+    assertEquals(List.of("7", "2"), Files.readAllLines(outputDir.resolve("integers.txt")));
+    assertEquals(List.of("hello"), Files.readAllLines(outputDir.resolve("strings.txt")));
+    assertFalse(Files.exists(outputDir.resolve("floats.txt")));
+    assertEquals(2, numbers.getCount());
+    assertEquals(BigInteger.valueOf(9), numbers.getSum());
+
+    FileFilterUtil unchanged = newUtil(outputDir, new NumberStatisticsImpl(), first, second);
+    unchanged.setIncremental(true);
+    assertEquals(0, unchanged.call());
+    assertEquals(List.of("7", "2"), Files.readAllLines(outputDir.resolve("integers.txt")));
+  }
+
+  @Test
+  public void testIncrementalRunLeavesBytesAppendedDuringRunForNextRun(@TempDir Path outputDir,
+                                                                      @TempDir Path inputDir) throws Exception {
+    Path input = Files.writeString(inputDir.resolve("input.txt"), "1\ngrow\n");
+    assertEquals(0, growingRun(outputDir, input).call());
+    assertEquals(List.of("1"), Files.readAllLines(outputDir.resolve("integers.txt")));
+    assertEquals("1\ngrow\n5\n", Files.readString(input));
+
+    assertEquals(0, growingRun(outputDir, input).call());
+    assertEquals(List.of("1", "5"), Files.readAllLines(outputDir.resolve("integers.txt")));
+  }
+
+  @Test
+  public void testCategoriesTakeLinesInTheSamePass(@TempDir Path outputDir, @TempDir Path inputDir) throws Exception {
+    Path input = Files.writeString(inputDir.resolve("input.txt"),
+        "1\n0x1F\n2024-02-29\nhello\n2023-02-29\n0xAB\n2.5\n");
+    FileFilterUtil util = newUtil(outputDir, new NumberStatisticsImpl(), input);
+    util.setCategoryNames(List.of("hex", "dates"));
+    util.setStatsFormat(StatsFormat.CSV);
+    util.setStatsOutput(outputDir.resolve("stats.csv").toFile());
+
+    assertEquals(0, util.call());
+    assertEquals(List.of("0x1F", "0xAB"), Files.readAllLines(outputDir.resolve("hex.txt")));
+    assertEquals(List.of("2024-02-29"), Files.readAllLines(outputDir.resolve("dates.txt")));
+    assertEquals(List.of("hello", "2023-02-29"), Files.readAllLines(outputDir.resolve("strings.txt")));
+    assertEquals(List.of("1"), Files.readAllLines(outputDir.resolve("integers.txt")));
+    assertTrue(Files.readAllLines(outputDir.resolve("stats.csv")).contains("hex,2,31,171,,,,"));
+
+    util.setCategoryNames(List.of("unknown"));
+    assertEquals(2, util.call());
+
+    // Каждый режим сам по себе допустим и отклоняется только вместе с --category
+    List<Consumer<FileFilterUtil>> conflicts = List.of(
+        conflict -> conflict.setCompatMode(true),
+        conflict -> conflict.setThreads(2),
+        conflict -> conflict.setMmapMode(true),
+        conflict -> conflict.setPipelineMode(true),
+        conflict -> conflict.setVirtualThreadsMode(true));
+    for (Consumer<FileFilterUtil> option : conflicts) {
+      FileFilterUtil conflicting = newUtil(outputDir, new NumberStatisticsImpl(), input);
+      option.accept(conflicting);
+      assertEquals(0, conflicting.call());
+      conflicting.setCategoryNames(List.of("hex"));
+      assertEquals(2, conflicting.call());
+    }
+  }
+
+  @Test
+  public void testAtomicOutputReplacesAndAppends(@TempDir Path outputDir, @TempDir Path inputDir) throws Exception {
+    Path input = Files.writeString(inputDir.resolve("input.txt"), "1\nhello\n2.5\n");
+    Files.writeString(outputDir.resolve("integers.txt"), "0\n");
+    FileFilterUtil util = newUtil(outputDir, new NumberStatisticsImpl(), input);
+    util.setAtomicOutput(true);
+    util.setAppendMode(true);
+
+    assertEquals(0, util.call());
+    assertEquals(List.of("0", "1"), Files.readAllLines(outputDir.resolve("integers.txt")));
+    assertEquals(List.of("hello"), Files.readAllLines(outputDir.resolve("strings.txt")));
+    try (var files = Files.list(outputDir)) {
+      assertEquals(3, files.count());
+    }
+  }
+
+  @Test
+  public void testBinaryNumericFormatWritesColumns(@TempDir Path outputDir, @TempDir Path inputDir) throws Exception {
+    Path input = Files.writeString(inputDir.resolve("input.txt"), "1\nhello\n2.5\n30\n");
+    FileFilterUtil util = newUtil(outputDir, new NumberStatisticsImpl(), input);
+    util.setNumericFormat(NumericFormat.BINARY);
+
+    assertEquals(0, util.call());
+    try (ColumnarFile integers = ColumnarFile.open(outputDir.resolve("integers.bin"))) {
+      assertEquals(2, integers.getCount());
+      assertEquals(30, integers.getLong(1));
+    }
+    try (ColumnarFile floats = ColumnarFile.open(outputDir.resolve("floats.bin"))) {
+      assertEquals(2.5, floats.getDouble(0));
+    }
+    assertEquals(List.of("hello"), Files.readAllLines(outputDir.resolve("strings.txt")));
+
+    util.setCompressOutput(true);
+    assertEquals(2, util.call());
+  }
+
+  @Test
+  public void testAtomicOutputKeepsFilesWhenNoInputIsProcessed(@TempDir Path outputDir, @TempDir Path inputDir)
+      throws Exception {
+    // Каталог проходит предварительную проверку, но не открывается на чтение, и запуск завершается ошибкой
+    Path directory = Files.createDirectory(inputDir.resolve("input.txt"));
+    Files.writeString(outputDir.resolve("integers.txt"), "1\n");
+    FileFilterUtil util = newUtil(outputDir, new NumberStatisticsImpl(), directory);
+    util.setAtomicOutput(true);
+    util.setAppendMode(true);
+    util.setVirtualThreadsMode(true);
+
+    assertEquals(1, util.call());
+    assertEquals(List.of("1"), Files.readAllLines(outputDir.resolve("integers.txt")));
+    try (var files = Files.list(outputDir).filter(file -> file.getFileName().toString().endsWith(".tmp"))) {
+      assertEquals(0, files.count());
+    }
+  }
+
+  @Test
+  public void testCheckpointedRunRemovesCheckpointOnSuccess(@TempDir Path outputDir, @TempDir Path inputDir)
+      throws Exception {
+    Path input = Files.writeString(inputDir.resolve("input.txt"), "1\nhello\n2.5\n3\nworld\n");
+    FileFilterUtil util = newUtil(outputDir, new NumberStatisticsImpl(), input);
+    util.setChunkSize(4);
+    util.setCheckpointSeconds(0L);
+
+    assertEquals(0, util.call());
+    assertEquals(List.of("1", "3"), Files.readAllLines(outputDir.resolve("integers.txt")));
+    assertFalse(Files.exists(outputDir.resolve("checkpoint.tsv")));
+  }
+
+  @Test
+  public void testResumeTruncatesOutputsAndContinuesFromOffset(@TempDir Path outputDir, @TempDir Path inputDir)
+      throws Exception {
+    Path first = Files.writeString(inputDir.resolve("first.txt"), "1\nhello\n2\n");
+    Path second = Files.writeString(inputDir.resolve("second.txt"), "3\n4.5\n5\n");
+    // Прерванный запуск: первый файл и строка "3" второго учтены, "4.5" и "5" записаны уже после контрольной точки
+    Files.writeString(outputDir.resolve("integers.txt"), "1\n2\n3\n5\n");
+    Files.writeString(outputDir.resolve("floats.txt"), "4.5\n");
+    Files.writeString(outputDir.resolve("strings.txt"), "hello\n");
+    Map<String, Long> outputs = new LinkedHashMap<>();
+    outputs.put(outputDir.resolve("integers.txt").toFile().getAbsolutePath(), 6L);
+    outputs.put(outputDir.resolve("strings.txt").toFile().getAbsolutePath(), 6L);
+    Map<String, StatsSnapshot> snapshots = new LinkedHashMap<>();
+    snapshots.put("integers", StatsSnapshot.ofNumbers(3, BigInteger.ONE, BigInteger.valueOf(3), BigInteger.valueOf(6),
+        null));
+    snapshots.put("strings", StatsSnapshot.ofText(1, 5, 5));
+    new Checkpoint(List.of(first.toString(), second.toString()), 1, 2, outputs, snapshots)
+        .write(outputDir.resolve("checkpoint.tsv"));
+
+    NumberStatisticsImpl numbers = new NumberStatisticsImpl();
+    FileFilterUtil util = newUtil(outputDir, numbers, first, second);
+    util.setChunkSize(4);
+    util.setResume(true);
+
+    assertEquals(0, util.call());
+    assertEquals(List.of("1", "2", "3", "5"), Files.readAllLines(outputDir.resolve("integers.txt")));
+    assertEquals(List.of("4.5"), Files.readAllLines(outputDir.resolve("floats.txt")));
+    assertEquals(List.of("hello"), Files.readAllLines(outputDir.resolve("strings.txt")));
+    assertEquals(4, numbers.getCount());
+    assertEquals(BigInteger.valueOf(11), numbers.getSum());
+    assertFalse(Files.exists(outputDir.resolve("checkpoint.tsv")));
+  }
+
+  @Test
+  public void testResumeRequiresCheckpointAndSameInputs(@TempDir Path outputDir, @TempDir Path inputDir)
+      throws Exception {
+    Path input = Files.writeString(inputDir.resolve("input.txt"), "1\n");
+    FileFilterUtil util = newUtil(outputDir, new NumberStatisticsImpl(), input);
+    util.setChunkSize(4);
+    util.setResume(true);
+    assertEquals(2, util.call());
+
+    new Checkpoint(List.of("other.txt"), 0, 0, Map.of(), Map.of()).write(outputDir.resolve("checkpoint.tsv"));
+    assertEquals(2, util.call());
+
+    util.setResume(false);
+    util.setCheckpointSeconds(0L);
+    util.setThreads(2);
+    assertEquals(2, util.call());
+  }
+
+  @Test
+  public void testDedupIsRejectedInCompatMode(@TempDir Path outputDir) throws Exception {
+    fileFilterUtil.setDedup(true);
+    fileFilterUtil.setOutputDir(outputDir.toFile());
+
+    assertEquals(2, fileFilterUtil.call());
+  }
+
+  @Test
+  public void testMetricsAreReportedAfterSummary(@TempDir Path outputDir) throws Exception {
+    fileFilterUtil.setCompatMode(false);
+    fileFilterUtil.setOutputDir(outputDir.toFile());
+    fileFilterUtil.setMetricsFormat(MetricsFormat.JSON);
+    PrintStream stdout = System.out;
+    ByteArrayOutputStream captured = new ByteArrayOutputStream();
+    System.setOut(new PrintStream(captured, true, StandardCharsets.UTF_8));
+    try {
+      assertEquals(0, fileFilterUtil.call());
+    } finally {
+      System.setOut(stdout);
+    }
+
+    String output = captured.toString(StandardCharsets.UTF_8);
+    assertTrue(output.contains("\"integers\": 3, \"floats\": 3, \"strings\": 7"));
+    assertTrue(output.contains("\"path\": \"in1.txt\""));
+  }
+
+  @Test
+  public void testStatsAreWrittenToFile(@TempDir Path outputDir) throws Exception {
+    fileFilterUtil.setCompatMode(false);
+    fileFilterUtil.setOutputDir(outputDir.toFile());
+    fileFilterUtil.setStatsFormat(StatsFormat.CSV);
+    Path statsFile = outputDir.resolve("stats.csv");
+    fileFilterUtil.setStatsOutput(statsFile.toFile());
+    when(numberStatistics.snapshot()).thenReturn(StatsSnapshot.ofNumbers(3, 1, 3, 6, 2));
+    when(decimalStatistics.snapshot()).thenReturn(StatsSnapshot.ofNumbers(0, null, null, 0, null));
+    when(textStatistics.snapshot()).thenReturn(StatsSnapshot.ofText(1, 5, 5));
+
+    assertEquals(0, fileFilterUtil.call());
+
+    assertEquals(List.of("category,count,min,max,sum,average,min_length,max_length", "integers,3,1,3,6,2,,",
+        "floats,0,,,0,,,", "strings,1,,,,,5,5"), Files.readAllLines(statsFile));
+  }
+
+  @Test
+  public void testStatsAndDataCannotShareStandardOutput(@TempDir Path outputDir) throws Exception {
+    fileFilterUtil.setCompatMode(false);
+    fileFilterUtil.setOutputDir(outputDir.toFile());
+    fileFilterUtil.setStatsFormat(StatsFormat.JSON);
+    fileFilterUtil.setIntOutput(new File("-"));
+
+    assertEquals(2, fileFilterUtil.call());
+  }
+
+  @Test
+  public void testCategoryOutputOverridesOutputDirectory(@TempDir Path outputDir, @TempDir Path otherDir)
+      throws Exception {
+    fileFilterUtil.setCompatMode(false);
+    fileFilterUtil.setOutputDir(outputDir.toFile());
+    File intOutput = otherDir.resolve("ints.out").toFile();
+    fileFilterUtil.setIntOutput(intOutput);
+
+    assertEquals(0, fileFilterUtil.call());
+
+    assertEquals(3, Files.readAllLines(intOutput.toPath()).size());
+    assertFalse(Files.exists(outputDir.resolve("integers.txt")));
+    assertTrue(Files.exists(outputDir.resolve("strings.txt")));
+  }
+
+  @Test
+  public void testCompatModeRejectsStandardOutput(@TempDir Path outputDir) throws Exception {
+    fileFilterUtil.setOutputDir(outputDir.toFile());
+    fileFilterUtil.setStringOutput(new File("-"));
+
+    assertEquals(2, fileFilterUtil.call());
+    verify(textProcessor, never()).processFile(any(), any(), anyBoolean());
+  }
+
+  @Test
+  public void testCompatModeRejectsBufferSizeAndFlush(@TempDir Path outputDir) throws Exception {
+    fileFilterUtil.setOutputDir(outputDir.toFile());
+    fileFilterUtil.setBufferSize(1024);
+    assertEquals(2, fileFilterUtil.call());
+
+    fileFilterUtil.setBufferSize(FileOutputSink.DEFAULT_BUFFER_SIZE);
+    fileFilterUtil.setFlushPolicy(FlushPolicy.LINE);
+    assertEquals(2, fileFilterUtil.call());
+    verify(numberProcessor, never()).processFile(any(), any(), anyBoolean());
+
+    fileFilterUtil.setFlushPolicy(FlushPolicy.CLOSE);
+    assertEquals(0, fileFilterUtil.call());
+  }
+
+  @Test
+  public void testSinglePassModeDoesNotUseProcessors(@TempDir Path outputDir) throws Exception {
+    fileFilterUtil.setCompatMode(false);
+    fileFilterUtil.setOutputDir(outputDir.toFile());
+
+    int result = fileFilterUtil.call();
+
+    assertEquals(0, result);
+    verify(numberProcessor, never()).processFile(any(), any(), anyBoolean());
+    verify(decimalProcessor, never()).processFile(any(), any(), anyBoolean());
+    verify(textProcessor, never()).processFile(any(), any(), anyBoolean());
+    verify(numberStatistics, times(3)).updateStats(any());
+    verify(decimalStatistics, times(3)).updateStats(any());
+    verify(textStatistics, times(7)).updateStats(any());
+    assertTrue(Files.exists(outputDir.resolve("integers.txt")));
+    assertTrue(Files.exists(outputDir.resolve("floats.txt")));
+    assertTrue(Files.exists(outputDir.resolve("strings.txt")));
+  }
+
   @Test
   public void testProcessFilesSuccessfully() throws Exception {
     when(numberProcessor.processFile(any(), any(), anyBoolean())).thenReturn(true);
@@ -430,6 +889,57 @@ class FileFilterUtilTest {
     corruptEmptyFile.delete();
   }
 
+  private static FileFilterUtil newUtil(Path outputDir, NumberStatisticsImpl numbers, Path... inputs) {
+    DecimalStatisticsImpl decimals = new DecimalStatisticsImpl();
+    TextStatisticsImpl texts = new TextStatisticsImpl();
+    FileFilterUtil util = new FileFilterUtil(numbers, decimals, texts, new NumberProcessorImpl(numbers),
+        new DecimalProcessorImpl(decimals), new TextProcessorImpl(texts));
+    util.setOutputDir(outputDir.toFile());
+    util.setInputFiles(Arrays.stream(inputs).map(Path::toFile).toList());
+    return util;
+  }
+
+  // Категория "grow" дописывает во входной файл строку "5", пока запуск его читает
+  private static FileFilterUtil growingRun(Path outputDir, Path input) {
+    ClassifierRegistry registry = ClassifierRegistry.standard();
+    registry.register(new Classifier<String>() {
+      @Override
+      public String getName() {
+        return "grow";
+      }
+
+      @Override
+      public int getPriority() {
+        return 0;
+      }
+
+      @Override
+      public boolean mayMatch(String line) {
+        return line.equals("grow");
+      }
+
+      @Override
+      public String parse(String line) {
+        try {
+          Files.writeString(input, "5\n", StandardOpenOption.APPEND);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        return line;
+      }
+
+      @Override
+      public Stats<String> createStats() {
+        return new CategoryStatisticsImpl<>("grow", value -> value);
+      }
+    });
+    FileFilterUtil util = newUtil(outputDir, new NumberStatisticsImpl(), input);
+    util.setIncremental(true);
+    util.setClassifierRegistry(registry);
+    util.setCategoryNames(List.of("grow"));
+    return util;
+  }
+
   private boolean isWindows() {
     return System.getProperty("os.name").toLowerCase().contains("win");
   }
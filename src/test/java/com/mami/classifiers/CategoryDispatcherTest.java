@@ -0,0 +1,57 @@
+package com.mami.classifiers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mami.output.FileOutputSink;
+import com.mami.statistics.CategoryStatisticsImpl;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CategoryDispatcherTest {
+
+  @Test
+  void testFirstMatchingClassifierTakesLine(@TempDir Path dir) throws IOException {
+    // "0x1234" подходит под обе категории, забирает её та, что раньше по приоритету
+    ClassifierRegistry registry = new ClassifierRegistry();
+    registry.register(new HexClassifier(20));
+    registry.register(new HexClassifier(10) {
+      @Override
+      public String getName() {
+        return "short-hex";
+      }
+
+      @Override
+      public boolean mayMatch(String line) {
+        return super.mayMatch(line) && line.length() <= 6;
+      }
+    });
+    Path hex = dir.resolve("hex.txt");
+    Path shortHex = dir.resolve("short-hex.txt");
+
+    CategoryDispatcher dispatcher = new CategoryDispatcher();
+    try (dispatcher) {
+      for (Classifier<?> classifier : registry.select(Set.of("hex", "short-hex"))) {
+        Path output = classifier.getName().equals("hex") ? hex : shortHex;
+        dispatcher.add(classifier, new FileOutputSink(output.toFile(), false));
+      }
+      assertTrue(dispatcher.dispatch("0x1234"));
+      assertTrue(dispatcher.dispatch("0x12345678"));
+      assertFalse(dispatcher.dispatch("0x12g"));
+      assertFalse(dispatcher.dispatch("1234"));
+    }
+
+    assertEquals(List.of("0x1234"), Files.readAllLines(shortHex));
+    assertEquals(List.of("0x12345678"), Files.readAllLines(hex));
+    CategoryStatisticsImpl<?> stats = (CategoryStatisticsImpl<?>) dispatcher.getStats().get("hex");
+    assertEquals(1, stats.getCount());
+    assertEquals(BigInteger.valueOf(0x12345678), stats.getMax());
+  }
+}
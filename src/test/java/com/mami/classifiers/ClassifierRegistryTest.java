@@ -0,0 +1,73 @@
+package com.mami.classifiers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class ClassifierRegistryTest {
+
+  @Test
+  void testSelectsInPriorityOrder() {
+    ClassifierRegistry registry = ClassifierRegistry.standard();
+    registry.register(new HexClassifier(5) {
+      @Override
+      public String getName() {
+        return "early-hex";
+      }
+    });
+
+    List<String> names = registry.select(Set.of("hex", "uuid", "early-hex")).stream()
+        .map(Classifier::getName)
+        .toList();
+    assertEquals(List.of("early-hex", "uuid", "hex"), names);
+  }
+
+  @Test
+  void testRejectsReservedAndDuplicateNames() {
+    ClassifierRegistry registry = ClassifierRegistry.standard();
+    assertThrows(IllegalArgumentException.class, () -> registry.register(new HexClassifier(1)));
+    assertThrows(IllegalArgumentException.class, () -> registry.register(new HexClassifier(1) {
+      @Override
+      public String getName() {
+        return "strings";
+      }
+    }));
+    assertThrows(IllegalArgumentException.class, () -> registry.register(new HexClassifier(1) {
+      @Override
+      public String getName() {
+        return "../hex";
+      }
+    }));
+  }
+
+  @Test
+  void testStandardClassifiers() {
+    HexClassifier hex = new HexClassifier(0);
+    assertEquals(BigInteger.valueOf(255), hex.parse("0xfF"));
+    assertNull(hex.parse("0xfg"));
+    // Арабско-индийская цифра и полноширинные буквы не считаются шестнадцатеричными
+    assertNull(hex.parse("0x\u0663"));
+    assertNull(hex.parse("0x\uFF21\uFF22"));
+    assertEquals(false, hex.mayMatch("0x"));
+    assertEquals(false, hex.mayMatch("1x1"));
+
+    UuidClassifier uuid = new UuidClassifier(0);
+    String value = "123e4567-E89B-12d3-a456-426614174000";
+    assertEquals(true, uuid.mayMatch(value));
+    assertEquals(value, uuid.parse(value));
+    assertNull(uuid.parse("123e4567-e89b-12d3-a456_426614174000"));
+    assertNull(uuid.parse("123e4567-e89b-12d3-a456-42661417400\uFF21"));
+
+    DateClassifier dates = new DateClassifier(0);
+    assertEquals(LocalDate.of(2024, 2, 29), dates.parse("2024-02-29"));
+    assertNull(dates.parse("2023-02-29"));
+    assertNull(dates.parse("2023-1a-01"));
+    assertEquals(false, dates.mayMatch("2023/01/01"));
+  }
+}
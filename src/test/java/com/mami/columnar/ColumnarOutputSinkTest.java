@@ -0,0 +1,185 @@
+package com.mami.columnar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mami.output.FlushPolicy;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ColumnarOutputSinkTest {
+  @TempDir
+  Path tempDir;
+
+  private File outputFile;
+  private File overflowFile;
+
+  @BeforeEach
+  void setUp() {
+    outputFile = tempDir.resolve("integers.bin").toFile();
+    overflowFile = ColumnarOutputSink.overflowFile(outputFile);
+  }
+
+  @Test
+  void testOverflowFileName() {
+    assertEquals(tempDir.resolve("integers.overflow.txt").toFile().getAbsoluteFile(), overflowFile);
+  }
+
+  @Test
+  void testIntegersAreSplitIntoBlocksWithMinAndMax() throws IOException {
+    ColumnarOutputSink sink = integers(false, 3);
+    for (String line : List.of("5", "1", "9", "007", "3")) {
+      sink.write(line);
+    }
+    sink.close();
+
+    try (ColumnarFile file = ColumnarFile.open(outputFile.toPath())) {
+      assertEquals(ColumnType.LONG, file.getType());
+      assertEquals(5, file.getCount());
+      assertEquals(2, file.getBlockCount());
+      assertEquals(3, file.getBlockSize(0));
+      assertEquals(2, file.getBlockSize(1));
+      assertEquals(1, file.getBlockMinBits(0));
+      assertEquals(9, file.getBlockMaxBits(0));
+      assertEquals(3, file.getBlockMinBits(1));
+      assertEquals(7, file.getBlockMaxBits(1));
+      assertEquals(7, file.getLong(3));
+    }
+    assertFalse(overflowFile.exists());
+  }
+
+  @Test
+  void testIntegerBytesAreParsedDirectly() throws IOException {
+    ColumnarOutputSink sink = integers(false, 4);
+    ByteBuffer buffer = ByteBuffer.wrap("x42\n".getBytes(StandardCharsets.US_ASCII));
+    sink.write(buffer, 1, 2);
+    sink.close();
+
+    try (ColumnarFile file = ColumnarFile.open(outputFile.toPath())) {
+      assertEquals(1, file.getCount());
+      assertEquals(42, file.getLong(0));
+    }
+  }
+
+  @Test
+  void testLargeIntegersAreSaturatedAndKeptInOverflowFile() throws IOException {
+    ColumnarOutputSink sink = integers(false, 4);
+    sink.write("1");
+    sink.write("9223372036854775807");
+    sink.write("99999999999999999999");
+    sink.close();
+
+    try (ColumnarFile file = ColumnarFile.open(outputFile.toPath())) {
+      assertEquals(Long.MAX_VALUE, file.getLong(1));
+      assertEquals(Long.MAX_VALUE, file.getLong(2));
+    }
+    assertEquals(List.of("2\t99999999999999999999"), Files.readAllLines(overflowFile.toPath()));
+  }
+
+  @Test
+  void testOverflowFileFollowsFlushPolicy() throws IOException {
+    ColumnarOutputSink sink = ColumnarOutputSink.forIntegers(outputFile, overflowFile, false, 4, 1024,
+        FlushPolicy.LINE);
+    sink.write("99999999999999999999");
+    // Строка ещё в буфере размером 1024, но политика LINE сбрасывает её сразу
+    assertEquals(List.of("0\t99999999999999999999"), Files.readAllLines(overflowFile.toPath()));
+    sink.close();
+  }
+
+  @Test
+  void testDecimalsKeepInexactValuesInOverflowFile() throws IOException {
+    outputFile = tempDir.resolve("floats.bin").toFile();
+    overflowFile = ColumnarOutputSink.overflowFile(outputFile);
+    ColumnarOutputSink sink = ColumnarOutputSink.forDecimals(outputFile, overflowFile, false, 2, 64,
+        FlushPolicy.CLOSE);
+    sink.write("2.5");
+    sink.write("-1.25");
+    sink.write("0.12345678901234567890");
+    sink.close();
+
+    try (ColumnarFile file = ColumnarFile.open(outputFile.toPath())) {
+      assertEquals(ColumnType.DOUBLE, file.getType());
+      assertEquals(-1.25, Double.longBitsToDouble(file.getBlockMinBits(0)));
+      assertEquals(2.5, Double.longBitsToDouble(file.getBlockMaxBits(0)));
+      assertEquals(0.12345678901234568, file.getDouble(2));
+    }
+    assertEquals(List.of("2\t0.12345678901234567890"), Files.readAllLines(overflowFile.toPath()));
+  }
+
+  @Test
+  void testAppendContinuesPartialBlock() throws IOException {
+    ColumnarOutputSink first = integers(false, 3);
+    first.write("4");
+    first.write("8");
+    first.close();
+
+    ColumnarOutputSink second = integers(true, 100);
+    second.write("2");
+    second.write("6");
+    second.close();
+
+    try (ColumnarFile file = ColumnarFile.open(outputFile.toPath())) {
+      assertEquals(3, file.getBlockValues());
+      assertEquals(4, file.getCount());
+      assertEquals(2, file.getBlockCount());
+      assertEquals(2, file.getBlockMinBits(0));
+      assertEquals(8, file.getBlockMaxBits(0));
+      assertEquals(6, file.getLong(3));
+    }
+  }
+
+  @Test
+  void testAppendRejectsOtherType() throws IOException {
+    ColumnarOutputSink sink = integers(false, 3);
+    sink.write("1");
+    sink.close();
+
+    ColumnarOutputSink decimals = ColumnarOutputSink.forDecimals(outputFile, overflowFile, true, 3, 64,
+        FlushPolicy.CLOSE);
+    assertThrows(IOException.class, () -> decimals.write("1.5"));
+    decimals.close();
+  }
+
+  @Test
+  void testFreshFileRemovesStaleOverflow() throws IOException {
+    Files.writeString(overflowFile.toPath(), "0\t99999999999999999999\n");
+
+    ColumnarOutputSink sink = integers(false, 3);
+    sink.write("1");
+    sink.close();
+
+    assertFalse(overflowFile.exists());
+  }
+
+  @Test
+  void testCorruptedFileIsRejected() throws IOException {
+    Files.writeString(outputFile.toPath(), "not a columnar file at all");
+
+    assertThrows(IOException.class, () -> ColumnarFile.open(outputFile.toPath()));
+  }
+
+  @Test
+  void testIsExact() {
+    assertTrue(ColumnarOutputSink.isExact("0.1", 0.1));
+    assertTrue(ColumnarOutputSink.isExact("123456789012345.0", 123456789012345.0));
+    assertTrue(ColumnarOutputSink.isExact("0.000", 0.0));
+    assertTrue(ColumnarOutputSink.isExact("1.5E-3", 1.5E-3));
+    assertFalse(ColumnarOutputSink.isExact("1234567890.1234567", 1234567890.1234567));
+    assertFalse(ColumnarOutputSink.isExact("1.0E400", Double.POSITIVE_INFINITY));
+    assertFalse(ColumnarOutputSink.isExact("1.0E-310", 1.0E-310));
+  }
+
+  private ColumnarOutputSink integers(boolean append, int blockValues) {
+    return ColumnarOutputSink.forIntegers(outputFile, overflowFile, append, blockValues, 64, FlushPolicy.CLOSE);
+  }
+}
@@ -0,0 +1,57 @@
+package com.mami.dedup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mami.output.FileOutputSink;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DedupOutputSinkTest {
+
+  @Test
+  void testKeepsFirstOccurrenceInMemory(@TempDir Path dir) throws IOException {
+    Path output = dir.resolve("integers.txt");
+    try (DedupOutputSink sink = new DedupOutputSink(new FileOutputSink(output.toFile(), false), true,
+        DedupOutputSink.DEFAULT_MEMORY_LIMIT, dir)) {
+      for (String line : List.of("5", "007", "5", "12345678901234567890", "7", "007", "12345678901234567890", "0")) {
+        sink.write(line);
+      }
+      assertFalse(sink.isSpilled());
+    }
+    assertEquals(List.of("5", "007", "12345678901234567890", "7", "0"), Files.readAllLines(output));
+  }
+
+  @Test
+  void testSpillsToDiskAndKeepsOrder(@TempDir Path dir) throws IOException {
+    List<String> input = new ArrayList<>();
+    Random random = new Random(7);
+    for (int i = 0; i < 200_000; i++) {
+      input.add("value " + random.nextInt(50_000));
+    }
+    Path output = dir.resolve("strings.txt");
+    // Памяти хватает на первый блок строк и таблицу на 1024 значения: в памяти остаются 512 строк,
+    // а в разделах первого уровня оказывается около 800 различных строк, и их приходится делить дальше
+    try (DedupOutputSink sink = new DedupOutputSink(new FileOutputSink(output.toFile(), false), false,
+        OffHeapLineSet.INITIAL_BLOCK_SIZE + 32 * 1024, dir)) {
+      for (String line : input) {
+        sink.write(line);
+      }
+      assertTrue(sink.isSpilled());
+    }
+
+    assertEquals(new ArrayList<>(new LinkedHashSet<>(input)), Files.readAllLines(output));
+    try (Stream<Path> files = Files.list(dir)) {
+      assertEquals(List.of(output), files.toList());
+    }
+  }
+}
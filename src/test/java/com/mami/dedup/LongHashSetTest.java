@@ -0,0 +1,36 @@
+package com.mami.dedup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LongHashSetTest {
+
+  @Test
+  void testAddAndContainsAcrossGrowth() {
+    LongHashSet set = new LongHashSet();
+    for (long i = 0; i < 100_000; i++) {
+      assertTrue(set.add(i * 7));
+    }
+    for (long i = 0; i < 100_000; i++) {
+      assertFalse(set.add(i * 7));
+      assertTrue(set.contains(i * 7));
+      assertFalse(set.contains(i * 7 + 1));
+    }
+    assertEquals(100_000, set.size());
+  }
+
+  @Test
+  void testZeroAndExtremeValues() {
+    LongHashSet set = new LongHashSet();
+    assertFalse(set.contains(0));
+    assertTrue(set.add(0));
+    assertFalse(set.add(0));
+    assertTrue(set.add(Long.MIN_VALUE));
+    assertTrue(set.add(Long.MAX_VALUE));
+    assertTrue(set.contains(Long.MIN_VALUE));
+    assertEquals(3, set.size());
+  }
+}
@@ -0,0 +1,51 @@
+package com.mami.dedup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class OffHeapLineSetTest {
+
+  @Test
+  void testAddAndContainsAcrossGrowth() {
+    OffHeapLineSet set = new OffHeapLineSet();
+    for (int i = 0; i < 50_000; i++) {
+      byte[] line = bytes("строка " + i);
+      assertTrue(set.add(line, LineSet.hash(line)));
+    }
+    for (int i = 0; i < 50_000; i++) {
+      byte[] line = bytes("строка " + i);
+      assertFalse(set.add(line, LineSet.hash(line)));
+    }
+    byte[] missing = bytes("строка 50000");
+    assertFalse(set.contains(missing, LineSet.hash(missing)));
+    assertEquals(50_000, set.size());
+  }
+
+  @Test
+  void testHashCollisionIsVerifiedByBytes() {
+    OffHeapLineSet set = new OffHeapLineSet();
+    assertTrue(set.add(bytes("first"), 42));
+    assertTrue(set.add(bytes("second"), 42));
+    assertTrue(set.add(bytes("firs"), 42));
+    assertFalse(set.add(bytes("second"), 42));
+    assertTrue(set.contains(bytes("first"), 42));
+    assertFalse(set.contains(bytes("third"), 42));
+  }
+
+  @Test
+  void testLinesLongerThanBlock() {
+    OffHeapLineSet set = new OffHeapLineSet();
+    byte[] line = new byte[OffHeapLineSet.BLOCK_SIZE + 10];
+    assertTrue(set.add(line, 1));
+    assertFalse(set.add(line.clone(), 1));
+    assertTrue(set.add(bytes("short"), 2));
+  }
+
+  private static byte[] bytes(String line) {
+    return line.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,48 @@
+package com.mami.manifest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.mami.statistics.StatsSnapshot;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CheckpointTest {
+
+  @Test
+  void testWriteAndReadBack(@TempDir Path dir) throws IOException {
+    Map<String, Long> outputs = new LinkedHashMap<>();
+    outputs.put("/out/integers.txt", 120L);
+    outputs.put("/out/with\ttab.txt", 0L);
+    Map<String, StatsSnapshot> snapshots = new LinkedHashMap<>();
+    snapshots.put("floats", StatsSnapshot.ofNumbers(2, new BigDecimal("-1.5"), new BigDecimal("2E+10"),
+        new BigDecimal("19999999998.5"), null));
+    snapshots.put("strings", StatsSnapshot.ofText(3, 1, 7));
+    snapshots.put("uuid", StatsSnapshot.ofValues(2, null, null, "-", "a\tb\\n"));
+    Checkpoint checkpoint = new Checkpoint(List.of("a.txt", "dir/b c.txt"), 1, 4096, outputs, snapshots);
+    Path file = dir.resolve("checkpoint.tsv");
+    checkpoint.write(file);
+
+    assertEquals(checkpoint, Checkpoint.read(file));
+    try (var files = Files.list(dir)) {
+      assertEquals(1, files.count());
+    }
+  }
+
+  @Test
+  void testRejectsDamagedFile(@TempDir Path dir) throws IOException {
+    Path unknown = Files.writeString(dir.resolve("unknown.tsv"), "position\t0\t0\n");
+    assertThrows(IOException.class, () -> Checkpoint.read(unknown));
+
+    Path outOfRange = Files.writeString(dir.resolve("range.tsv"),
+        "# file-parser-util checkpoint 1\nposition\t2\t0\ninput\ta.txt\n");
+    assertThrows(IOException.class, () -> Checkpoint.read(outOfRange));
+  }
+}
@@ -0,0 +1,93 @@
+package com.mami.manifest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mami.statistics.StatsSnapshot;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ManifestTest {
+
+  @Test
+  void testWriteAndReadBack(@TempDir Path dir) throws IOException {
+    File input = Files.writeString(dir.resolve("in\tput.txt"), "1\n").toFile();
+    Manifest manifest = new Manifest();
+    manifest.record(input);
+    Map<String, StatsSnapshot> snapshots = new LinkedHashMap<>();
+    snapshots.put("integers", StatsSnapshot.ofNumbers(2, BigInteger.ONE,
+        new BigInteger("123456789012345678901234567890"), new BigInteger("123456789012345678901234567891"), null));
+    snapshots.put("floats", StatsSnapshot.ofNumbers(1, new BigDecimal("1.5E+3"), new BigDecimal("1.5E+3"),
+        new BigDecimal("1.5E+3"), null));
+    snapshots.put("strings", StatsSnapshot.ofText(0, null, null));
+    manifest.setSnapshots(snapshots);
+    Path file = dir.resolve("manifest.tsv");
+    manifest.write(file);
+
+    Manifest read = Manifest.read(file);
+    assertEquals(FileChange.Kind.UNCHANGED, read.check(input).kind());
+    StatsSnapshot integers = read.getSnapshots().get("integers");
+    assertEquals(2, integers.count());
+    assertEquals(new BigDecimal("123456789012345678901234567890"), integers.max());
+    assertEquals(0, new BigDecimal("1500").compareTo((BigDecimal) read.getSnapshots().get("floats").sum()));
+    assertEquals(StatsSnapshot.ofText(0, null, null), read.getSnapshots().get("strings"));
+    try (var files = Files.list(dir)) {
+      assertEquals(2, files.count());
+    }
+  }
+
+  @Test
+  void testDetectsChanges(@TempDir Path dir) throws IOException {
+    Path appended = Files.writeString(dir.resolve("appended.txt"), "1\n2\n");
+    Path touched = Files.writeString(dir.resolve("touched.txt"), "a\n");
+    Path modified = Files.writeString(dir.resolve("modified.txt"), "a\n");
+    Path unterminated = Files.writeString(dir.resolve("unterminated.txt"), "a");
+    Manifest manifest = new Manifest();
+    for (Path path : List.of(appended, touched, modified, unterminated)) {
+      manifest.record(path.toFile());
+    }
+
+    Files.writeString(appended, "3\n", StandardOpenOption.APPEND);
+    Files.setLastModifiedTime(touched, FileTime.fromMillis(Files.getLastModifiedTime(touched).toMillis() + 5000));
+    Files.writeString(modified, "b\n");
+    Files.setLastModifiedTime(modified, FileTime.fromMillis(Files.getLastModifiedTime(modified).toMillis() + 5000));
+    Files.writeString(unterminated, "b\n", StandardOpenOption.APPEND);
+
+    assertEquals(new FileChange(FileChange.Kind.APPENDED, 4), manifest.check(appended.toFile()));
+    assertEquals(FileChange.Kind.UNCHANGED, manifest.check(touched.toFile()).kind());
+    assertEquals(FileChange.Kind.MODIFIED, manifest.check(modified.toFile()).kind());
+    assertEquals(FileChange.Kind.MODIFIED, manifest.check(unterminated.toFile()).kind());
+    assertEquals(FileChange.Kind.NEW, manifest.check(dir.resolve("other.txt").toFile()).kind());
+  }
+
+  @Test
+  void testRecordedPrefixLeavesTailForNextRun(@TempDir Path dir) throws IOException {
+    Path input = Files.writeString(dir.resolve("input.txt"), "1\n2\n");
+    long modified = Files.getLastModifiedTime(input).toMillis();
+    // Строка "3" дописана уже после того, как запуск зафиксировал размер 4
+    Files.writeString(input, "3\n", StandardOpenOption.APPEND);
+    Manifest manifest = new Manifest();
+    manifest.record(input.toFile(), 4, modified);
+
+    assertEquals(new FileChange(FileChange.Kind.APPENDED, 4), manifest.check(input.toFile()));
+  }
+
+  @Test
+  void testRejectsUnknownFormat(@TempDir Path dir) throws IOException {
+    Path file = Files.writeString(dir.resolve("manifest.tsv"), "something else\n");
+    IOException e = assertThrows(IOException.class, () -> Manifest.read(file));
+    assertTrue(e.getMessage().contains("манифест"));
+  }
+}
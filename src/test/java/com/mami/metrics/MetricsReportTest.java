@@ -0,0 +1,44 @@
+package com.mami.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MetricsReportTest {
+  private Metrics metrics;
+
+  @BeforeEach
+  void setUp() {
+    metrics = new Metrics();
+    metrics.addLines(10);
+    metrics.addBytes(100);
+    metrics.addInteger();
+    metrics.addInteger();
+    metrics.addText();
+    metrics.addReadTime(1_500_000_000L);
+    metrics.addFile(new FileMetrics("dir/\"quoted\".txt", 10, 100, 2_000_000_000L));
+  }
+
+  @Test
+  void testJsonContainsTotalsAndEscapedFiles() {
+    String json = MetricsReport.format(metrics, MetricsFormat.JSON);
+
+    assertTrue(json.contains("\"lines\": 10,"));
+    assertTrue(json.contains("\"bytes\": 100,"));
+    assertTrue(json.contains("\"read\": 1.500000"));
+    assertTrue(json.contains("\"integers\": 2, \"floats\": 0, \"strings\": 1"));
+    assertTrue(json.contains("{\"path\": \"dir/\\\"quoted\\\".txt\", \"lines\": 10, \"bytes\": 100, "
+        + "\"seconds\": 2.000000, \"linesPerSecond\": 5.0, \"bytesPerSecond\": 50.0}"));
+  }
+
+  @Test
+  void testPrometheusUsesLabelsForPhasesCategoriesAndFiles() {
+    String text = MetricsReport.format(metrics, MetricsFormat.PROMETHEUS);
+
+    assertTrue(text.contains("# TYPE filter_lines_total counter\nfilter_lines_total 10\n"));
+    assertTrue(text.contains("filter_phase_seconds_total{phase=\"read\"} 1.500000\n"));
+    assertTrue(text.contains("filter_category_lines_total{category=\"integers\"} 2\n"));
+    assertTrue(text.contains("filter_file_bytes_total{file=\"dir/\\\"quoted\\\".txt\"} 100\n"));
+  }
+}
@@ -0,0 +1,93 @@
+package com.mami.output;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AtomicFileOutputSinkTest {
+  @TempDir
+  Path tempDir;
+
+  private File outputFile;
+
+  @BeforeEach
+  void setUp() {
+    outputFile = tempDir.resolve("output.txt").toFile();
+  }
+
+  @Test
+  void testOutputAppearsOnlyAfterClose() throws IOException {
+    Files.writeString(outputFile.toPath(), "old\n");
+
+    AtomicFileOutputSink sink = new AtomicFileOutputSink(outputFile, false, 16, FlushPolicy.LINE, false);
+    sink.write("new line that does not fit the buffer");
+    assertEquals("old\n", Files.readString(outputFile.toPath()));
+    sink.close();
+
+    assertEquals("new line that does not fit the buffer\n", Files.readString(outputFile.toPath()));
+    assertEquals(1, countFiles());
+  }
+
+  @Test
+  void testAppendStartsFromExistingContent() throws IOException {
+    Files.writeString(outputFile.toPath(), "1\n");
+
+    try (AtomicFileOutputSink sink = new AtomicFileOutputSink(outputFile, true, 1024, FlushPolicy.CLOSE, false)) {
+      sink.write("2");
+    }
+
+    assertEquals("1\n2\n", Files.readString(outputFile.toPath()));
+  }
+
+  @Test
+  void testAbortKeepsPreviousOutput() throws IOException {
+    Files.writeString(outputFile.toPath(), "old\n");
+
+    AtomicFileOutputSink sink = new AtomicFileOutputSink(outputFile, true, 1024, FlushPolicy.FILE, false);
+    sink.write("partial");
+    sink.onInputFileProcessed();
+    sink.abort();
+    sink.close();
+
+    assertEquals("old\n", Files.readString(outputFile.toPath()));
+    assertEquals(1, countFiles());
+  }
+
+  @Test
+  void testNothingIsCreatedWithoutWrites() throws IOException {
+    new AtomicFileOutputSink(outputFile, false, 1024, FlushPolicy.CLOSE, false).close();
+
+    assertFalse(outputFile.exists());
+    assertEquals(0, countFiles());
+  }
+
+  @Test
+  void testCompressedAppendIsReadableAsOneStream() throws IOException {
+    try (AtomicFileOutputSink sink = new AtomicFileOutputSink(outputFile, false, 1024, FlushPolicy.CLOSE, true)) {
+      sink.write("1");
+    }
+    try (AtomicFileOutputSink sink = new AtomicFileOutputSink(outputFile, true, 1024, FlushPolicy.CLOSE, true)) {
+      sink.write("2");
+    }
+
+    try (GZIPInputStream in = new GZIPInputStream(new FileInputStream(outputFile))) {
+      assertEquals("1\n2\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+    }
+  }
+
+  private long countFiles() throws IOException {
+    try (var files = Files.list(tempDir)) {
+      return files.count();
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package com.mami.output;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileOutputSinkTest {
+  @TempDir
+  Path tempDir;
+
+  private File outputFile;
+
+  @BeforeEach
+  void setUp() {
+    outputFile = tempDir.resolve("output.txt").toFile();
+  }
+
+  @Test
+  void testFileIsNotCreatedWithoutWrites() throws IOException {
+    FileOutputSink sink = new FileOutputSink(outputFile, false);
+    sink.close();
+
+    assertFalse(sink.isCreated());
+    assertFalse(outputFile.exists());
+  }
+
+  @Test
+  void testTruncatesExistingFileOnFirstWrite() throws IOException {
+    Files.writeString(outputFile.toPath(), "old\n", StandardOpenOption.CREATE);
+
+    try (FileOutputSink sink = new FileOutputSink(outputFile, false)) {
+      sink.write("new");
+      assertTrue(sink.isCreated());
+    }
+
+    assertEquals("new\n", Files.readString(outputFile.toPath()));
+  }
+
+  @Test
+  void testAppendsWhenFileAlreadyCreated() throws IOException {
+    Files.writeString(outputFile.toPath(), "old\n", StandardOpenOption.CREATE);
+
+    try (FileOutputSink sink = new FileOutputSink(outputFile, true)) {
+      sink.write("new");
+    }
+
+    assertEquals("old\nnew\n", Files.readString(outputFile.toPath()));
+  }
+
+  @Test
+  void testLinePolicyFlushesEveryLine() throws IOException {
+    try (FileOutputSink sink = new FileOutputSink(outputFile, false, 1024, FlushPolicy.LINE)) {
+      sink.write("123");
+      assertEquals("123\n", Files.readString(outputFile.toPath()));
+    }
+  }
+
+  @Test
+  void testFilePolicyFlushesAfterInputFile() throws IOException {
+    try (FileOutputSink sink = new FileOutputSink(outputFile, false, 1024, FlushPolicy.FILE)) {
+      sink.write("123");
+      assertEquals("", Files.readString(outputFile.toPath()));
+      sink.onInputFileProcessed();
+      assertEquals("123\n", Files.readString(outputFile.toPath()));
+    }
+  }
+
+  @Test
+  void testWritesBytesAndEncodedTextWithSmallBuffer() throws IOException {
+    ByteBuffer bytes = ByteBuffer.wrap("xx12345678901234567890yy".getBytes(StandardCharsets.US_ASCII));
+
+    try (FileOutputSink sink = new FileOutputSink(outputFile, false, 1, FlushPolicy.CLOSE)) {
+      sink.write(bytes, 2, 20);
+      sink.write("тестовое задание");
+      sink.write(bytes, 2, 3);
+    }
+
+    assertEquals("12345678901234567890\nтестовое задание\n123\n", Files.readString(outputFile.toPath()));
+  }
+
+  @Test
+  void testRejectsNonPositiveBufferSize() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new FileOutputSink(outputFile, false, 0, FlushPolicy.CLOSE));
+  }
+
+  @Test
+  void testCompressedOutputIsReadableAfterAppend() throws IOException {
+    try (FileOutputSink sink = new FileOutputSink(outputFile, false, 64, FlushPolicy.CLOSE, true)) {
+      sink.write("first");
+    }
+    try (FileOutputSink sink = new FileOutputSink(outputFile, true, 64, FlushPolicy.LINE, true)) {
+      sink.write("второй");
+    }
+
+    try (GZIPInputStream in = new GZIPInputStream(new FileInputStream(outputFile))) {
+      assertEquals("first\nвторой\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+    }
+  }
+}
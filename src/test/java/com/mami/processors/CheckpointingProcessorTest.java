@@ -0,0 +1,96 @@
+package com.mami.processors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mami.output.OutputSink;
+import com.mami.statistics.DecimalStatisticsImpl;
+import com.mami.statistics.NumberStatisticsImpl;
+import com.mami.statistics.TextStatisticsImpl;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CheckpointingProcessorTest {
+
+  @Test
+  void testCheckpointsAtLineBoundariesAndResumesFromThem(@TempDir Path dir) throws IOException {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      text.append(i % 3 == 0 ? "line " + i : Integer.toString(i)).append('\n');
+    }
+    File first = Files.writeString(dir.resolve("first.txt"), text).toFile();
+    File second = Files.writeString(dir.resolve("second.txt"), "1.5\n2\n").toFile();
+    List<File> files = List.of(first, second);
+    byte[] content = Files.readAllBytes(first.toPath());
+
+    List<String> all = new ArrayList<>();
+    List<long[]> positions = new ArrayList<>();
+    processor(all, 64, (fileIndex, offset) -> positions.add(new long[] {fileIndex, offset}))
+        .processFiles(files, 0, 0);
+
+    assertTrue(positions.size() > 3);
+    assertEquals(List.of(2L, 0L), List.of(positions.get(positions.size() - 1)[0],
+        positions.get(positions.size() - 1)[1]));
+    long[] middle = positions.get(positions.size() / 2);
+    assertEquals(0, middle[0]);
+    assertEquals('\n', content[(int) middle[1] - 1]);
+
+    // Строки до контрольной точки и строки, прочитанные после продолжения, дают весь результат
+    List<String> resumed = new ArrayList<>();
+    processor(resumed, 64, (fileIndex, offset) -> {
+    }).processFiles(files, (int) middle[0], middle[1]);
+    int before = new String(content, 0, (int) middle[1]).split("\n").length;
+    assertEquals(all.subList(before, all.size()), resumed);
+  }
+
+  @Test
+  void testIntervalLimitsCheckpoints(@TempDir Path dir) throws IOException {
+    File input = Files.writeString(dir.resolve("input.txt"), "1\n2\n3\n4\n5\n6\n").toFile();
+    List<long[]> positions = new ArrayList<>();
+    CheckpointingProcessor processor = new CheckpointingProcessor(singlePass(new ArrayList<>()), 2, 3600,
+        (fileIndex, offset) -> positions.add(new long[] {fileIndex, offset}));
+    processor.processFiles(List.of(input), 0, 0);
+
+    assertTrue(positions.isEmpty());
+  }
+
+  private static CheckpointingProcessor processor(List<String> lines, long chunkSize,
+                                                  CheckpointingProcessor.Listener listener) {
+    return new CheckpointingProcessor(singlePass(lines), chunkSize, 0, listener);
+  }
+
+  // Все категории пишутся в один список, чтобы сохранялся общий порядок строк
+  private static SinglePassProcessor singlePass(List<String> lines) {
+    OutputSink sink = new OutputSink() {
+      @Override
+      public void write(String line) {
+        lines.add(line);
+      }
+
+      @Override
+      public void onInputFileProcessed() {
+      }
+
+      @Override
+      public void flush() {
+      }
+
+      @Override
+      public boolean isCreated() {
+        return !lines.isEmpty();
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+    return new SinglePassProcessor(new NumberStatisticsImpl(), new DecimalStatisticsImpl(), new TextStatisticsImpl(),
+        sink, sink, sink);
+  }
+}
@@ -0,0 +1,85 @@
+package com.mami.processors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileChunkTest {
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testSmallFileIsSingleChunk() throws IOException {
+    File file = write("123\nabc\n");
+
+    List<FileChunk> chunks = FileChunk.split(file, 1024);
+
+    assertEquals(1, chunks.size());
+    assertEquals(0, chunks.get(0).getStart());
+    assertEquals(file.length(), chunks.get(0).getEnd());
+    assertTrue(chunks.get(0).isLast());
+  }
+
+  @Test
+  void testChunksEndOnLineBoundaries() throws IOException {
+    String content = "Пример строки\n12345\n3.1415\nтестовое задание\nlast line without newline";
+    File file = write(content);
+    byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+
+    List<FileChunk> chunks = FileChunk.split(file, 5);
+
+    assertEquals(5, chunks.size());
+    StringBuilder joined = new StringBuilder();
+    long expectedStart = 0;
+    for (FileChunk chunk : chunks) {
+      assertEquals(expectedStart, chunk.getStart());
+      if (chunk.getStart() > 0) {
+        assertEquals('\n', bytes[(int) chunk.getStart() - 1]);
+      }
+      assertEquals(chunk == chunks.get(chunks.size() - 1), chunk.isLast());
+      try (BufferedReader reader = chunk.openReader()) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          joined.append(line).append('\n');
+        }
+      }
+      expectedStart = chunk.getEnd();
+    }
+    assertEquals(bytes.length, expectedStart);
+    assertEquals(content + "\n", joined.toString());
+  }
+
+  @Test
+  void testLongLineIsNotSplit() throws IOException {
+    File file = write("a".repeat(100) + "\nb\n");
+
+    List<FileChunk> chunks = FileChunk.split(file, 10);
+
+    assertEquals(2, chunks.size());
+    assertEquals(101, chunks.get(0).getEnd());
+    assertFalse(chunks.get(0).isLast());
+  }
+
+  @Test
+  void testRejectsNonPositiveChunkSize() throws IOException {
+    File file = write("1\n");
+    assertThrows(IllegalArgumentException.class, () -> FileChunk.split(file, 0));
+  }
+
+  private File write(String content) throws IOException {
+    Path path = tempDir.resolve("input.txt");
+    Files.writeString(path, content, StandardCharsets.UTF_8);
+    return path.toFile();
+  }
+}
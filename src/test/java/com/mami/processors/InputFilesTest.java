@@ -0,0 +1,96 @@
+package com.mami.processors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class InputFilesTest {
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testPlainFileIsReadAsIs() throws IOException {
+    Path file = tempDir.resolve("plain.txt");
+    Files.writeString(file, "1\nабв\n");
+
+    assertFalse(InputFiles.isCompressed(file.toFile()));
+    assertFalse(InputFiles.isSequential(file.toFile()));
+    assertEquals(List.of("1", "абв"), readLines(file.toFile()));
+  }
+
+  @Test
+  void testGzipFileIsDetectedAndDecompressed() throws IOException {
+    // Больше нескольких блоков фонового чтения
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 100_000; i++) {
+      expected.add(i % 3 == 0 ? "line " + i : Integer.toString(i));
+    }
+    Path file = tempDir.resolve("data.bin");
+    try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+      out.write((String.join("\n", expected) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    assertTrue(InputFiles.isCompressed(file.toFile()));
+    assertTrue(InputFiles.isSequential(file.toFile()));
+    assertEquals(expected, readLines(file.toFile()));
+  }
+
+  @Test
+  void testCompressedStandardInputIsDecompressed() throws IOException {
+    Path file = tempDir.resolve("stdin.gz");
+    try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+      out.write("42\n1.5\n".getBytes(StandardCharsets.UTF_8));
+    }
+    File stdin = new File(InputFiles.STDIN);
+    InputStream original = System.in;
+    System.setIn(new ByteArrayInputStream(Files.readAllBytes(file)));
+    try {
+      assertTrue(InputFiles.isStream(stdin));
+      assertEquals(List.of("42", "1.5"), readLines(stdin));
+    } finally {
+      System.setIn(original);
+    }
+  }
+
+  @Test
+  void testCorruptedGzipReportsError() throws IOException {
+    Path file = tempDir.resolve("broken.gz");
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (OutputStream out = new GZIPOutputStream(bytes)) {
+      out.write("1\n2\n3\n".repeat(1000).getBytes(StandardCharsets.UTF_8));
+    }
+    byte[] data = bytes.toByteArray();
+    Files.write(file, Arrays.copyOf(data, data.length / 2));
+
+    assertThrows(IOException.class, () -> readLines(file.toFile()));
+  }
+
+  private List<String> readLines(File file) throws IOException {
+    List<String> lines = new ArrayList<>();
+    try (BufferedReader reader = InputFiles.openReader(file)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lines.add(line);
+      }
+    }
+    return lines;
+  }
+}
@@ -0,0 +1,65 @@
+package com.mami.processors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LineClassifierTest {
+  private static final String INTEGER_REGEX = "^\\d+$";
+  private static final String DECIMAL_REGEX = "^-?\\d+\\.\\d+(?:[eE][-+]?\\d+)?$";
+  private static final String NUMERIC_REGEX = "^-?\\d+(\\.\\d+)?(E-?\\d+)?$";
+
+  private static final String ALPHABET = "0123456789-+.eEx \n٣";
+
+  @Test
+  void testKnownLines() {
+    List<String> lines = List.of("", "0", "007", "123", "-123", "1.5", "-1.5", "1.", ".5", "-", "-.",
+        "1.5e10", "1.5E10", "1.5E-10", "1.5E+10", "1.5e-10", "1.5E", "1.5E-", "1E5", "1E-5", "-1E5", "1e5",
+        "1.E5", "1..5", "1.5.5", "12a", "abc", "Hello", "10050 alex", "1.528535047E-25", "٣", "123\n", "--1");
+
+    for (String line : lines) {
+      assertSameAsRegex(line);
+    }
+  }
+
+  @Test
+  void testRandomLinesMatchRegex() {
+    Random random = new Random(42);
+    StringBuilder builder = new StringBuilder();
+
+    for (int i = 0; i < 200_000; i++) {
+      builder.setLength(0);
+      int length = random.nextInt(9);
+      for (int j = 0; j < length; j++) {
+        builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+      }
+      assertSameAsRegex(builder.toString());
+    }
+  }
+
+  @Test
+  void testClassifyCombinesCategories() {
+    assertEquals(LineClassifier.INTEGER, LineClassifier.classify("42"));
+    assertEquals(LineClassifier.DECIMAL, LineClassifier.classify("4.2"));
+    assertEquals(LineClassifier.DECIMAL | LineClassifier.TEXT, LineClassifier.classify("4.2e1"));
+    assertEquals(LineClassifier.TEXT, LineClassifier.classify("abc"));
+    assertEquals(LineClassifier.NONE, LineClassifier.classify("-42"));
+    assertEquals(LineClassifier.NONE, LineClassifier.classify(""));
+  }
+
+  private void assertSameAsRegex(String line) {
+    int expected = LineClassifier.NONE;
+    if (line.matches(INTEGER_REGEX)) {
+      expected |= LineClassifier.INTEGER;
+    }
+    if (!line.isEmpty() && line.matches(DECIMAL_REGEX)) {
+      expected |= LineClassifier.DECIMAL;
+    }
+    if (!line.isEmpty() && !line.matches(NUMERIC_REGEX)) {
+      expected |= LineClassifier.TEXT;
+    }
+    assertEquals(expected, LineClassifier.classify(line), () -> "Line: '" + line + "'");
+  }
+}
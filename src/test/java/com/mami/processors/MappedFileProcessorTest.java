@@ -0,0 +1,128 @@
+package com.mami.processors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.mami.metrics.Metrics;
+import com.mami.output.FileOutputSink;
+import com.mami.output.OutputSink;
+import com.mami.statistics.DecimalStatisticsImpl;
+import com.mami.statistics.NumberStatisticsImpl;
+import com.mami.statistics.TextStatisticsImpl;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedFileProcessorTest {
+  private static final String MIXED_INPUT = "Lorem ipsum\r\n45\r\n  3.1415 \t\n-0.001\n-45\n1.5e10\n1.5E-10\n"
+      + "Пример\n\n100500\r10050 alex\n123456789012345678901234567890\n999999999999999999\n"
+      + "тестовое задание\n1.528535047E-25\n007\nlast";
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testOutputMatchesSinglePassProcessor() throws IOException {
+    assertMatchesSinglePass(MappedFileProcessor.DEFAULT_WINDOW_SIZE);
+  }
+
+  @Test
+  void testSmallWindowsMatchSinglePassProcessor() throws IOException {
+    assertMatchesSinglePass(40);
+  }
+
+  @Test
+  void testLineLongerThanWindowFails() throws IOException {
+    File inputFile = tempDir.resolve("input.txt").toFile();
+    Files.writeString(inputFile.toPath(), "a".repeat(100) + "\n1\n");
+
+    try (OutputSink intSink = sink("integers.txt");
+         OutputSink floatSink = sink("floats.txt");
+         OutputSink stringSink = sink("strings.txt")) {
+      MappedFileProcessor processor =
+          new MappedFileProcessor(new NumberStatisticsImpl(), new DecimalStatisticsImpl(), new TextStatisticsImpl(),
+              intSink, floatSink, stringSink, 10);
+      assertThrows(IOException.class, () -> processor.processFile(inputFile));
+    }
+  }
+
+  @Test
+  void testCrLfLineCountMatchesReadLine() throws IOException {
+    File inputFile = tempDir.resolve("input.txt").toFile();
+    // При окне в 6 байт "\r\n" второй строки разрывается границей окон
+    Files.writeString(inputFile.toPath(), "1\r\n22\r\nabcd\r\n\r\n3.5\rlast\r\n");
+
+    Metrics expected = new Metrics();
+    try (OutputSink intSink = sink("expected_integers.txt");
+         OutputSink floatSink = sink("expected_floats.txt");
+         OutputSink stringSink = sink("expected_strings.txt")) {
+      SinglePassProcessor processor = new SinglePassProcessor(new NumberStatisticsImpl(),
+          new DecimalStatisticsImpl(), new TextStatisticsImpl(), intSink, floatSink, stringSink);
+      processor.setMetrics(expected);
+      processor.processFile(inputFile);
+    }
+    assertEquals(6, expected.getLines());
+
+    for (int windowSize : new int[] {MappedFileProcessor.DEFAULT_WINDOW_SIZE, 6, 7}) {
+      Metrics metrics = new Metrics();
+      try (OutputSink intSink = sink("integers.txt");
+           OutputSink floatSink = sink("floats.txt");
+           OutputSink stringSink = sink("strings.txt")) {
+        MappedFileProcessor processor = new MappedFileProcessor(new NumberStatisticsImpl(),
+            new DecimalStatisticsImpl(), new TextStatisticsImpl(), intSink, floatSink, stringSink, windowSize);
+        processor.setMetrics(metrics);
+        processor.processFile(inputFile);
+      }
+      assertEquals(expected.getLines(), metrics.getLines(), "окно " + windowSize);
+      assertEquals(expected.getLines(), metrics.getFiles().get(0).lines(), "окно " + windowSize);
+      assertEquals("abcd\nlast\n", read("strings.txt"));
+    }
+  }
+
+  private void assertMatchesSinglePass(int windowSize) throws IOException {
+    File inputFile = tempDir.resolve("input.txt").toFile();
+    Files.writeString(inputFile.toPath(), MIXED_INPUT, StandardCharsets.UTF_8);
+
+    NumberStatisticsImpl expectedNumbers = new NumberStatisticsImpl();
+    DecimalStatisticsImpl expectedDecimals = new DecimalStatisticsImpl();
+    TextStatisticsImpl expectedText = new TextStatisticsImpl();
+    try (OutputSink intSink = sink("expected_integers.txt");
+         OutputSink floatSink = sink("expected_floats.txt");
+         OutputSink stringSink = sink("expected_strings.txt")) {
+      new SinglePassProcessor(expectedNumbers, expectedDecimals, expectedText, intSink, floatSink, stringSink)
+          .processFile(inputFile);
+    }
+
+    NumberStatisticsImpl mappedNumbers = new NumberStatisticsImpl();
+    DecimalStatisticsImpl mappedDecimals = new DecimalStatisticsImpl();
+    TextStatisticsImpl mappedText = new TextStatisticsImpl();
+    try (OutputSink intSink = sink("integers.txt");
+         OutputSink floatSink = sink("floats.txt");
+         OutputSink stringSink = sink("strings.txt")) {
+      new MappedFileProcessor(mappedNumbers, mappedDecimals, mappedText, intSink, floatSink, stringSink, windowSize)
+          .processFile(inputFile);
+    }
+
+    assertEquals(read("expected_integers.txt"), read("integers.txt"));
+    assertEquals(read("expected_floats.txt"), read("floats.txt"));
+    assertEquals(read("expected_strings.txt"), read("strings.txt"));
+    assertEquals(expectedNumbers.getSum(), mappedNumbers.getSum());
+    assertEquals(expectedNumbers.getMax(), mappedNumbers.getMax());
+    assertEquals(expectedDecimals.getSum(), mappedDecimals.getSum());
+    assertEquals(expectedDecimals.getMin(), mappedDecimals.getMin());
+    assertEquals(expectedText.getCount(), mappedText.getCount());
+    assertEquals(expectedText.getMin(), mappedText.getMin());
+  }
+
+  private OutputSink sink(String name) {
+    return new FileOutputSink(tempDir.resolve(name).toFile(), false);
+  }
+
+  private String read(String name) throws IOException {
+    return Files.readString(tempDir.resolve(name));
+  }
+}
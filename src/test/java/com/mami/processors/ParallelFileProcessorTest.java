@@ -0,0 +1,129 @@
+package com.mami.processors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.mami.output.FileOutputSink;
+import com.mami.output.OutputSink;
+import com.mami.statistics.DecimalStatisticsImpl;
+import com.mami.statistics.NumberStatisticsImpl;
+import com.mami.statistics.TextStatisticsImpl;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ParallelFileProcessorTest {
+  @TempDir
+  Path tempDir;
+
+  private List<File> inputFiles;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Random random = new Random(7);
+    inputFiles = new ArrayList<>();
+
+    for (int i = 0; i < 25; i++) {
+      StringBuilder content = new StringBuilder();
+      int lines = random.nextInt(500);
+      for (int j = 0; j < lines; j++) {
+        switch (random.nextInt(3)) {
+          case 0 -> content.append(random.nextInt(1_000_000));
+          case 1 -> content.append(random.nextInt(1000)).append('.').append(random.nextInt(1000));
+          default -> content.append("file").append(i).append(" line ").append(j);
+        }
+        content.append('\n');
+      }
+      Path input = tempDir.resolve("input" + i + ".txt");
+      Files.writeString(input, content);
+      inputFiles.add(input.toFile());
+    }
+  }
+
+  @Test
+  void testParallelOutputMatchesSequential() throws IOException {
+    assertParallelOutputMatchesSequential(ParallelFileProcessor.DEFAULT_CHUNK_SIZE);
+  }
+
+  @Test
+  void testChunkedOutputMatchesSequential() throws IOException {
+    assertParallelOutputMatchesSequential(100);
+  }
+
+  private void assertParallelOutputMatchesSequential(long chunkSize) throws IOException {
+    NumberStatisticsImpl sequentialNumbers = new NumberStatisticsImpl();
+    DecimalStatisticsImpl sequentialDecimals = new DecimalStatisticsImpl();
+    TextStatisticsImpl sequentialText = new TextStatisticsImpl();
+    try (OutputSink intSink = sink("seq_integers.txt");
+         OutputSink floatSink = sink("seq_floats.txt");
+         OutputSink stringSink = sink("seq_strings.txt")) {
+      SinglePassProcessor processor =
+          new SinglePassProcessor(sequentialNumbers, sequentialDecimals, sequentialText, intSink, floatSink,
+              stringSink);
+      for (File file : inputFiles) {
+        processor.processFile(file);
+      }
+    }
+
+    NumberStatisticsImpl parallelNumbers = new NumberStatisticsImpl();
+    DecimalStatisticsImpl parallelDecimals = new DecimalStatisticsImpl();
+    TextStatisticsImpl parallelText = new TextStatisticsImpl();
+    try (OutputSink intSink = sink("par_integers.txt");
+         OutputSink floatSink = sink("par_floats.txt");
+         OutputSink stringSink = sink("par_strings.txt")) {
+      new ParallelFileProcessor(parallelNumbers, parallelDecimals, parallelText, intSink, floatSink, stringSink, 4,
+          chunkSize).processFiles(inputFiles);
+    }
+
+    assertEquals(read("seq_integers.txt"), read("par_integers.txt"));
+    assertEquals(read("seq_floats.txt"), read("par_floats.txt"));
+    assertEquals(read("seq_strings.txt"), read("par_strings.txt"));
+
+    assertEquals(sequentialNumbers.getCount(), parallelNumbers.getCount());
+    assertEquals(sequentialNumbers.getSum(), parallelNumbers.getSum());
+    assertEquals(sequentialNumbers.getMin(), parallelNumbers.getMin());
+    assertEquals(sequentialNumbers.getMax(), parallelNumbers.getMax());
+    assertEquals(sequentialDecimals.getSum(), parallelDecimals.getSum());
+    assertEquals(sequentialDecimals.getAverage(), parallelDecimals.getAverage());
+    assertEquals(sequentialText.getCount(), parallelText.getCount());
+    assertEquals(sequentialText.getMax(), parallelText.getMax());
+  }
+
+  @Test
+  void testMissingInputFileFailsProcessing() {
+    inputFiles.add(tempDir.resolve("missing.txt").toFile());
+
+    assertThrows(IOException.class, () -> {
+      try (OutputSink intSink = sink("integers.txt");
+           OutputSink floatSink = sink("floats.txt");
+           OutputSink stringSink = sink("strings.txt")) {
+        new ParallelFileProcessor(new NumberStatisticsImpl(), new DecimalStatisticsImpl(), new TextStatisticsImpl(),
+            intSink, floatSink, stringSink, 3).processFiles(inputFiles);
+      }
+    });
+  }
+
+  @Test
+  void testRejectsNonPositiveThreads() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new ParallelFileProcessor(new NumberStatisticsImpl(), new DecimalStatisticsImpl(),
+            new TextStatisticsImpl(), sink("a"), sink("b"), sink("c"), 0));
+    assertFalse(tempDir.resolve("a").toFile().exists());
+  }
+
+  private OutputSink sink(String name) {
+    return new FileOutputSink(tempDir.resolve(name).toFile(), false);
+  }
+
+  private String read(String name) throws IOException {
+    return Files.readString(tempDir.resolve(name));
+  }
+}
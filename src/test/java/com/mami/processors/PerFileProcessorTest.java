@@ -0,0 +1,146 @@
+package com.mami.processors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.mami.output.FileOutputSink;
+import com.mami.output.OutputSink;
+import com.mami.statistics.DecimalStatisticsImpl;
+import com.mami.statistics.NumberStatisticsImpl;
+import com.mami.statistics.TextStatisticsImpl;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PerFileProcessorTest {
+  @TempDir
+  Path tempDir;
+
+  private List<File> inputFiles;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Random random = new Random(5);
+    inputFiles = new ArrayList<>();
+
+    for (int i = 0; i < 300; i++) {
+      StringBuilder content = new StringBuilder();
+      int lines = 1 + random.nextInt(10);
+      for (int j = 0; j < lines; j++) {
+        switch (random.nextInt(3)) {
+          case 0 -> content.append(random.nextInt(1_000_000));
+          case 1 -> content.append(random.nextInt(1000)).append('.').append(random.nextInt(1000));
+          default -> content.append("file").append(i).append(" line ").append(j);
+        }
+        content.append('\n');
+      }
+      Path input = tempDir.resolve("input" + i + ".txt");
+      Files.writeString(input, content);
+      inputFiles.add(input.toFile());
+    }
+  }
+
+  @Test
+  void testOutputMatchesSequential() throws IOException {
+    NumberStatisticsImpl sequentialNumbers = new NumberStatisticsImpl();
+    DecimalStatisticsImpl sequentialDecimals = new DecimalStatisticsImpl();
+    TextStatisticsImpl sequentialText = new TextStatisticsImpl();
+    try (OutputSink intSink = sink("seq_integers.txt");
+         OutputSink floatSink = sink("seq_floats.txt");
+         OutputSink stringSink = sink("seq_strings.txt")) {
+      SinglePassProcessor processor =
+          new SinglePassProcessor(sequentialNumbers, sequentialDecimals, sequentialText, intSink, floatSink,
+              stringSink);
+      for (File file : inputFiles) {
+        processor.processFile(file);
+      }
+    }
+
+    NumberStatisticsImpl perFileNumbers = new NumberStatisticsImpl();
+    DecimalStatisticsImpl perFileDecimals = new DecimalStatisticsImpl();
+    TextStatisticsImpl perFileText = new TextStatisticsImpl();
+    PerFileProcessor processor;
+    try (OutputSink intSink = sink("vt_integers.txt");
+         OutputSink floatSink = sink("vt_floats.txt");
+         OutputSink stringSink = sink("vt_strings.txt")) {
+      processor = new PerFileProcessor(perFileNumbers, perFileDecimals, perFileText, intSink, floatSink, stringSink,
+          16);
+      processor.processFiles(inputFiles);
+    }
+
+    assertEquals(inputFiles.size(), processor.getProcessedFiles());
+    assertEquals(read("seq_integers.txt"), read("vt_integers.txt"));
+    assertEquals(read("seq_floats.txt"), read("vt_floats.txt"));
+    assertEquals(read("seq_strings.txt"), read("vt_strings.txt"));
+    assertEquals(sequentialNumbers.getSum(), perFileNumbers.getSum());
+    assertEquals(sequentialDecimals.getSum(), perFileDecimals.getSum());
+    assertEquals(sequentialText.getCount(), perFileText.getCount());
+  }
+
+  @Test
+  void testMissingAndEmptyFilesAreSkipped() throws IOException {
+    Path empty = tempDir.resolve("empty.txt");
+    Files.createFile(empty);
+    List<File> files = List.of(tempDir.resolve("missing.txt").toFile(), empty.toFile(), inputFiles.get(0));
+
+    PerFileProcessor processor;
+    try (OutputSink intSink = sink("integers.txt");
+         OutputSink floatSink = sink("floats.txt");
+         OutputSink stringSink = sink("strings.txt")) {
+      processor = new PerFileProcessor(new NumberStatisticsImpl(), new DecimalStatisticsImpl(),
+          new TextStatisticsImpl(), intSink, floatSink, stringSink);
+      processor.processFiles(files);
+    }
+
+    assertEquals(1, processor.getProcessedFiles());
+  }
+
+  @Test
+  void testUnreadableFilesAreSkipped() throws IOException {
+    // Каталог не открывается на чтение даже под root, в отличие от файла без прав
+    Path directory = Files.createDirectory(tempDir.resolve("directory.txt"));
+    Path unreadable = Files.writeString(tempDir.resolve("unreadable.txt"), "42\n");
+    unreadable.toFile().setReadable(false);
+    List<File> files = List.of(inputFiles.get(0), directory.toFile(), unreadable.toFile(), inputFiles.get(1));
+
+    PerFileProcessor processor;
+    try (OutputSink intSink = sink("integers.txt");
+         OutputSink floatSink = sink("floats.txt");
+         OutputSink stringSink = sink("strings.txt")) {
+      processor = new PerFileProcessor(new NumberStatisticsImpl(), new DecimalStatisticsImpl(),
+          new TextStatisticsImpl(), intSink, floatSink, stringSink);
+      processor.processFiles(files);
+    }
+
+    int expected = Files.isReadable(unreadable) ? 3 : 2;
+    assertEquals(expected, processor.getProcessedFiles());
+    StringBuilder strings = new StringBuilder();
+    for (File file : List.of(inputFiles.get(0), inputFiles.get(1))) {
+      Files.readAllLines(file.toPath()).stream().filter(line -> line.startsWith("file"))
+          .forEach(line -> strings.append(line).append('\n'));
+    }
+    assertEquals(strings.toString(), read("strings.txt"));
+  }
+
+  @Test
+  void testRejectsNonPositiveWindow() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new PerFileProcessor(new NumberStatisticsImpl(), new DecimalStatisticsImpl(),
+            new TextStatisticsImpl(), sink("a"), sink("b"), sink("c"), 0));
+  }
+
+  private OutputSink sink(String name) {
+    return new FileOutputSink(tempDir.resolve(name).toFile(), false);
+  }
+
+  private String read(String name) throws IOException {
+    return Files.readString(tempDir.resolve(name));
+  }
+}
@@ -0,0 +1,187 @@
+package com.mami.processors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mami.metrics.Metrics;
+import com.mami.output.FileOutputSink;
+import com.mami.output.OutputSink;
+import com.mami.statistics.DecimalStatisticsImpl;
+import com.mami.statistics.NumberStatisticsImpl;
+import com.mami.statistics.TextStatisticsImpl;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PipelineProcessorTest {
+  @TempDir
+  Path tempDir;
+
+  private List<File> inputFiles;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Random random = new Random(11);
+    inputFiles = new ArrayList<>();
+
+    for (int i = 0; i < 10; i++) {
+      StringBuilder content = new StringBuilder();
+      int lines = random.nextInt(300);
+      for (int j = 0; j < lines; j++) {
+        switch (random.nextInt(4)) {
+          case 0 -> content.append(random.nextInt(1_000_000));
+          case 1 -> content.append(random.nextInt(1000)).append('.').append(random.nextInt(1000));
+          case 2 -> content.append("1.5e").append(random.nextInt(10));
+          default -> content.append("file").append(i).append(" line ").append(j);
+        }
+        content.append('\n');
+      }
+      Path input = tempDir.resolve("input" + i + ".txt");
+      Files.writeString(input, content);
+      inputFiles.add(input.toFile());
+    }
+  }
+
+  @Test
+  void testPipelineOutputMatchesSequential() throws IOException {
+    NumberStatisticsImpl sequentialNumbers = new NumberStatisticsImpl();
+    DecimalStatisticsImpl sequentialDecimals = new DecimalStatisticsImpl();
+    TextStatisticsImpl sequentialText = new TextStatisticsImpl();
+    try (OutputSink intSink = sink("seq_integers.txt");
+         OutputSink floatSink = sink("seq_floats.txt");
+         OutputSink stringSink = sink("seq_strings.txt")) {
+      SinglePassProcessor processor =
+          new SinglePassProcessor(sequentialNumbers, sequentialDecimals, sequentialText, intSink, floatSink,
+              stringSink);
+      for (File file : inputFiles) {
+        processor.processFile(file);
+      }
+    }
+
+    NumberStatisticsImpl pipelineNumbers = new NumberStatisticsImpl();
+    DecimalStatisticsImpl pipelineDecimals = new DecimalStatisticsImpl();
+    TextStatisticsImpl pipelineText = new TextStatisticsImpl();
+    try (OutputSink intSink = sink("pipe_integers.txt");
+         OutputSink floatSink = sink("pipe_floats.txt");
+         OutputSink stringSink = sink("pipe_strings.txt")) {
+      // Маленькие пакеты и очереди, чтобы стадии часто упирались друг в друга
+      new PipelineProcessor(pipelineNumbers, pipelineDecimals, pipelineText, intSink, floatSink, stringSink, 7, 2)
+          .processFiles(inputFiles);
+    }
+
+    assertEquals(read("seq_integers.txt"), read("pipe_integers.txt"));
+    assertEquals(read("seq_floats.txt"), read("pipe_floats.txt"));
+    assertEquals(read("seq_strings.txt"), read("pipe_strings.txt"));
+
+    assertEquals(sequentialNumbers.getCount(), pipelineNumbers.getCount());
+    assertEquals(sequentialNumbers.getSum(), pipelineNumbers.getSum());
+    assertEquals(sequentialDecimals.getSum(), pipelineDecimals.getSum());
+    assertEquals(sequentialText.getCount(), pipelineText.getCount());
+    assertEquals(sequentialText.getMin(), pipelineText.getMin());
+  }
+
+  @Test
+  void testSharedSinkKeepsInputOrder() throws IOException {
+    try (OutputSink shared = sink("seq_all.txt")) {
+      SinglePassProcessor processor =
+          new SinglePassProcessor(new NumberStatisticsImpl(), new DecimalStatisticsImpl(), new TextStatisticsImpl(),
+              shared, shared, shared);
+      for (File file : inputFiles) {
+        processor.processFile(file);
+      }
+    }
+
+    try (OutputSink shared = sink("pipe_all.txt")) {
+      new PipelineProcessor(new NumberStatisticsImpl(), new DecimalStatisticsImpl(), new TextStatisticsImpl(),
+          shared, shared, shared, 5, 1).processFiles(inputFiles);
+    }
+
+    assertEquals(read("seq_all.txt"), read("pipe_all.txt"));
+  }
+
+  @Test
+  void testWriteTimeIsCountedOnceInWriterStage() throws IOException {
+    Path input = tempDir.resolve("numbers.txt");
+    Files.writeString(input, "1\n2\n3\n4\n5\n6\n7\n8\n9\n10\n");
+    long[] writeNanos = new long[1];
+    OutputSink slow = new OutputSink() {
+      @Override
+      public void write(String line) throws IOException {
+        long start = System.nanoTime();
+        try {
+          Thread.sleep(20);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException(e);
+        }
+        writeNanos[0] += System.nanoTime() - start;
+      }
+
+      @Override
+      public void onInputFileProcessed() {
+      }
+
+      @Override
+      public void flush() {
+      }
+
+      @Override
+      public boolean isCreated() {
+        return true;
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+
+    Metrics metrics = new Metrics();
+    // Пакет из одной строки и очередь на один пакет: классификация всё время ждёт медленную запись
+    PipelineProcessor processor = new PipelineProcessor(new NumberStatisticsImpl(), new DecimalStatisticsImpl(),
+        new TextStatisticsImpl(), slow, slow, slow, 1, 1);
+    processor.setMetrics(metrics);
+    processor.processFiles(List.of(input.toFile()));
+
+    assertTrue(metrics.getWriteNanos() >= writeNanos[0]);
+    // Ожидание места в очереди стадией классификации не должно прибавляться ко времени записи
+    assertTrue(metrics.getWriteNanos() < writeNanos[0] * 3 / 2,
+        metrics.getWriteNanos() + " vs " + writeNanos[0]);
+  }
+
+  @Test
+  void testMissingInputFileFailsProcessing() {
+    inputFiles.add(1, tempDir.resolve("missing.txt").toFile());
+
+    assertThrows(IOException.class, () -> {
+      try (OutputSink intSink = sink("integers.txt");
+           OutputSink floatSink = sink("floats.txt");
+           OutputSink stringSink = sink("strings.txt")) {
+        new PipelineProcessor(new NumberStatisticsImpl(), new DecimalStatisticsImpl(), new TextStatisticsImpl(),
+            intSink, floatSink, stringSink, 3, 1).processFiles(inputFiles);
+      }
+    });
+  }
+
+  @Test
+  void testRejectsNonPositiveBatchSize() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new PipelineProcessor(new NumberStatisticsImpl(), new DecimalStatisticsImpl(),
+            new TextStatisticsImpl(), sink("a"), sink("b"), sink("c"), 0, 1));
+  }
+
+  private OutputSink sink(String name) {
+    return new FileOutputSink(tempDir.resolve(name).toFile(), false);
+  }
+
+  private String read(String name) throws IOException {
+    return Files.readString(tempDir.resolve(name));
+  }
+}
@@ -0,0 +1,175 @@
+package com.mami.processors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.mami.metrics.Metrics;
+import com.mami.output.FileOutputSink;
+import com.mami.output.OutputSink;
+import com.mami.statistics.DecimalStatisticsImpl;
+import com.mami.statistics.NumberStatisticsImpl;
+import com.mami.statistics.Stats;
+import com.mami.statistics.TextStatisticsImpl;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+class SinglePassProcessorTest {
+  private static final String MIXED_INPUT = """
+      Lorem ipsum
+      45
+        3.1415 \t
+      -0.001
+      -45
+      1.5e10
+      1.5E-10
+      1E5
+
+      100500
+      10050 alex
+      """;
+
+  @TempDir
+  Path tempDir;
+
+  private Stats<BigInteger> numberStats;
+  private Stats<BigDecimal> decimalStats;
+  private Stats<String> textStats;
+  private File inputFile;
+  private File intFile;
+  private File floatFile;
+  private File stringFile;
+
+  @BeforeEach
+  void setUp() {
+    numberStats = Mockito.mock(Stats.class);
+    decimalStats = Mockito.mock(Stats.class);
+    textStats = Mockito.mock(Stats.class);
+    inputFile = tempDir.resolve("input.txt").toFile();
+    intFile = tempDir.resolve("integers.txt").toFile();
+    floatFile = tempDir.resolve("floats.txt").toFile();
+    stringFile = tempDir.resolve("strings.txt").toFile();
+  }
+
+  @Test
+  void testProcessFile_DispatchesEachCategory() throws IOException {
+    Files.writeString(inputFile.toPath(), "123\n4.5\nabc\n", StandardOpenOption.CREATE);
+
+    processFile(false, false, false);
+
+    assertEquals("123\n", Files.readString(intFile.toPath()));
+    assertEquals("4.5\n", Files.readString(floatFile.toPath()));
+    assertEquals("abc\n", Files.readString(stringFile.toPath()));
+
+    verify(numberStats, times(1)).updateStats(new BigInteger("123"));
+    verify(decimalStats, times(1)).updateStats(new BigDecimal("4.5"));
+    verify(textStats, times(1)).updateStats("abc");
+  }
+
+  @Test
+  void testProcessFile_CreatesOnlyNeededFiles() throws IOException {
+    Files.writeString(inputFile.toPath(), "123\n456\n", StandardOpenOption.CREATE);
+
+    processFile(false, false, false);
+
+    assertTrue(intFile.exists());
+    assertFalse(floatFile.exists());
+    assertFalse(stringFile.exists());
+    verify(decimalStats, never()).updateStats(any());
+    verify(textStats, never()).updateStats(any());
+  }
+
+  @Test
+  void testProcessFile_AppendsToExistingFile() throws IOException {
+    Files.writeString(intFile.toPath(), "100\n", StandardOpenOption.CREATE);
+    Files.writeString(inputFile.toPath(), "200\n", StandardOpenOption.CREATE);
+
+    processFile(true, false, false);
+
+    assertEquals("100\n200\n", Files.readString(intFile.toPath()));
+  }
+
+  @Test
+  void testProcessFile_MatchesCompatProcessors() throws IOException {
+    Files.writeString(inputFile.toPath(), MIXED_INPUT, StandardOpenOption.CREATE);
+
+    NumberStatisticsImpl compatNumberStats = new NumberStatisticsImpl();
+    DecimalStatisticsImpl compatDecimalStats = new DecimalStatisticsImpl();
+    TextStatisticsImpl compatTextStats = new TextStatisticsImpl();
+    File compatIntFile = tempDir.resolve("compat_integers.txt").toFile();
+    File compatFloatFile = tempDir.resolve("compat_floats.txt").toFile();
+    File compatStringFile = tempDir.resolve("compat_strings.txt").toFile();
+    new NumberProcessorImpl(compatNumberStats).processFile(inputFile, compatIntFile, false);
+    new DecimalProcessorImpl(compatDecimalStats).processFile(inputFile, compatFloatFile, false);
+    new TextProcessorImpl(compatTextStats).processFile(inputFile, compatStringFile, false);
+
+    NumberStatisticsImpl singlePassNumberStats = new NumberStatisticsImpl();
+    DecimalStatisticsImpl singlePassDecimalStats = new DecimalStatisticsImpl();
+    TextStatisticsImpl singlePassTextStats = new TextStatisticsImpl();
+    try (OutputSink intSink = new FileOutputSink(intFile, false);
+         OutputSink floatSink = new FileOutputSink(floatFile, false);
+         OutputSink stringSink = new FileOutputSink(stringFile, false)) {
+      new SinglePassProcessor(singlePassNumberStats, singlePassDecimalStats, singlePassTextStats, intSink, floatSink,
+          stringSink).processFile(inputFile);
+    }
+
+    assertEquals(Files.readString(compatIntFile.toPath()), Files.readString(intFile.toPath()));
+    assertEquals(Files.readString(compatFloatFile.toPath()), Files.readString(floatFile.toPath()));
+    assertEquals(Files.readString(compatStringFile.toPath()), Files.readString(stringFile.toPath()));
+    assertEquals(compatNumberStats.getSum(), singlePassNumberStats.getSum());
+    assertEquals(compatDecimalStats.getSum(), singlePassDecimalStats.getSum());
+    assertEquals(compatTextStats.getCount(), singlePassTextStats.getCount());
+  }
+
+  @Test
+  void testProcessFile_MetricsDoNotChangeResult() throws IOException {
+    Files.writeString(inputFile.toPath(), MIXED_INPUT, StandardOpenOption.CREATE);
+
+    NumberStatisticsImpl numberStatistics = new NumberStatisticsImpl();
+    DecimalStatisticsImpl decimalStatistics = new DecimalStatisticsImpl();
+    TextStatisticsImpl textStatistics = new TextStatisticsImpl();
+    Metrics metrics = new Metrics();
+    try (OutputSink intSink = new FileOutputSink(intFile, false);
+         OutputSink floatSink = new FileOutputSink(floatFile, false);
+         OutputSink stringSink = new FileOutputSink(stringFile, false)) {
+      SinglePassProcessor processor =
+          new SinglePassProcessor(numberStatistics, decimalStatistics, textStatistics, intSink, floatSink,
+              stringSink);
+      processor.setMetrics(metrics);
+      processor.processFile(inputFile);
+    }
+
+    assertEquals("45\n100500\n", Files.readString(intFile.toPath()));
+    assertEquals(numberStatistics.getCount(), metrics.getIntegers());
+    assertEquals(decimalStatistics.getCount(), metrics.getDecimals());
+    assertEquals(textStatistics.getCount(), metrics.getTexts());
+    assertEquals(MIXED_INPUT.lines().count(), metrics.getLines());
+    assertEquals(inputFile.length(), metrics.getBytes());
+    assertEquals(1, metrics.getFiles().size());
+    assertEquals(inputFile.length(), metrics.getFiles().get(0).bytes());
+    assertTrue(metrics.getClassifyNanos() > 0);
+  }
+
+  private void processFile(boolean isIntFileCreated, boolean isFloatFileCreated, boolean isStringFileCreated)
+      throws IOException {
+    try (OutputSink intSink = new FileOutputSink(intFile, isIntFileCreated);
+         OutputSink floatSink = new FileOutputSink(floatFile, isFloatFileCreated);
+         OutputSink stringSink = new FileOutputSink(stringFile, isStringFileCreated)) {
+      new SinglePassProcessor(numberStats, decimalStats, textStats, intSink, floatSink, stringSink)
+          .processFile(inputFile);
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.mami.sort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigInteger;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class NumericOrderTest {
+
+  @Test
+  void testMatchesBigIntegerOrder() {
+    List<String> values = List.of("0", "-0", "000", "7", "007", "10", "9", "-9", "-10", "-007",
+        "123456789012345678901234567890", "-123456789012345678901234567890", "99999999999999999999");
+    for (String a : values) {
+      for (String b : values) {
+        int expected = Integer.signum(new BigInteger(a).compareTo(new BigInteger(b)));
+        assertEquals(expected, Integer.signum(NumericOrder.compareIntegers(a, b)), a + " и " + b);
+      }
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.mami.sort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mami.output.AtomicFileOutputSink;
+import com.mami.output.FileOutputSink;
+import com.mami.output.FlushPolicy;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SortingOutputSinkTest {
+
+  @Test
+  void testSortsIntegersByValueInMemory(@TempDir Path dir) throws IOException {
+    Path output = dir.resolve("integers.txt");
+    try (SortingOutputSink<String> sink = SortingOutputSink.forIntegers(new FileOutputSink(output.toFile(), false),
+        SortingOutputSink.DEFAULT_RUN_BYTES, SortingOutputSink.DEFAULT_FAN_IN, dir)) {
+      for (String line : List.of("10", "9", "007", "123456789012345678901234567890", "7", "0")) {
+        sink.write(line);
+      }
+      assertEquals(0, sink.getRunCount());
+    }
+    // Равные значения остаются в порядке поступления
+    assertEquals(List.of("0", "007", "7", "9", "10", "123456789012345678901234567890"), Files.readAllLines(output));
+  }
+
+  @Test
+  void testAbortDiscardsBufferedRunsAndKeepsAtomicOutput(@TempDir Path dir) throws IOException {
+    Path output = Files.writeString(dir.resolve("strings.txt"), "old\n");
+    SortingOutputSink<String> sink = SortingOutputSink.forText(
+        new AtomicFileOutputSink(output.toFile(), false, 1024, FlushPolicy.CLOSE, false), 1024, 2, dir);
+    for (int i = 0; i < 1000; i++) {
+      sink.write("line " + i);
+    }
+    sink.abort();
+    sink.close();
+
+    assertEquals(List.of("old"), Files.readAllLines(output));
+    try (Stream<Path> files = Files.list(dir)) {
+      assertEquals(1, files.count());
+    }
+  }
+
+  @Test
+  void testSortsDecimalsByBigDecimalValue(@TempDir Path dir) throws IOException {
+    Path output = dir.resolve("floats.txt");
+    try (SortingOutputSink<BigDecimal> sink = SortingOutputSink.forDecimals(
+        new FileOutputSink(output.toFile(), false), SortingOutputSink.DEFAULT_RUN_BYTES, 2, dir)) {
+      for (String line : List.of("1.50", "-2.5", "1.5e3", "0.001", "1.5", "-10.0", "2.0E-5")) {
+        sink.write(line);
+      }
+    }
+    assertEquals(List.of("-10.0", "-2.5", "2.0E-5", "0.001", "1.50", "1.5", "1.5e3"), Files.readAllLines(output));
+  }
+
+  @Test
+  void testMultiPassMergeMatchesStableSort(@TempDir Path dir) throws IOException {
+    Random random = new Random(3);
+    List<String> input = new ArrayList<>();
+    for (int i = 0; i < 20_000; i++) {
+      input.add("строка " + random.nextInt(5_000) + "-" + i % 3);
+    }
+    Path output = dir.resolve("strings.txt");
+    // Маленькие серии и слияние по две дают несколько промежуточных проходов
+    SortingOutputSink<String> sink =
+        SortingOutputSink.forText(new FileOutputSink(output.toFile(), false), 64 * 1024, 2, dir);
+    try (sink) {
+      for (String line : input) {
+        sink.write(line);
+      }
+    }
+
+    assertTrue(sink.getRunCount() > 4, "Серий: " + sink.getRunCount());
+    input.sort(Comparator.naturalOrder());
+    assertEquals(input, Files.readAllLines(output));
+    try (Stream<Path> files = Files.list(dir)) {
+      assertEquals(List.of(output), files.toList());
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package com.mami.statistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigInteger;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+
+class CategoryStatisticsImplTest {
+
+  @Test
+  void testMergeKeepsCountAndRange() {
+    CategoryStatisticsImpl<LocalDate> first = new CategoryStatisticsImpl<>("Даты", LocalDate::parse);
+    first.updateStats(LocalDate.of(2024, 5, 1));
+    first.updateStats(LocalDate.of(2023, 1, 1));
+    CategoryStatisticsImpl<LocalDate> second = first.createEmpty();
+    second.updateStats(LocalDate.of(2025, 1, 1));
+
+    first.merge(second);
+    first.merge(first.createEmpty());
+
+    assertEquals(3, first.getCount());
+    assertEquals(LocalDate.of(2023, 1, 1), first.getMin());
+    assertEquals(LocalDate.of(2025, 1, 1), first.getMax());
+    assertNull(first.snapshot().min());
+  }
+
+  @Test
+  void testNumericValuesAreInSnapshot() {
+    CategoryStatisticsImpl<BigInteger> stats = new CategoryStatisticsImpl<>("Шестнадцатеричные числа", BigInteger::new);
+    stats.updateStats(BigInteger.valueOf(255));
+    stats.updateStats(BigInteger.TEN);
+
+    StatsSnapshot snapshot = stats.snapshot();
+    assertEquals(2, snapshot.count());
+    assertEquals(BigInteger.TEN, snapshot.min());
+    assertEquals(BigInteger.valueOf(255), snapshot.max());
+
+    CategoryStatisticsImpl<BigInteger> restored = stats.createEmpty();
+    restored.restore(snapshot);
+    assertEquals(2, restored.getCount());
+    assertEquals(BigInteger.TEN, restored.getMin());
+    assertEquals(BigInteger.valueOf(255), restored.getMax());
+  }
+
+  @Test
+  void testRestoreContinuesRangeOfAnyType() {
+    CategoryStatisticsImpl<LocalDate> previous = new CategoryStatisticsImpl<>("Даты", LocalDate::parse);
+    previous.updateStats(LocalDate.of(2020, 1, 1));
+    previous.updateStats(LocalDate.of(2024, 2, 29));
+
+    CategoryStatisticsImpl<LocalDate> stats = previous.createEmpty();
+    stats.updateStats(LocalDate.of(2022, 6, 1));
+    stats.restore(previous.snapshot());
+    assertEquals(3, stats.getCount());
+    assertEquals(LocalDate.of(2020, 1, 1), stats.getMin());
+    assertEquals(LocalDate.of(2024, 2, 29), stats.getMax());
+
+    // Запуск без новых значений категории всё равно печатает диапазон прежних запусков
+    CategoryStatisticsImpl<LocalDate> empty = previous.createEmpty();
+    empty.restore(previous.snapshot());
+    assertEquals(LocalDate.of(2020, 1, 1), empty.getMin());
+  }
+}
@@ -0,0 +1,61 @@
+package com.mami.statistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class DecadeHistogramTest {
+
+  @Test
+  void testBucketsByDecade() {
+    DecadeHistogram histogram = new DecadeHistogram();
+    histogram.add(0);
+    histogram.add(9);
+    histogram.add(10);
+    histogram.add(99);
+    histogram.add(-1000);
+    histogram.add(new BigDecimal("0.05"));
+    histogram.add(new BigDecimal("100.0"));
+
+    assertEquals(1, histogram.count(0, 0));
+    assertEquals(1, histogram.count(1, 0));
+    assertEquals(2, histogram.count(1, 1));
+    assertEquals(1, histogram.count(1, 2));
+    assertEquals(1, histogram.count(1, -2));
+    assertEquals(1, histogram.count(-1, 3));
+  }
+
+  @Test
+  void testExtremeValuesGoToEdgeBuckets() {
+    DecadeHistogram histogram = new DecadeHistogram();
+    histogram.add(Long.MIN_VALUE);
+    histogram.add(Long.MAX_VALUE);
+    histogram.add(BigInteger.TEN.pow(100));
+    histogram.add(new BigDecimal("1e-50"));
+
+    assertEquals(1, histogram.count(-1, 18));
+    assertEquals(1, histogram.count(1, 18));
+    assertEquals(1, histogram.count(1, DecadeHistogram.MAX_EXPONENT));
+    assertEquals(1, histogram.count(1, DecadeHistogram.MIN_EXPONENT));
+  }
+
+  @Test
+  void testMergeAndLabels() {
+    DecadeHistogram first = new DecadeHistogram();
+    first.add(5);
+    first.add(-50);
+    DecadeHistogram second = new DecadeHistogram();
+    second.add(7);
+    second.add(0);
+    first.merge(second);
+
+    Map<String, Long> buckets = new LinkedHashMap<>();
+    first.forEachBucket(buckets::put);
+    assertEquals(Map.of("(-1e2; -1e1]", 1L, "0", 1L, "[1; 1e1)", 2L), buckets);
+    assertEquals("(-1e2; -1e1]", buckets.keySet().iterator().next());
+  }
+}
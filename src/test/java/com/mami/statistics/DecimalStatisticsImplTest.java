@@ -2,6 +2,7 @@ package com.mami.statistics;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.math.BigDecimal;
 import org.junit.jupiter.api.BeforeEach;
@@ -87,4 +88,88 @@ class DecimalStatisticsImplTest {
     assertEquals(new BigDecimal("0.00"), stats.getAverage());
     stats.printFullStats();
   }
+
+  @Test
+  void testAverageIsRecomputedAfterUpdate() {
+    stats.updateStats(new BigDecimal("1.0"));
+    stats.updateStats(new BigDecimal("2.0"));
+    assertEquals(new BigDecimal("1.50"), stats.getAverage());
+
+    stats.updateStats(new BigDecimal("6.0"));
+    assertEquals(new BigDecimal("3.00"), stats.getAverage());
+
+    DecimalStatisticsImpl other = new DecimalStatisticsImpl();
+    other.updateStats(new BigDecimal("11.0"));
+    stats.merge(other);
+    assertEquals(new BigDecimal("5.00"), stats.getAverage());
+  }
+
+  @Test
+  void testMergeEqualsSequentialUpdates() {
+    String[] values = {"3.2", "-1.10", "7.8", "1.528535047E-25", "7.80", "-5.3", "2.4"};
+    DecimalStatisticsImpl left = new DecimalStatisticsImpl();
+    DecimalStatisticsImpl middle = left.createEmpty();
+    DecimalStatisticsImpl right = left.createEmpty();
+
+    for (int i = 0; i < values.length; i++) {
+      stats.updateStats(new BigDecimal(values[i]));
+      (i < 2 ? left : i < 5 ? middle : right).updateStats(new BigDecimal(values[i]));
+    }
+    left.merge(middle);
+    left.merge(right);
+
+    assertEquals(stats.getCount(), left.getCount());
+    assertEquals(stats.getSum(), left.getSum());
+    assertEquals(stats.getMin(), left.getMin());
+    assertEquals(stats.getMax().toString(), left.getMax().toString());
+    assertEquals(stats.getAverage(), left.getAverage());
+  }
+
+  @Test
+  void testMergeRejectsForeignImplementation() {
+    assertThrows(IllegalArgumentException.class, () -> stats.merge(new Stats<>() {
+      @Override
+      public void updateStats(BigDecimal value) {
+      }
+
+      @Override
+      public void merge(Stats<BigDecimal> other) {
+      }
+
+      @Override
+      public Stats<BigDecimal> createEmpty() {
+        return this;
+      }
+
+      @Override
+      public StatsSnapshot snapshot() {
+        return null;
+      }
+
+      @Override
+      public void restore(StatsSnapshot snapshot) {
+      }
+
+      @Override
+      public void printShortStats() {
+      }
+
+      @Override
+      public void printFullStats() {
+      }
+    }));
+  }
+
+  @Test
+  void testRestoreFromSnapshotContinuesStatistics() {
+    DecimalStatisticsImpl stats = new DecimalStatisticsImpl();
+    stats.updateStats(new BigDecimal("1.5"));
+    stats.updateStats(new BigDecimal("-2.25"));
+    DecimalStatisticsImpl restored = new DecimalStatisticsImpl();
+    restored.restore(stats.snapshot());
+    restored.updateStats(new BigDecimal("10.0"));
+    stats.updateStats(new BigDecimal("10.0"));
+
+    assertEquals(stats.snapshot(), restored.snapshot());
+  }
 }
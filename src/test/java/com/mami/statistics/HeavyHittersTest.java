@@ -0,0 +1,62 @@
+package com.mami.statistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class HeavyHittersTest {
+
+  @Test
+  void testExactWhileCountersFit() {
+    HeavyHitters hitters = new HeavyHitters(10);
+    for (String value : new String[] {"a", "b", "a", "c", "a", "b"}) {
+      hitters.add(value);
+    }
+    assertEquals(List.of(Map.entry("a", 3L), Map.entry("b", 2L), Map.entry("c", 1L)), hitters.top(5));
+    assertEquals(0, hitters.getError());
+  }
+
+  @Test
+  void testFrequentValuesSurviveNoise() {
+    HeavyHitters hitters = new HeavyHitters(100);
+    for (int i = 0; i < 100_000; i++) {
+      hitters.add("noise" + i);
+      if (i % 10 == 0) {
+        hitters.add("frequent");
+      }
+      if (i % 20 == 0) {
+        hitters.add("second");
+      }
+    }
+    List<Map.Entry<String, Long>> top = hitters.top(2);
+    assertEquals("frequent", top.get(0).getKey());
+    assertEquals("second", top.get(1).getKey());
+    assertBounds(10_000, top.get(0).getValue(), hitters.getError());
+    assertBounds(5_000, top.get(1).getValue(), hitters.getError());
+  }
+
+  @Test
+  void testMergeKeepsCapacityAndBounds() {
+    HeavyHitters first = new HeavyHitters(20);
+    HeavyHitters second = first.createEmpty();
+    for (int i = 0; i < 10_000; i++) {
+      first.add(i % 3 == 0 ? "x" : "a" + i);
+      second.add(i % 4 == 0 ? "x" : "b" + i);
+    }
+    first.merge(second);
+
+    assertTrue(first.top(Integer.MAX_VALUE).size() <= 20);
+    Map.Entry<String, Long> top = first.top(1).get(0);
+    assertEquals("x", top.getKey());
+    assertBounds(3334 + 2500, top.getValue(), first.getError());
+  }
+
+  // Счётчик не больше истинной частоты и занижен не больше чем на error
+  private static void assertBounds(long expected, long actual, long error) {
+    assertTrue(actual <= expected && actual >= expected - error,
+        "Счётчик " + actual + " при частоте " + expected + " и погрешности " + error);
+  }
+}
@@ -0,0 +1,55 @@
+package com.mami.statistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+  @Test
+  void testEmptyAndSmallCounts() {
+    HyperLogLog hll = new HyperLogLog();
+    assertEquals(0, hll.estimate());
+    for (int repeat = 0; repeat < 3; repeat++) {
+      for (int i = 0; i < 100; i++) {
+        hll.add("value" + i);
+      }
+    }
+    assertEquals(100, hll.estimate(), 2);
+  }
+
+  @Test
+  void testLargeCountWithinError() {
+    HyperLogLog hll = new HyperLogLog();
+    for (int i = 0; i < 1_000_000; i++) {
+      hll.add("строка " + i);
+    }
+    assertRelativeError(1_000_000, hll.estimate());
+  }
+
+  @Test
+  void testMergeCountsOverlapOnce() {
+    HyperLogLog first = new HyperLogLog();
+    HyperLogLog second = first.createEmpty();
+    for (int i = 0; i < 60_000; i++) {
+      first.add("s" + i);
+    }
+    for (int i = 40_000; i < 100_000; i++) {
+      second.add("s" + i);
+    }
+    first.merge(second);
+    assertRelativeError(100_000, first.estimate());
+  }
+
+  @Test
+  void testMergeWithDifferentPrecision() {
+    assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(10).merge(new HyperLogLog(12)));
+  }
+
+  private static void assertRelativeError(long expected, long actual) {
+    double error = Math.abs(actual - expected) / (double) expected;
+    assertTrue(error < 0.03, "Оценка " + actual + " вместо " + expected);
+  }
+}
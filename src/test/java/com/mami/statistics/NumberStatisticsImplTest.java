@@ -74,4 +74,125 @@ class NumberStatisticsImplTest {
     assertEquals(BigInteger.valueOf(5), stats.getAverage());
     stats.printFullStats();
   }
+
+  @Test
+  void testMergeEqualsSequentialUpdates() {
+    long[] values = {7, -3, 12, 0, 12, 45, -8, 3};
+    NumberStatisticsImpl left = new NumberStatisticsImpl();
+    NumberStatisticsImpl middle = left.createEmpty();
+    NumberStatisticsImpl right = left.createEmpty();
+
+    for (int i = 0; i < values.length; i++) {
+      stats.updateStats(BigInteger.valueOf(values[i]));
+      (i < 3 ? left : i < 5 ? middle : right).updateStats(BigInteger.valueOf(values[i]));
+    }
+    middle.merge(right);
+    left.merge(middle);
+
+    assertEquals(stats.getCount(), left.getCount());
+    assertEquals(stats.getSum(), left.getSum());
+    assertEquals(stats.getMin(), left.getMin());
+    assertEquals(stats.getMax(), left.getMax());
+    assertEquals(stats.getAverage(), left.getAverage());
+  }
+
+  @Test
+  void testAverageIsRecomputedAfterUpdate() {
+    stats.updateStats(BigInteger.valueOf(2));
+    assertEquals(BigInteger.valueOf(2), stats.getAverage());
+
+    stats.updateStats(BigInteger.valueOf(10));
+    assertEquals(BigInteger.valueOf(6), stats.getAverage());
+  }
+
+  @Test
+  void testMergeWithEmptyStatistics() {
+    stats.updateStats(BigInteger.valueOf(5));
+    stats.merge(new NumberStatisticsImpl());
+
+    NumberStatisticsImpl empty = new NumberStatisticsImpl();
+    empty.merge(stats);
+
+    assertEquals(1, empty.getCount());
+    assertEquals(BigInteger.valueOf(5), empty.getMin());
+    assertEquals(BigInteger.valueOf(5), empty.getAverage());
+  }
+
+  @Test
+  void testLongOverflowMatchesBigIntegerArithmetic() {
+    BigInteger[] values = {BigInteger.valueOf(Long.MAX_VALUE), BigInteger.valueOf(Long.MAX_VALUE), BigInteger.TEN,
+        new BigInteger("123456789012345678901234567890"), BigInteger.valueOf(Long.MIN_VALUE),
+        new BigInteger("-99999999999999999999999"), BigInteger.valueOf(Long.MAX_VALUE), BigInteger.ONE};
+
+    for (int i = 0; i < values.length; i++) {
+      if (i % 2 == 0) {
+        stats.updateStats(values[i]);
+      } else if (values[i].bitLength() < Long.SIZE) {
+        stats.updateStats(values[i].longValue());
+      } else {
+        stats.updateStats(values[i]);
+      }
+    }
+
+    BigInteger sum = BigInteger.ZERO;
+    for (BigInteger value : values) {
+      sum = sum.add(value);
+    }
+    assertEquals(values.length, stats.getCount());
+    assertEquals(sum, stats.getSum());
+    assertEquals(new BigInteger("-99999999999999999999999"), stats.getMin());
+    assertEquals(new BigInteger("123456789012345678901234567890"), stats.getMax());
+    assertEquals(sum.divide(BigInteger.valueOf(values.length)), stats.getAverage());
+  }
+
+  @Test
+  void testMergeWithOverflowingPartialSums() {
+    NumberStatisticsImpl other = new NumberStatisticsImpl();
+    stats.updateStats(Long.MAX_VALUE);
+    other.updateStats(Long.MAX_VALUE);
+    other.updateStats(new BigInteger("-123456789012345678901234567890"));
+
+    stats.merge(other);
+
+    assertEquals(3, stats.getCount());
+    assertEquals(BigInteger.valueOf(Long.MAX_VALUE).shiftLeft(1).add(new BigInteger("-123456789012345678901234567890")),
+        stats.getSum());
+    assertEquals(new BigInteger("-123456789012345678901234567890"), stats.getMin());
+    assertEquals(BigInteger.valueOf(Long.MAX_VALUE), stats.getMax());
+  }
+
+  @Test
+  void testQuantilesSurviveMerge() {
+    stats.enableQuantiles();
+    NumberStatisticsImpl partial = stats.createEmpty();
+    for (int i = 1; i <= 50; i++) {
+      stats.updateStats(i);
+    }
+    for (int i = 51; i <= 100; i++) {
+      partial.updateStats(BigInteger.valueOf(i));
+    }
+    stats.merge(partial);
+
+    assertEquals(50.0, stats.getQuantile(0.5));
+    assertEquals(99.0, stats.getQuantile(0.99));
+    stats.printFullStats();
+  }
+
+  @Test
+  void testQuantilesDisabledByDefault() {
+    stats.updateStats(BigInteger.ONE);
+    assertEquals(null, stats.getQuantile(0.5));
+  }
+
+  @Test
+  void testRestoreFromSnapshotContinuesStatistics() {
+    stats.updateStats(new BigInteger("123456789012345678901234567890"));
+    stats.updateStats(BigInteger.valueOf(-5));
+    NumberStatisticsImpl restored = new NumberStatisticsImpl();
+    restored.restore(stats.snapshot());
+    restored.updateStats(BigInteger.valueOf(-7));
+    stats.updateStats(BigInteger.valueOf(-7));
+
+    assertEquals(stats.snapshot(), restored.snapshot());
+  }
 }
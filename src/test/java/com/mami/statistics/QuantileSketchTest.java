@@ -0,0 +1,83 @@
+package com.mami.statistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class QuantileSketchTest {
+
+  @Test
+  void testEmptySketch() {
+    QuantileSketch sketch = new QuantileSketch();
+    assertEquals(0, sketch.getCount());
+    assertTrue(Double.isNaN(sketch.quantile(0.5)));
+  }
+
+  @Test
+  void testSmallInputIsExact() {
+    QuantileSketch sketch = new QuantileSketch();
+    for (int i = 1; i <= 100; i++) {
+      sketch.update(i);
+    }
+    assertEquals(50, sketch.quantile(0.5));
+    assertEquals(99, sketch.quantile(0.99));
+    assertEquals(1, sketch.quantile(0));
+    assertEquals(100, sketch.quantile(1));
+  }
+
+  @Test
+  void testLargeInputHasBoundedMemoryAndSmallRankError() {
+    QuantileSketch sketch = new QuantileSketch();
+    List<Double> values = shuffled(1_000_000, 1);
+    values.forEach(sketch::update);
+
+    assertEquals(1_000_000, sketch.getCount());
+    assertTrue(sketch.getRetained() < 2000, "Хранится значений: " + sketch.getRetained());
+    assertRankError(sketch, 1_000_000);
+  }
+
+  @Test
+  void testMergedSketchMatchesWholeInput() {
+    List<Double> values = shuffled(400_000, 2);
+    QuantileSketch total = new QuantileSketch();
+    for (int part = 0; part < 4; part++) {
+      QuantileSketch partial = total.createEmpty();
+      values.subList(part * 100_000, (part + 1) * 100_000).forEach(partial::update);
+      total.merge(partial);
+    }
+
+    assertEquals(400_000, total.getCount());
+    assertTrue(total.getRetained() < 2000, "Хранится значений: " + total.getRetained());
+    assertRankError(total, 400_000);
+  }
+
+  @Test
+  void testInvalidQuantile() {
+    QuantileSketch sketch = new QuantileSketch();
+    assertThrows(IllegalArgumentException.class, () -> sketch.quantile(1.5));
+    assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(2));
+  }
+
+  // Значения 1..n: точный квантиль q равен q * n, допускаем ошибку ранга 1%
+  private static void assertRankError(QuantileSketch sketch, int n) {
+    for (double q : new double[] {0.01, 0.25, 0.5, 0.95, 0.99}) {
+      double error = Math.abs(sketch.quantile(q) - q * n) / n;
+      assertTrue(error < 0.01, "Ошибка квантиля " + q + ": " + error);
+    }
+  }
+
+  private static List<Double> shuffled(int n, long seed) {
+    List<Double> values = new ArrayList<>(n);
+    for (int i = 1; i <= n; i++) {
+      values.add((double) i);
+    }
+    Collections.shuffle(values, new Random(seed));
+    return values;
+  }
+}
@@ -0,0 +1,67 @@
+package com.mami.statistics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StatsWriterTest {
+  private final Map<String, StatsSnapshot> snapshots = new LinkedHashMap<>();
+
+  @BeforeEach
+  void setUp() {
+    NumberStatisticsImpl numbers = new NumberStatisticsImpl();
+    numbers.updateStats(new BigInteger("10"));
+    numbers.updateStats(new BigInteger("99999999999999999999"));
+    DecimalStatisticsImpl decimals = new DecimalStatisticsImpl();
+    decimals.updateStats(new BigDecimal("1.5"));
+    decimals.updateStats(new BigDecimal("-0.25"));
+    TextStatisticsImpl texts = new TextStatisticsImpl();
+
+    snapshots.put("integers", numbers.snapshot());
+    snapshots.put("floats", decimals.snapshot());
+    snapshots.put("strings", texts.snapshot());
+  }
+
+  @Test
+  void testJson() throws IOException {
+    StringBuilder out = new StringBuilder();
+    StatsWriter.write(out, StatsFormat.JSON, snapshots);
+
+    assertEquals("""
+        {
+          "integers": {"count": 2, "min": 10, "max": 99999999999999999999, "sum": 100000000000000000009, \
+        "average": 50000000000000000004},
+          "floats": {"count": 2, "min": -0.25, "max": 1.5, "sum": 1.25, "average": 0.63},
+          "strings": {"count": 0}
+        }
+        """, out.toString());
+  }
+
+  @Test
+  void testCsv() throws IOException {
+    StringBuilder out = new StringBuilder();
+    StatsWriter.write(out, StatsFormat.CSV, snapshots);
+
+    assertEquals("""
+        category,count,min,max,sum,average,min_length,max_length
+        integers,2,10,99999999999999999999,100000000000000000009,50000000000000000004,,
+        floats,2,-0.25,1.5,1.25,0.63,,
+        strings,0,,,,,,
+        """, out.toString());
+  }
+
+  @Test
+  void testTextSnapshotHasLengths() {
+    TextStatisticsImpl texts = new TextStatisticsImpl();
+    texts.updateStats("ab");
+    texts.updateStats("abcd");
+
+    assertEquals(StatsSnapshot.ofText(2, 2, 4), texts.snapshot());
+  }
+}
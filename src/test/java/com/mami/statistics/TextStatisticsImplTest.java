@@ -1,7 +1,9 @@
 package com.mami.statistics;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -69,4 +71,61 @@ class TextStatisticsImplTest {
     assertEquals(11, stats.getMax());
     stats.printFullStats();
   }
+
+  @Test
+  void testMergeEqualsSequentialUpdates() {
+    String[] values = {"hi", "hello world", "Java", "Привет Алекс", "a"};
+    TextStatisticsImpl left = new TextStatisticsImpl();
+    TextStatisticsImpl right = left.createEmpty();
+
+    for (int i = 0; i < values.length; i++) {
+      stats.updateStats(values[i]);
+      (i < 2 ? left : right).updateStats(values[i]);
+    }
+    left.merge(right);
+    left.merge(new TextStatisticsImpl());
+
+    assertEquals(stats.getCount(), left.getCount());
+    assertEquals(stats.getMin(), left.getMin());
+    assertEquals(stats.getMax(), left.getMax());
+  }
+
+  @Test
+  void testFrequenciesSurviveMerge() {
+    stats.enableFrequencies(2);
+    TextStatisticsImpl partial = stats.createEmpty();
+    for (int i = 0; i < 1000; i++) {
+      stats.updateStats("value" + (i % 50));
+      partial.updateStats("other" + (i % 50));
+    }
+    for (int i = 0; i < 10; i++) {
+      stats.updateStats("top");
+      partial.updateStats("top");
+      partial.updateStats("top");
+    }
+    stats.merge(partial);
+
+    assertEquals(2030, stats.getCount());
+    assertEquals(101, stats.getDistinctCount());
+    assertEquals(Map.entry("top", 30L), stats.getTopValues().top(1).get(0));
+    stats.printFullStats();
+  }
+
+  @Test
+  void testFrequenciesDisabledByDefault() {
+    stats.updateStats("a");
+    assertNull(stats.getDistinctCount());
+  }
+
+  @Test
+  void testRestoreFromSnapshotContinuesStatistics() {
+    stats.updateStats("hello");
+    stats.updateStats("hi");
+    TextStatisticsImpl restored = new TextStatisticsImpl();
+    restored.restore(stats.snapshot());
+    restored.updateStats("a");
+    stats.updateStats("a");
+
+    assertEquals(stats.snapshot(), restored.snapshot());
+  }
 }